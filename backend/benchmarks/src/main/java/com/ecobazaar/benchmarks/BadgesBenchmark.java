@@ -0,0 +1,46 @@
+package com.ecobazaar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ecobazaar.backend.service.AnalyticsService;
+
+// AnalyticsService.calculateUserBadges, called for every dashboard and user report. Each op is one
+// call; the savings cycle through every badge tier (and null) so no single branch is favoured.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BadgesBenchmark {
+
+    private static final Double[] SAVINGS = { null, 0.0, 0.5, 3.2, 12.0, 48.9, 75.0, 150.0 };
+
+    private AnalyticsService analyticsService;
+
+    @Setup
+    public void setUp() {
+        analyticsService = new AnalyticsService();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(8)
+    public void calculateUserBadges(Blackhole blackhole) {
+        for (Double savings : SAVINGS) {
+            blackhole.consume(analyticsService.calculateUserBadges(savings));
+        }
+    }
+}
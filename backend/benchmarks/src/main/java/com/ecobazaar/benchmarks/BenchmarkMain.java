@@ -0,0 +1,25 @@
+package com.ecobazaar.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+
+// Entry point of benchmarks.jar: JMH's own command line, with allocation profiling (-prof gc) and a
+// JSON result file (-rf json, written to jmh-result.json) on unless the command line sets them, so
+// every run leaves gc.alloc.rate.norm figures that can be diffed in review.
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>();
+        List<String> given = List.of(args);
+        if (!given.contains("-prof")) {
+            options.addAll(List.of("-prof", "gc"));
+        }
+        if (!given.contains("-rf")) {
+            options.addAll(List.of("-rf", "json"));
+        }
+        options.addAll(given);
+        Main.main(options.toArray(new String[0]));
+    }
+}
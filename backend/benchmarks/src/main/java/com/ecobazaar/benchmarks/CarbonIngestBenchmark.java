@@ -0,0 +1,80 @@
+package com.ecobazaar.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ecobazaar.backend.service.CarbonIngestParser;
+import com.ecobazaar.backend.service.CsvReader;
+
+import tools.jackson.databind.json.JsonMapper;
+
+// Rows per second that one upload thread parses and validates for POST /api/carbon/bulk, i.e. the
+// ceiling the database side has to keep up with. Each op is one row. See CarbonIngestEndToEndBenchmark
+// for the whole upload including the database.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarbonIngestBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({ CarbonIngestParser.NDJSON, CarbonIngestParser.CSV })
+    private String format;
+
+    private CarbonIngestParser parser;
+    private String[] lines;
+    private String csv;
+
+    @Setup
+    public void setUp() {
+        parser = new CarbonIngestParser(format, JsonMapper.builder().build());
+        lines = new String[ROWS];
+        StringBuilder body = new StringBuilder("productId,userId,carbonFootprint,calculationDate\n");
+        for (int i = 0; i < ROWS; i++) {
+            long productId = 1 + i % 500;
+            long userId = 1 + i % 5000;
+            double value = (i % 997) / 10.0;
+            String date = "2026-" + String.format("%02d-%02dT%02d:15:00Z", 1 + i % 12, 1 + i % 28, i % 24);
+            lines[i] = "{\"productId\":" + productId + ",\"userId\":" + userId + ",\"carbonFootprint\":" + value
+                    + ",\"calculationDate\":\"" + date + "\"}";
+            body.append(productId).append(',').append(userId).append(',').append(value).append(',').append(date).append('\n');
+        }
+        csv = body.toString();
+    }
+
+    // CSV goes through CsvReader as the upload does, so the figure includes splitting records
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void parse(Blackhole blackhole) throws IOException {
+        if (parser.needsHeader()) {
+            CsvReader reader = new CsvReader(new StringReader(csv));
+            parser.header(reader.next());
+            String[] record;
+            while ((record = reader.next()) != null) {
+                blackhole.consume(parser.parse(record));
+            }
+        } else {
+            for (String line : lines) {
+                blackhole.consume(parser.parse(line));
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecobazaar.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.ecobazaar.backend.config.IdBlockAllocator;
+import com.ecobazaar.backend.dto.CarbonIngestResultDTO;
+import com.ecobazaar.backend.service.CarbonIngestParser;
+import com.ecobazaar.backend.service.CarbonIngestService;
+import com.ecobazaar.backend.service.CarbonRollupService;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import tools.jackson.databind.json.JsonMapper;
+
+// Rows per second through the whole of POST /api/carbon/bulk below the controller: reading and
+// parsing the body, product checks, block ids, batched inserts and rollup upserts, each batch in
+// its own transaction. Each op is one row. Runs against an in-memory H2 (MySQL mode) by default;
+// point it at a real database, whose schema and products already exist, with
+//   java -Dbenchmark.db.url='jdbc:mysql://host/ecobazaar?rewriteBatchedStatements=true' \
+//        -Dbenchmark.db.username=... -Dbenchmark.db.password=... -jar benchmarks.jar CarbonIngestEndToEnd
+// The rows written are deleted again after each iteration.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CarbonIngestEndToEndBenchmark {
+
+    private static final int ROWS = 50_000;
+    private static final int PRODUCTS = 500;
+    private static final String H2_URL = "jdbc:h2:mem:ingest;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Param({ CarbonIngestParser.NDJSON, CarbonIngestParser.CSV })
+    private String format;
+
+    private HikariDataSource dataSource;
+    private IdBlockAllocator idBlockAllocator;
+    private JdbcTemplate jdbcTemplate;
+    private CarbonIngestService service;
+    private byte[] body;
+    private long firstId;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(System.getProperty("benchmark.db.url", H2_URL));
+        properties.setUsername(System.getProperty("benchmark.db.username", "sa"));
+        properties.setPassword(System.getProperty("benchmark.db.password", ""));
+        dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        if (properties.getUrl().equals(H2_URL)) {
+            createSchema();
+        }
+        List<Long> products = jdbcTemplate.queryForList("SELECT id FROM products ORDER BY id LIMIT " + PRODUCTS, Long.class);
+        if (products.isEmpty()) {
+            throw new IllegalStateException("The benchmark database has no products");
+        }
+
+        idBlockAllocator = new IdBlockAllocator(properties);
+        CarbonRollupService rollups = new CarbonRollupService();
+        Stubs.inject(rollups, "jdbcTemplate", jdbcTemplate);
+        service = new CarbonIngestService(new DataSourceTransactionManager(dataSource), new SimpleMeterRegistry(), 5000, 1000);
+        Stubs.inject(service, "jdbcTemplate", jdbcTemplate);
+        Stubs.inject(service, "idBlockAllocator", idBlockAllocator);
+        Stubs.inject(service, "carbonRollupService", rollups);
+        Stubs.inject(service, "jsonMapper", JsonMapper.builder().build());
+
+        boolean csv = CarbonIngestParser.CSV.equals(format);
+        StringBuilder text = new StringBuilder(csv ? "productId,userId,carbonFootprint,calculationDate\n" : "");
+        for (int i = 0; i < ROWS; i++) {
+            long productId = products.get(i % products.size());
+            long userId = 1 + i % 5000;
+            double value = (i % 997) / 10.0;
+            String date = "2026-" + String.format("%02d-%02dT%02d:15:00Z", 1 + i % 12, 1 + i % 28, i % 24);
+            if (csv) {
+                text.append(productId).append(',').append(userId).append(',').append(value).append(',').append(date);
+            } else {
+                text.append("{\"productId\":").append(productId).append(",\"userId\":").append(userId)
+                        .append(",\"carbonFootprint\":").append(value).append(",\"calculationDate\":\"").append(date).append("\"}");
+            }
+            text.append('\n');
+        }
+        body = text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Iteration)
+    public void markFirstId() {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM carbon_footprint", Long.class);
+        firstId = max != null ? max + 1 : 0;
+    }
+
+    // Rollups only ever grow, so they are left; the raw rows would otherwise pile up in memory on H2
+    @TearDown(Level.Iteration)
+    public void deleteRows() {
+        jdbcTemplate.update("DELETE FROM carbon_footprint WHERE id >= ?", firstId);
+    }
+
+    @TearDown
+    public void tearDown() throws ReflectiveOperationException {
+        var close = IdBlockAllocator.class.getDeclaredMethod("close");
+        close.setAccessible(true);
+        close.invoke(idBlockAllocator);
+        dataSource.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public CarbonIngestResultDTO upload() throws IOException {
+        CarbonIngestResultDTO result = service.ingest(new ByteArrayInputStream(body), format, null);
+        if (result.getInserted() != ROWS) {
+            throw new IllegalStateException("Only " + result.getInserted() + " of " + ROWS + " rows inserted: " + result.getErrors());
+        }
+        return result;
+    }
+
+    // What Hibernate creates for the tables the upload touches
+    private void createSchema() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS products (id BIGINT PRIMARY KEY, seller_email VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS id_generators (name VARCHAR(255) PRIMARY KEY, next_val BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS carbon_footprint (id BIGINT PRIMARY KEY, product_id BIGINT, "
+                + "user_id BIGINT, carbon_footprint DOUBLE, calculation_date TIMESTAMP(6))");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_carbon_footprint_product_date ON carbon_footprint (product_id, calculation_date, id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_carbon_footprint_user_date ON carbon_footprint (user_id, calculation_date, id)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS carbon_rollups (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "product_id BIGINT NOT NULL, granularity VARCHAR(5) NOT NULL, bucket DATE NOT NULL, sample_count BIGINT, "
+                + "total DOUBLE, min_value DOUBLE, max_value DOUBLE, UNIQUE (product_id, granularity, bucket))");
+        for (long id = 1; id <= PRODUCTS; id++) {
+            jdbcTemplate.update("MERGE INTO products (id, seller_email) KEY (id) VALUES (?, ?)", id, "seller@example.com");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.ecobazaar.benchmarks;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ecobazaar.backend.model.CarbonFootprint;
+import com.ecobazaar.backend.service.CarbonReportRenderer;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+
+// Product carbon report renders per second, old path against new. Run with -prof gc for
+// allocation per render (gc.alloc.rate.norm).
+//   legacy:   HTML concatenated with a StringBuilder, parsed and laid out by a fresh builder
+//   template: CarbonReportRenderer's precompiled template, filled in as DOM nodes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CarbonReportBenchmark {
+
+    @Param({ "10", "200" })
+    private int rows;
+
+    private List<CarbonFootprint> history;
+
+    @Setup
+    public void setUp() {
+        history = new ArrayList<>(rows);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            history.add(CarbonFootprint.builder()
+                    .id((long) i)
+                    .productId(42L)
+                    .userId(7L)
+                    .carbonFootprint(1.5 + i % 17)
+                    .calculationDate(new Date(now - i * 3_600_000L))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void legacy() throws Exception {
+        StringBuilder html = new StringBuilder();
+        html.append("<html><body>");
+        html.append("<h1>Carbon Footprint Report for Product ").append(42L).append("</h1>");
+        html.append("<table border='1'><tr><th>Date</th><th>Carbon Footprint (kg)</th></tr>");
+        for (CarbonFootprint record : history) {
+            html.append("<tr><td>").append(record.getCalculationDate()).append("</td><td>").append(record.getCarbonFootprint()).append("</td></tr>");
+        }
+        html.append("</table>");
+        html.append("</body></html>");
+
+        PdfRendererBuilder builder = new PdfRendererBuilder();
+        builder.withHtmlContent(html.toString(), null);
+        builder.toStream(OutputStream.nullOutputStream());
+        builder.run();
+    }
+
+    @Benchmark
+    public void template(Renderer state) throws Exception {
+        state.renderer.render(state.renderer.buildDocument(42L, history), OutputStream.nullOutputStream());
+    }
+
+    // Only created in the template fork: the renderer also swaps openhtmltopdf's logger, which
+    // would otherwise speed up the legacy path too
+    @State(Scope.Benchmark)
+    public static class Renderer {
+        private CarbonReportRenderer renderer;
+
+        @Setup
+        public void setUp() throws Exception {
+            renderer = new CarbonReportRenderer("");
+        }
+    }
+}
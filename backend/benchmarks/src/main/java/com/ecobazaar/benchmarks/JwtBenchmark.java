@@ -0,0 +1,163 @@
+package com.ecobazaar.benchmarks;
+
+import java.security.Key;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import com.ecobazaar.backend.config.JwtAuthFilter;
+import com.ecobazaar.backend.config.UserDetailsServiceImpl;
+import com.ecobazaar.backend.controller.JwtUtils;
+import com.ecobazaar.backend.model.User;
+import com.ecobazaar.backend.repository.UserRepository;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// JwtUtils on the paths every request takes: issuing a token at login, and the checks
+// JwtAuthFilter makes on each authenticated request (a good and a forged signature). The filter*
+// benchmarks run the whole JwtAuthFilter on a request; legacyAuthenticate is the filter as it was
+// before: key and parser rebuilt on every call, the token parsed twice and the user loaded by
+// email. The user lookup answers from memory here, so on a real database the old path costs a
+// query round trip more than this shows.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    // The literal JwtUtils signs with; the legacy path derives its key from it on every call
+    private static final String SECRET_KEY = "EcoBazaarSuperSecretKeyForJwtSigningAndVerification";
+
+    private JwtUtils jwtUtils;
+    private User user;
+    private String token;
+    private String tokenWithoutRole;
+    private String forged;
+    private UserDetailsService userDetailsService;
+    private JwtAuthFilter filter;
+    private HttpServletRequest request;
+    private HttpServletRequest requestWithoutRole;
+    private HttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() throws Exception {
+        jwtUtils = new JwtUtils();
+        user = User.builder().id(42L).email("shopper@example.com").fullName("Shopper").role("ROLE_USER")
+                .password("$2a$10$abcdefghijklmnopqrstuu5ZkqZ4l4vCIMR1o2EO0fa1Nrhdy6x2W").build();
+        token = jwtUtils.generateToken(user);
+        tokenWithoutRole = jwtUtils.generateToken(user.getEmail());
+        // Same header and claims, one signature character changed (not the last, whose low bits are padding)
+        int at = token.length() - 5;
+        forged = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+
+        userDetailsService = new UserDetailsServiceImpl();
+        Stubs.inject(userDetailsService, "userRepository", Stubs.repository(UserRepository.class, Map.of(
+                "findByEmail", args -> user.getEmail().equals(args[0]) ? Optional.of(user) : Optional.empty())));
+
+        filter = new JwtAuthFilter();
+        Stubs.inject(filter, "jwtUtils", jwtUtils);
+        Stubs.inject(filter, "userDetailsService", userDetailsService);
+        request = request(token);
+        requestWithoutRole = request(tokenWithoutRole);
+        response = Stubs.repository(HttpServletResponse.class, Map.of());
+        chain = (req, res) -> { };
+        if (runFilter(request) == null || runFilter(requestWithoutRole) == null || legacyAuthenticate() == null) {
+            throw new IllegalStateException("A benchmarked path did not authenticate the request");
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtils.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtils.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtils.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean validateForgedToken() {
+        return jwtUtils.validateToken(forged);
+    }
+
+    // Today's path: one parse, authority from the role claim
+    @Benchmark
+    public Authentication filterRequest() throws Exception {
+        return runFilter(request);
+    }
+
+    // Tokens minted before the role claim still take the user lookup
+    @Benchmark
+    public Authentication filterRequestWithoutRole() throws Exception {
+        return runFilter(requestWithoutRole);
+    }
+
+    @Benchmark
+    public Authentication legacyAuthenticate() {
+        String userEmail = legacyParser().parseClaimsJws(token).getBody().getSubject();
+        UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+        try {
+            legacyParser().parseClaimsJws(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    private static io.jsonwebtoken.JwtParser legacyParser() {
+        Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+        return Jwts.parserBuilder().setSigningKey(key).build();
+    }
+
+    private Authentication runFilter(HttpServletRequest req) throws Exception {
+        try {
+            filter.doFilter(req, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    // Just what OncePerRequestFilter and JwtAuthFilter ask of an authenticated GET
+    private static HttpServletRequest request(String bearer) {
+        return Stubs.repository(HttpServletRequest.class, Map.of(
+                "getHeader", args -> "Authorization".equals(args[0]) ? "Bearer " + bearer : null,
+                "getRequestURI", args -> "/api/orders/my-orders",
+                "getMethod", args -> "GET",
+                "getDispatcherType", args -> DispatcherType.REQUEST,
+                "getAttribute", args -> null,
+                "setAttribute", args -> null,
+                "removeAttribute", args -> null));
+    }
+}
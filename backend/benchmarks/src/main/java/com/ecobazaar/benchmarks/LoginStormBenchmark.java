@@ -0,0 +1,120 @@
+package com.ecobazaar.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.ecobazaar.backend.dto.ProductFacetResultDTO;
+import com.ecobazaar.backend.dto.ProductFilterDTO;
+import com.ecobazaar.backend.model.Product;
+import com.ecobazaar.backend.service.PasswordHashingService;
+import com.ecobazaar.backend.service.ProductFacetIndex;
+import com.ecobazaar.backend.service.ProductService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+// What a login storm does to everyone else. In the "storm" group, login threads keep
+// PasswordHashingService's bcrypt pool and queue full, while one thread times a shop filter
+// query (the in-memory facet index, no database) on the same machine; "quiet" times the same
+// query with no logins. The gap between storm:catalog and quiet is the cost of the storm.
+// hashingThreads 0 sizes the pool to the CPU count, as in production.
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginStormBenchmark {
+
+    private static final int PRODUCTS = 20_000;
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({ "0", "1" })
+    private int hashingThreads;
+
+    private PasswordHashingService hashing;
+    private ProductFacetIndex facetIndex;
+    private ProductFilterDTO filter;
+    private String hash;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(10);
+        hash = encoder.encode(PASSWORD);
+        hashing = new PasswordHashingService(encoder, new SimpleMeterRegistry(), hashingThreads, 64);
+
+        facetIndex = new ProductFacetIndex();
+        Stubs.inject(facetIndex, "productService", new ProductService() {
+            @Override
+            public void forEachProduct(Consumer<Product> consumer) {
+                for (long id = 1; id <= PRODUCTS; id++) {
+                    consumer.accept(Product.builder()
+                            .id(id)
+                            .name("Product " + id)
+                            .category(List.of("Home", "Fashion", "Garden", "Kitchen").get((int) (id % 4)))
+                            .price(1.0 + id % 200)
+                            .co2Emission((id % 97) / 10.0)
+                            .isEcoFriendly(id % 3 == 0)
+                            .material(id % 2 == 0 ? "bamboo, cotton" : "recycled plastic")
+                            .verificationStatus("APPROVED")
+                            .build());
+                }
+            }
+        });
+        facetIndex.rebuild();
+
+        filter = new ProductFilterDTO();
+        filter.setCategory(List.of("Home"));
+        filter.setEcoFriendly(true);
+        filter.setMaxPrice(120.0);
+        filter.setSort("co2Emission");
+    }
+
+    @TearDown
+    public void tearDown() {
+        hashing.shutdown();
+    }
+
+    // A full queue is what a storm looks like from AuthController: the login would get a 503
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(4)
+    public boolean login() {
+        try {
+            return hashing.matches(PASSWORD, hash).join();
+        } catch (RejectedExecutionException e) {
+            Thread.onSpinWait();
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("storm")
+    @GroupThreads(1)
+    public ProductFacetResultDTO catalog() {
+        return facetIndex.query(filter);
+    }
+
+    @Benchmark
+    @Group("quiet")
+    public ProductFacetResultDTO quiet() {
+        return facetIndex.query(filter);
+    }
+}
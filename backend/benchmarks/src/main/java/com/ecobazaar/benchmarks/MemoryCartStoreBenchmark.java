@@ -0,0 +1,83 @@
+package com.ecobazaar.benchmarks;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.ecobazaar.backend.dto.CartChangeDTO;
+import com.ecobazaar.backend.model.CartItem;
+import com.ecobazaar.backend.repository.CartRepository;
+import com.ecobazaar.backend.service.MemoryCartStore;
+
+// Cost of an add-to-cart with MemoryCartStore once the cart is in memory: the shard lock, the
+// line copy and the totals. The write-behind flush is not part of it (nothing is flushed here).
+// Carts hold up to cartLines lines; 4 threads add to different users' carts at the same time.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class MemoryCartStoreBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({ "5", "50" })
+    private int cartLines;
+
+    private MemoryCartStore store;
+    private String[] emails;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        store = new MemoryCartStore(64, new DataSourceTransactionManager());
+        // Every user is new to the store: no carts row to load
+        Stubs.inject(store, "cartRepository", Stubs.repository(CartRepository.class, Map.of(
+                "findIdByUserEmail", args -> Optional.empty())));
+        emails = new String[USERS];
+        for (int i = 0; i < USERS; i++) {
+            emails[i] = "shopper" + i + "@example.com";
+            for (long productId = 1; productId <= cartLines; productId++) {
+                store.addItem(emails[i], item(productId));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Shopper {
+        private int next;
+    }
+
+    @Benchmark
+    public CartChangeDTO addItem(Shopper shopper) {
+        int n = shopper.next++;
+        return store.addItem(emails[Math.floorMod(n * 31 + Thread.currentThread().hashCode(), USERS)], item(1 + n % cartLines));
+    }
+
+    private static CartItem item(long productId) {
+        return CartItem.builder()
+                .productId(productId)
+                .productName("Bamboo Toothbrush " + productId)
+                .price(3.5)
+                .co2Emission(0.2)
+                .isEcoFriendly(true)
+                .category("Home")
+                .quantity(1)
+                .build();
+    }
+}
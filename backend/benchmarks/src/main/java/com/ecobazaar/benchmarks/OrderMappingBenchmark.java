@@ -0,0 +1,70 @@
+package com.ecobazaar.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ecobazaar.backend.model.OrderItem;
+import com.ecobazaar.backend.service.OrderService;
+
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+// The request mapping in OrderService.createOrder: cart lines, as Jackson hands them to
+// OrderController, turned into order items and the per-product quantities stock is settled with.
+// Each op is one order of `items` lines.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({ "1", "20" })
+    private int items;
+
+    private List<Map<String, Object>> cartItems;
+
+    @Setup
+    public void setUp() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(100 + i % 7)
+                .append(",\"name\":\"Reusable Bottle ").append(i).append('"')
+                .append(",\"price\":").append(12.5 + i)
+                .append(",\"co2Emission\":").append(i % 5 == 0 ? "2" : (0.25 * i))
+                .append(",\"isEcoFriendly\":").append(i % 2 == 0)
+                .append(",\"quantity\":").append(1 + i % 3)
+                .append('}');
+        }
+        json.append(']');
+        cartItems = JsonMapper.builder().build().readValue(json.toString(), new TypeReference<List<Map<String, Object>>>() {
+        });
+    }
+
+    @Benchmark
+    public List<OrderItem> toOrderItems() {
+        return OrderService.toOrderItems(cartItems);
+    }
+
+    @Benchmark
+    public Map<Long, Integer> quantitiesOf() {
+        return OrderService.quantitiesOf(cartItems);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ecobazaar.benchmarks;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ecobazaar.backend.dto.OrderReportRowDTO;
+import com.ecobazaar.backend.model.CarbonFootprint;
+import com.ecobazaar.backend.repository.CarbonFootprintRepository;
+import com.ecobazaar.backend.repository.OrderRepository;
+import com.ecobazaar.backend.service.AnalyticsService;
+import com.ecobazaar.backend.service.CarbonReportRenderer;
+import com.ecobazaar.backend.service.CarbonService;
+import com.ecobazaar.backend.service.PdfReportService;
+import com.lowagie.text.DocumentException;
+
+import org.w3c.dom.Document;
+
+// Report renders per second through the services the endpoints call, with the repositories
+// answering from memory so only rendering is measured. `rows` is the user's order count for the
+// user report and the product's carbon records for the carbon report.
+//   userReport / platformReport:        PdfReportService
+//   carbonReportDocument / carbonReport: CarbonService, filling in the template / rendering to PDF
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    private PdfReportService platformReportService;
+
+    @Setup
+    public void setUp() {
+        platformReportService = new PdfReportService(); // reads nothing, the totals are passed in
+    }
+
+    @Benchmark
+    public void userReport(History state) throws DocumentException {
+        state.pdfReportService.writeUserEcoReport("shopper@example.com", 64.0, state.badges, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void platformReport() throws DocumentException {
+        platformReportService.writePlatformEcoReport(1_250_000.0, 48_000.0, 90_000L, 12_000L, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public Document carbonReportDocument(History state) {
+        return state.carbonService.generateCarbonFootprintReport(42L);
+    }
+
+    @Benchmark
+    public void carbonReport(History state) throws Exception {
+        state.carbonService.writeCarbonFootprintReport(42L, OutputStream.nullOutputStream());
+    }
+
+    // Only the benchmarks that read history run once per `rows`
+    @State(Scope.Benchmark)
+    public static class History {
+
+        @Param({ "10", "1000" })
+        private int rows;
+
+        private PdfReportService pdfReportService;
+        private CarbonService carbonService;
+        private List<String> badges;
+
+        @Setup
+        public void setUp() throws Exception {
+            LocalDateTime now = LocalDateTime.now();
+            List<OrderReportRowDTO> orders = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                orders.add(new OrderReportRowDTO(now.minusHours(i * 7L), 20.0 + i % 90, 0.5 + i % 13, "COMPLETED"));
+            }
+            pdfReportService = new PdfReportService();
+            Stubs.inject(pdfReportService, "orderRepository", Stubs.repository(OrderRepository.class,
+                    Map.of("streamReportRows", args -> orders.stream())));
+
+            List<CarbonFootprint> history = new ArrayList<>(rows);
+            long millis = System.currentTimeMillis();
+            for (int i = 0; i < rows; i++) {
+                history.add(CarbonFootprint.builder()
+                        .id((long) i)
+                        .productId(42L)
+                        .userId(7L)
+                        .carbonFootprint(1.5 + i % 17)
+                        .calculationDate(new Date(millis - i * 3_600_000L))
+                        .build());
+            }
+            carbonService = new CarbonService();
+            Stubs.inject(carbonService, "carbonFootprintRepository", Stubs.repository(CarbonFootprintRepository.class,
+                    Map.of("findByProductId", args -> history)));
+            Stubs.inject(carbonService, "carbonReportRenderer", new CarbonReportRenderer(""));
+
+            badges = new AnalyticsService().calculateUserBadges(64.0);
+        }
+    }
+}
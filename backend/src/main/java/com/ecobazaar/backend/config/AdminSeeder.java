@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 
 import com.ecobazaar.backend.model.User;
 import com.ecobazaar.backend.repository.UserRepository;
+import com.ecobazaar.backend.service.UserService;
 
 @Component
 public class AdminSeeder implements CommandLineRunner {
@@ -14,6 +15,9 @@ public class AdminSeeder implements CommandLineRunner {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserService userService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -27,7 +31,7 @@ public class AdminSeeder implements CommandLineRunner {
                     .role("ROLE_ADMIN")
                     .build();
             
-            userRepository.save(admin);
+            userService.createUser(admin);
             System.out.println("=================================================");
             System.out.println(" DEFAULT ADMIN CREATED:");
             System.out.println(" Email: boss@ecobazaar.com");
@@ -0,0 +1,20 @@
+package com.ecobazaar.backend.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+// Put on an @Id to take ids in blocks from IdBlockAllocator instead of AUTO_INCREMENT,
+// which lets Hibernate batch the entity's inserts
+@IdGeneratorType(BlockIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface BlockId {
+    // Row in id_generators
+    String name();
+
+    int blockSize() default 50;
+}
@@ -0,0 +1,32 @@
+package com.ecobazaar.backend.config;
+
+import java.lang.reflect.Member;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentifierGenerator;
+
+public class BlockIdGenerator implements IdentifierGenerator {
+
+    private final IdBlockAllocator allocator;
+    private final String name;
+    private final int blockSize;
+
+    // Hibernate creates generators itself; the allocator of this persistence unit comes in through its settings
+    public BlockIdGenerator(BlockId config, Member member, GeneratorCreationContext context) {
+        Object allocator = context.getServiceRegistry().requireService(ConfigurationService.class)
+                .getSettings().get(IdBlockAllocator.SETTING);
+        if (!(allocator instanceof IdBlockAllocator)) {
+            throw new IllegalStateException("No IdBlockAllocator in the Hibernate settings (" + IdBlockAllocator.SETTING + ")");
+        }
+        this.allocator = (IdBlockAllocator) allocator;
+        this.name = config.name();
+        this.blockSize = config.blockSize();
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object entity) {
+        return allocator.next(name, blockSize);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecobazaar.backend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.jpa.autoconfigure.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+
+// cart_items used to get a new row each time a product was added, so older carts can hold several
+// rows for one product. The unique (cart_id, product_id) key on CartItem can't be created over those,
+// so before Hibernate updates the schema this folds each group into its oldest row, with the summed
+// quantity (a null quantity counts as 1). Once the key exists there is nothing left to fold.
+@Component
+public class CartItemDeduplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(CartItemDeduplicator.class);
+
+    private static final String FIND_DUPLICATES =
+            "SELECT cart_id, product_id, MIN(id), SUM(COALESCE(quantity, 1)) FROM cart_items " +
+            "WHERE cart_id IS NOT NULL AND product_id IS NOT NULL " +
+            "GROUP BY cart_id, product_id HAVING COUNT(*) > 1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PostConstruct
+    public void merge() {
+        List<Object[]> keep = new ArrayList<>();
+        List<Object[]> drop = new ArrayList<>();
+        try {
+            jdbcTemplate.query(FIND_DUPLICATES, rs -> {
+                keep.add(new Object[] { rs.getInt(4), rs.getLong(3) });
+                drop.add(new Object[] { rs.getLong(1), rs.getLong(2), rs.getLong(3) });
+            });
+        } catch (BadSqlGrammarException e) {
+            // No cart_items table yet: a new database, which Hibernate is about to create
+            return;
+        }
+        if (keep.isEmpty()) {
+            return;
+        }
+        // JPA's transaction manager needs the EntityManagerFactory, which waits for this bean
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("UPDATE cart_items SET quantity = ? WHERE id = ?", keep);
+            jdbcTemplate.batchUpdate("DELETE FROM cart_items WHERE cart_id = ? AND product_id = ? AND id <> ?", drop);
+        });
+        logger.info("Merged duplicate cart lines for {} (cart, product) pair(s)", keep.size());
+    }
+
+    // Makes the EntityManagerFactory, and so Hibernate's schema update, wait for merge()
+    @Component
+    static class RunBeforeSchemaUpdate extends EntityManagerFactoryDependsOnPostProcessor {
+        RunBeforeSchemaUpdate() {
+            super(CartItemDeduplicator.class);
+        }
+    }
+}
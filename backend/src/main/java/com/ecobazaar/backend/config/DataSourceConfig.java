@@ -0,0 +1,41 @@
+package com.ecobazaar.backend.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Two pools behind one DataSource. Read-only transactions (the report and export streams) get their
+// connection from a small pool whose MySQL connections fetch through a server-side cursor
+// (useCursorFetch), so the fetch size those queries set bounds what the driver buffers. Everything
+// else, the batched inserts included, uses the main pool, which keeps client-side statements.
+// The proxy only borrows a connection at the first statement, once it knows the transaction is read-only.
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource mainDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("report.datasource")
+    public HikariDataSource streamingDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource mainDataSource, HikariDataSource streamingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(mainDataSource);
+        dataSource.setReadOnlyDataSource(streamingDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecobazaar.backend.config;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PreDestroy;
+
+// Hands out ids in blocks reserved from the id_generators table (MySQL has no sequences).
+// Blocks are reserved over a separate two-connection pool on purpose: the caller is usually
+// mid-transaction and already holding a connection from the main pool, and borrowing a second
+// one from that same pool can deadlock once every connection belongs to a waiting caller.
+@Component
+public class IdBlockAllocator implements HibernatePropertiesCustomizer {
+
+    // Hibernate setting that carries this allocator to the BlockIdGenerators of the persistence unit
+    static final String SETTING = "ecobazaar.id-block-allocator";
+
+    private final HikariDataSource dataSource;
+    private final ConcurrentHashMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public IdBlockAllocator(DataSourceProperties properties) {
+        this.dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("id-allocator");
+        this.dataSource.setMaximumPoolSize(2);
+        this.dataSource.setMinimumIdle(0);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(SETTING, this);
+    }
+
+    @PreDestroy
+    void close() {
+        dataSource.close();
+    }
+
+    public long next(String name, int blockSize) {
+        Block block = blocks.computeIfAbsent(name, key -> new Block());
+        synchronized (block) {
+            if (block.next >= block.end) {
+                block.end = reserve(name, blockSize);
+                block.next = block.end - blockSize;
+            }
+            return block.next++;
+        }
+    }
+
+    // Moves the generator row forward by blockSize and returns its new value (exclusive end of our block)
+    private long reserve(String name, int blockSize) {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                if (advance(connection, name, blockSize) == 0) {
+                    try (PreparedStatement insert = connection.prepareStatement(
+                            "INSERT INTO id_generators (name, next_val) VALUES (?, 1)")) {
+                        insert.setString(1, name);
+                        insert.executeUpdate();
+                    }
+                    advance(connection, name, blockSize);
+                }
+                long end;
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT next_val FROM id_generators WHERE name = ?")) {
+                    select.setString(1, name);
+                    try (ResultSet rs = select.executeQuery()) {
+                        rs.next();
+                        end = rs.getLong(1);
+                    }
+                }
+                connection.commit();
+                return end;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Could not reserve ids for " + name, e);
+        }
+    }
+
+    private int advance(Connection connection, String name, int blockSize) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE id_generators SET next_val = next_val + ? WHERE name = ?")) {
+            update.setLong(1, blockSize);
+            update.setString(2, name);
+            return update.executeUpdate();
+        }
+    }
+
+    private static class Block {
+        private long next = 0;
+        private long end = 0;
+    }
+}
@@ -0,0 +1,54 @@
+package com.ecobazaar.backend.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+// Order items, carbon footprints and products used to get AUTO_INCREMENT ids. Their @BlockId generators
+// start at 1, so before any request is served this moves each generator past the ids already used.
+@Component
+public class IdGeneratorAligner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorAligner.class);
+
+    // @BlockId name -> table it hands out ids for
+    private static final Map<String, String> GENERATORS = Map.of(
+            "order_items", "order_items",
+            "carbon_footprint", "carbon_footprint",
+            "products", "products");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Only injected so the schema (including id_generators) exists before align() runs
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void align() {
+        for (Map.Entry<String, String> generator : GENERATORS.entrySet()) {
+            long maxId = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(id), 0) FROM " + generator.getValue(), Long.class);
+            long floor = maxId + 1;
+
+            List<Long> current = jdbcTemplate.queryForList(
+                    "SELECT next_val FROM id_generators WHERE name = ?", Long.class, generator.getKey());
+            if (current.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO id_generators (name, next_val) VALUES (?, ?)", generator.getKey(), floor);
+            } else if (current.get(0) < floor) {
+                jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE name = ?", floor, generator.getKey());
+            } else {
+                continue;
+            }
+            logger.info("Id generator '{}' moved to {} (max id in {} is {})", generator.getKey(), floor, generator.getValue(), maxId);
+        }
+    }
+}
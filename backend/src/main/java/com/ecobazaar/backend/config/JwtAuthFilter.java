@@ -1,17 +1,20 @@
 package com.ecobazaar.backend.config;
 
 import java.io.IOException;
+import java.util.Collections;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
-import org.springframework.web.filter.OncePerRequestFilter; // Double check this import path!
+import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.ecobazaar.backend.controller.JwtUtils;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,44 +29,59 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    // Public catalog reads and the auth endpoints never need an identity, so skip token work entirely.
+    // /api/products/seller is the one GET under /api/products that does.
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        String method = request.getMethod();
+        if ("OPTIONS".equals(method) || path.startsWith("/api/auth/")) {
+            return true;
+        }
+        return "GET".equals(method) && path.startsWith("/api/products") && !path.startsWith("/api/products/seller");
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        
-        System.out.println("FILTER HIT - Request Path: " + request.getRequestURI());
-        System.out.println("FILTER HIT - Auth Header: " + authHeader);
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println("No Bearer token found. Passing down the chain.");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        final String jwt = authHeader.substring(7);
-        final String userEmail;
-
-        try {
-            userEmail = jwtUtils.extractUsername(jwt);
-            System.out.println("Extracted Email: " + userEmail);
+        // One signature check per request; a null means bad signature, malformed or expired
+        Claims claims = jwtUtils.parseToken(authHeader.substring(7));
+        if (claims == null || claims.getSubject() == null) {
+            logger.debug("Rejected bearer token on " + request.getRequestURI());
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        String userEmail = claims.getSubject();
+        String role = claims.get("role", String.class);
+        UsernamePasswordAuthenticationToken authToken;
 
-                if (jwtUtils.validateToken(jwt)) {
-                    System.out.println("Token is VALID. Authenticating user.");
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                } else {
-                    System.out.println("Token is INVALID.");
-                }
+        if (role != null) {
+            authToken = new UsernamePasswordAuthenticationToken(
+                    userEmail, null, Collections.singletonList(new SimpleGrantedAuthority(role)));
+        } else {
+            // Tokens issued before the role claim existed still fall back to the users table
+            try {
+                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+                authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
+            } catch (Exception e) {
+                logger.debug("Token subject " + userEmail + " no longer exists");
+                filterChain.doFilter(request, response);
+                return;
             }
-        } catch (Exception e) {
-            System.out.println("Exception in JwtAuthFilter: " + e.getMessage());
         }
 
+        SecurityContextHolder.getContext().setAuthentication(authToken);
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
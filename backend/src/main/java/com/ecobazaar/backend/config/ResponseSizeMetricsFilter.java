@@ -0,0 +1,120 @@
+package com.ecobazaar.backend.config;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+// Latency, rate and error metrics come from Spring's http.server.requests timer;
+// this adds the matching response-size distribution, tagged the same way.
+@Component
+public class ResponseSizeMetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        CountingResponseWrapper counting = new CountingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, counting);
+        } catch (IOException | ServletException | RuntimeException e) {
+            // The container turns this into a 500 after we return, so tag it that way now
+            counting.failed = true;
+            throw e;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // Streaming responses keep writing after this thread returns
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    public void onComplete(AsyncEvent event) { record(request, counting); }
+                    public void onTimeout(AsyncEvent event) { }
+                    public void onError(AsyncEvent event) { }
+                    public void onStartAsync(AsyncEvent event) { }
+                });
+            } else {
+                record(request, counting);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, CountingResponseWrapper response) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        long size = response.bytesWritten;
+        if (size == 0 && response.getHeader("Content-Length") != null) {
+            size = Long.parseLong(response.getHeader("Content-Length"));
+        }
+        DistributionSummary.builder("http.server.response.size")
+                .baseUnit("bytes")
+                .tag("method", request.getMethod())
+                .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                .tag("status", response.failed ? "500" : String.valueOf(response.getStatus()))
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    private static class CountingResponseWrapper extends HttpServletResponseWrapper {
+        private volatile long bytesWritten = 0;
+        private boolean failed = false;
+        private ServletOutputStream stream;
+
+        CountingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (stream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                stream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytesWritten++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytesWritten += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        delegate.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener writeListener) {
+                        delegate.setWriteListener(writeListener);
+                    }
+                };
+            }
+            return stream;
+        }
+    }
+}
@@ -4,6 +4,7 @@ import java.util.Arrays;
 import java.util.Collections;
 
 import org.springframework.beans.factory.annotation.Autowired; 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -17,6 +18,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration; 
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource; 
 
+import jakarta.servlet.DispatcherType;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -24,6 +27,10 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthFilter jwtAuthFilter; 
 
+    // Raising this re-hashes each user's password on their next successful login
+    @Value("${auth.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -32,6 +39,9 @@ public class SecurityConfig {
             .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             
             .authorizeHttpRequests(auth -> auth
+                // Streamed downloads finish with an async dispatch; the original request was already checked
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Completely public routes
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
@@ -39,8 +49,10 @@ public class SecurityConfig {
                 
                 // Shared Admin & Seller Inventory Routes (Use hasAnyAuthority!)
                 .requestMatchers(HttpMethod.POST, "/api/products/add").hasAnyAuthority("ROLE_ADMIN", "ROLE_SELLER")
+                .requestMatchers(HttpMethod.POST, "/api/products/import").hasAnyAuthority("ROLE_ADMIN", "ROLE_SELLER")
                 .requestMatchers(HttpMethod.PUT, "/api/products/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_SELLER")
                 .requestMatchers(HttpMethod.DELETE, "/api/products/**").hasAnyAuthority("ROLE_ADMIN", "ROLE_SELLER")
+                .requestMatchers(HttpMethod.POST, "/api/carbon/bulk").hasAnyAuthority("ROLE_ADMIN", "ROLE_SELLER")
                 
                 // Seller Exclusive Routes
                 .requestMatchers(HttpMethod.GET, "/api/products/seller").hasAuthority("ROLE_SELLER")
@@ -48,6 +60,10 @@ public class SecurityConfig {
                 // Admin Exclusive Routes (Exact string match for ROLE_ADMIN)
                 .requestMatchers("/api/admin/**").hasAuthority("ROLE_ADMIN")
                 .requestMatchers("/api/analytics/admin/**").hasAuthority("ROLE_ADMIN")
+
+                // Metrics scrape (Prometheus text format) is admin-only, health stays open for probes
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                 
                 // Catch-all for basic users (like /api/cart or /api/orders)
                 .anyRequest().authenticated()
@@ -74,6 +90,6 @@ public class SecurityConfig {
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 }
\ No newline at end of file
@@ -1,30 +1,49 @@
 package com.ecobazaar.backend.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.ecobazaar.backend.dto.MonthlyTrendDTO;
-import com.ecobazaar.backend.dto.TopProductDTO;
-import com.ecobazaar.backend.repository.OrderItemRepository;
+import com.ecobazaar.backend.dto.PlatformTotalsDTO;
+import com.ecobazaar.backend.dto.ReportVersionDTO;
 import com.ecobazaar.backend.repository.OrderRepository;
 import com.ecobazaar.backend.service.AnalyticsService;
+import com.ecobazaar.backend.service.CarbonLedgerService;
+import com.ecobazaar.backend.service.CarbonRollupService;
+import com.ecobazaar.backend.service.CsvExportService;
 import com.ecobazaar.backend.service.PdfReportService;
+import com.ecobazaar.backend.service.PlatformCounterService;
+import com.ecobazaar.backend.service.ReportCache;
+import com.ecobazaar.backend.service.ReportJobService;
+import com.ecobazaar.backend.service.TopProductsTracker;
 
 @RestController
 @RequestMapping("/api/analytics")
 public class AnalyticsController {
 
-    @Autowired
-    private com.ecobazaar.backend.repository.UserRepository userRepository;
-
     @Autowired
     private PdfReportService pdfReportService;
 
@@ -32,22 +51,41 @@ public class AnalyticsController {
     private OrderRepository orderRepository;
 
     @Autowired
-    private OrderItemRepository orderItemRepository;
+    private TopProductsTracker topProductsTracker;
 
     @Autowired
     private AnalyticsService analyticsService;
 
+    @Autowired
+    private CarbonLedgerService carbonLedgerService;
+
+    @Autowired
+    private CarbonRollupService carbonRollupService;
+
+    @Autowired
+    private PlatformCounterService platformCounterService;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private ReportCache reportCache;
+
+    @Autowired
+    private CsvExportService csvExportService;
+
     @GetMapping("/user/dashboard")
     public ResponseEntity<?> getUserDashboardData() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         
-        List<MonthlyTrendDTO> trend = orderRepository.getMonthlyCarbonTrend(email);
-        Double lifetimeSavings = orderRepository.getTotalLifetimeSavings(email);
+        // Both come from the per-user ledger: index lookups, however many orders the user has
+        List<MonthlyTrendDTO> trend = carbonLedgerService.getMonthlyTrend(email);
+        Double lifetimeSavings = carbonLedgerService.getLifetimeSavings(email);
         List<String> badges = analyticsService.calculateUserBadges(lifetimeSavings);
 
         Map<String, Object> response = new HashMap<>();
         response.put("monthlyTrend", trend);
-        response.put("lifetimeSavings", lifetimeSavings != null ? lifetimeSavings : 0.0);
+        response.put("lifetimeSavings", lifetimeSavings);
         response.put("badges", badges);
 
         return ResponseEntity.ok(response);
@@ -57,66 +95,177 @@ public class AnalyticsController {
     public ResponseEntity<?> getAdminPlatformSummary() {
         Map<String, Object> summary = new HashMap<>();
         
-        summary.put("totalUsers", userRepository.count());
-        summary.put("totalOrders", orderRepository.count());
-        summary.put("totalRevenue", orderRepository.getTotalPlatformRevenue());
-        summary.put("totalCo2Saved", orderRepository.getTotalPlatformCo2Saved());
+        // Maintained counters instead of full-table aggregates
+        PlatformTotalsDTO totals = platformCounterService.getTotals();
+        summary.put("totalUsers", totals.getTotalUsers());
+        summary.put("totalOrders", totals.getTotalOrders());
+        summary.put("totalRevenue", totals.getTotalRevenue());
+        summary.put("totalCo2Saved", totals.getTotalCo2Saved());
         
         summary.put("recentOrders", orderRepository.findTop5ByOrderByOrderDateDesc());
 
         return ResponseEntity.ok(summary);
     }
 
+    // Served from ReportCache while the platform totals are unchanged; a client sending back
+    // the ETag it already has gets a 304 without the report being looked up or rendered
     @GetMapping("/admin/report/download")
-    public ResponseEntity<byte[]> downloadPlatformReport() {
-        Double revenue = orderRepository.getTotalPlatformRevenue();
-        Double co2 = orderRepository.getTotalPlatformCo2Saved();
-        long orders = orderRepository.count();
-        long users = userRepository.count();
-
-        try {
-            byte[] pdfBytes = pdfReportService.generatePlatformEcoReport(
-                revenue != null ? revenue : 0.0, 
-                co2 != null ? co2 : 0.0, 
-                orders, 
-                users
-            );
-
-            return ResponseEntity.ok()
-                    .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=EcoBazaar_Platform_Report.pdf")
-                    .header(org.springframework.http.HttpHeaders.CONTENT_TYPE, "application/pdf")
-                    .body(pdfBytes);
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+    public ResponseEntity<StreamingResponseBody> downloadPlatformReport(WebRequest request) throws IOException {
+        PlatformTotalsDTO totals = platformCounterService.getTotals();
+        String fingerprint = ReportCache.fingerprint("platform", totals.getTotalOrders(), totals.getTotalUsers(),
+                totals.getTotalRevenue(), totals.getTotalCo2Saved());
+        if (request.checkNotModified(fingerprint)) {
+            return null;
         }
+
+        ReportCache.CachedReport report = reportCache.get("platform", fingerprint, out -> pdfReportService.writePlatformEcoReport(
+            totals.getTotalRevenue(), 
+            totals.getTotalCo2Saved(), 
+            totals.getTotalOrders(), 
+            totals.getTotalUsers(),
+            out
+        ));
+
+        return reportResponse(report, "EcoBazaar_Platform_Report.pdf");
+    }
+
+    @GetMapping("/admin/report/cache/stats")
+    public ResponseEntity<Map<String, Object>> getReportCacheStats() {
+        return ResponseEntity.ok(reportCache.getStats());
+    }
+
+    // Renders the platform report in the background; poll /api/reports/jobs/{id} for the result
+    @PostMapping("/admin/report/jobs")
+    public ResponseEntity<?> submitPlatformReport() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.accepted().body(reportJobService.submit(ReportJobService.PLATFORM, email, null));
+    }
+
+    // Recompute carbon ledgers from order history, for one user (?email=) or everyone
+    @PostMapping("/admin/ledger/rebuild")
+    public ResponseEntity<?> rebuildCarbonLedger(@RequestParam(required = false) String email) {
+        int users = carbonLedgerService.rebuild(email);
+        return ResponseEntity.ok(Map.of("usersRebuilt", users));
+    }
+
+    // Recompute product carbon rollups from the raw records, for one product (?productId=) or all
+    @PostMapping("/admin/carbon-rollups/rebuild")
+    public ResponseEntity<?> rebuildCarbonRollups(@RequestParam(required = false) Long productId) {
+        int products = carbonRollupService.rebuild(productId);
+        return ResponseEntity.ok(Map.of("productsRebuilt", products));
     }
 
+    // Best-selling eco products from the in-memory tracker, e.g. ?window=7d&k=10&byCategory=true
     @GetMapping("/admin/top-products")
-    public ResponseEntity<List<TopProductDTO>> getTopEcoProducts() {
-        return ResponseEntity.ok(orderItemRepository.getTopEcoProducts());
+    public ResponseEntity<?> getTopEcoProducts(@RequestParam(defaultValue = "all") String window,
+                                               @RequestParam(defaultValue = "5") int k,
+                                               @RequestParam(required = false) String category,
+                                               @RequestParam(defaultValue = "false") boolean byCategory) {
+        if (!TopProductsTracker.WINDOWS.contains(window)) {
+            return ResponseEntity.badRequest().body("Error: window must be one of " + TopProductsTracker.WINDOWS);
+        }
+        int limit = Math.max(1, Math.min(k, TopProductsTracker.MAX_K));
+        if (byCategory) {
+            return ResponseEntity.ok(topProductsTracker.getTopByCategory(window, limit));
+        }
+        return ResponseEntity.ok(topProductsTracker.getTop(window, limit, category));
+    }
+
+    // Whole-table CSV (orders, order-items, products, carbon-footprints), streamed from a database
+    // cursor as it is read, e.g. /admin/export/orders?from=2026-01-01&to=2026-03-31&gzip=true
+    @GetMapping("/admin/export/{type}")
+    public ResponseEntity<StreamingResponseBody> exportCsv(@PathVariable String type,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                           @RequestParam(defaultValue = "false") boolean gzip) {
+        // Checked before the body starts streaming, while a 400 can still be sent
+        if (!CsvExportService.TYPES.contains(type)) {
+            throw new IllegalArgumentException("type must be one of " + CsvExportService.TYPES);
+        }
+        if (CsvExportService.PRODUCTS.equals(type) && (from != null || to != null)) {
+            throw new IllegalArgumentException("products cannot be filtered by date");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                writeExport(type, from, to, out);
+                return;
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024, true);
+            writeExport(type, from, to, compressed);
+            compressed.finish();
+        };
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + type + (gzip ? ".csv.gz" : ".csv"))
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("text/csv"))
+                .body(body);
+    }
+
+    private void writeExport(String type, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        switch (type) {
+            case CsvExportService.ORDERS -> csvExportService.writeOrders(from, to, out);
+            case CsvExportService.ORDER_ITEMS -> csvExportService.writeOrderItems(from, to, out);
+            case CsvExportService.CARBON_FOOTPRINTS -> csvExportService.writeCarbonFootprints(from, to, out);
+            default -> csvExportService.writeProducts(out);
+        }
     }
 
+    // Cached per user and re-rendered only once they have placed or lost an order (or their
+    // ledger total moved); a miss streams to the client while large histories spill to a file, not memory
     @GetMapping("/user/report/download")
-    public ResponseEntity<byte[]> downloadUserReport() {
+    public ResponseEntity<StreamingResponseBody> downloadUserReport(WebRequest request) throws IOException {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         
-        Double lifetimeSavings = orderRepository.getTotalLifetimeSavings(email);
-        if(lifetimeSavings == null) lifetimeSavings = 0.0;
+        Double lifetimeSavings = carbonLedgerService.getLifetimeSavings(email);
+        ReportVersionDTO version = orderRepository.getReportVersion(email);
+        String fingerprint = ReportCache.fingerprint("user", email, version.getOrderCount(), version.getLastOrderAt(), lifetimeSavings);
+        if (request.checkNotModified(fingerprint)) {
+            return null;
+        }
         
         List<String> badges = analyticsService.calculateUserBadges(lifetimeSavings);
-        
-        List<com.ecobazaar.backend.model.Order> orders = orderRepository.findByUserEmailOrderByOrderDateDesc(email);
-
-        try {
-            byte[] pdfBytes = pdfReportService.generateUserEcoReport(email, lifetimeSavings, badges, orders);
-
-            return ResponseEntity.ok()
-                    .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=EcoBazaar_Impact_Report.pdf")
-                    .header(org.springframework.http.HttpHeaders.CONTENT_TYPE, "application/pdf")
-                    .body(pdfBytes);
-                    
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().build();
+
+        ReportCache.CachedReport report = reportCache.get("user|" + email, fingerprint,
+                out -> pdfReportService.writeUserEcoReport(email, lifetimeSavings, badges, out));
+
+        return reportResponse(report, "EcoBazaar_Impact_Report.pdf");
+    }
+
+    @PostMapping("/user/report/jobs")
+    public ResponseEntity<?> submitUserReport() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.accepted().body(reportJobService.submit(ReportJobService.USER, email, null));
+    }
+
+    // no-cache: browsers keep the copy but must revalidate it, which costs a 304 when nothing changed.
+    // A report being rendered is streamed as it is written, so its length isn't known up front.
+    private ResponseEntity<StreamingResponseBody> reportResponse(ReportCache.CachedReport report, String fileName) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(report.getFingerprint())
+                .lastModified(report.getRenderedAt())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
+                .contentType(MediaType.APPLICATION_PDF);
+        if (report.getLength() != null) {
+            response.contentLength(report.getLength());
         }
+        return response.body(report::writeTo);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+    }
+
+    // Report workers and their queue are full
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> handleReportQueueFull(RejectedExecutionException e) {
+        return ResponseEntity.status(503)
+                .header("Retry-After", "10")
+                .body(Map.of("error", "Too many reports are being generated, please try again shortly"));
     }
 }
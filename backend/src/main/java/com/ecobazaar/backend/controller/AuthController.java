@@ -3,11 +3,13 @@ package com.ecobazaar.backend.controller;
 import java.time.LocalDateTime;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -16,6 +18,8 @@ import org.springframework.web.bind.annotation.RestController;
 import com.ecobazaar.backend.model.User;
 import com.ecobazaar.backend.repository.UserRepository;
 import com.ecobazaar.backend.service.EmailService;
+import com.ecobazaar.backend.service.PasswordHashingService;
+import com.ecobazaar.backend.service.UserService;
 import com.ecobazaar.backend.controller.JwtUtils;
 
 import jakarta.validation.Valid;
@@ -27,81 +31,86 @@ public class AuthController {
     @Autowired
     private UserRepository userRepository;
 
+    // Hashing runs off the request thread; these handlers return futures so Tomcat threads stay free
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private UserService userService;
 
     @Autowired
     private JwtUtils jwtUtils;
 
     // --- REGISTER ---
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody User user, BindingResult bindingResult) {
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody User user, BindingResult bindingResult) {
 
         // Check for Validation Errors (Regex failures)
         if (bindingResult.hasErrors()) {
-            return ResponseEntity.badRequest().body(
-                    bindingResult.getFieldError().getDefaultMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body(
+                    bindingResult.getFieldError().getDefaultMessage()));
         }
 
         if (userRepository.existsByEmail(user.getEmail())) {
-            return ResponseEntity.badRequest().body("Error: Email is already in use!");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Error: Email is already in use!"));
         }
 
         // Proceed with Registration
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
         if (user.getRole() == null || user.getRole().isEmpty()) {
             user.setRole("ROLE_USER");
         }
 
-        userRepository.save(user);
-        return ResponseEntity.ok("User registered successfully!");
+        return passwordHashingService.encode(user.getPassword()).thenApply(hash -> {
+            user.setPassword(hash);
+            userService.createUser(user);
+            return ResponseEntity.ok("User registered successfully!");
+        });
     }
 
     // --- LOGIN ---
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> loginData) {
-        
-        System.out.println("\n=== INCOMING LOGIN REQUEST ===");
-        
-        // Check what raw data arrived from React
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody Map<String, String> loginData) {
         String email = loginData.get("email");
         String password = loginData.get("password");
-        
-        System.out.println("Received Email:    [" + email + "]");
-        System.out.println("Received Password: [" + password + "]");
 
         // Safely find the user
         if (email == null || email.trim().isEmpty()) {
-            return ResponseEntity.status(400).body("Email is missing from request");
+            return CompletableFuture.completedFuture(ResponseEntity.status(400).body("Email is missing from request"));
         }
 
         User user = userRepository.findByEmail(email.trim()).orElse(null);
         
         if (user == null) {
-            System.out.println("RESULT: User not found in database.");
-            System.out.println("==============================\n");
-            return ResponseEntity.status(401).body("User not found");
+            return CompletableFuture.completedFuture(ResponseEntity.status(401).body("User not found"));
         }
 
-        System.out.println("Found User in DB:  [" + user.getFullName() + "]");
-        System.out.println("DB Password Hash:  [" + user.getPassword() + "]");
-
         // Test the password
-        boolean isMatch = passwordEncoder.matches(password, user.getPassword());
-        System.out.println("Password Match?:   [" + isMatch + "]");
-        System.out.println("==============================\n");
-
-        if (isMatch) {
-            String jwt = jwtUtils.generateToken(user.getEmail()); 
+        return passwordHashingService.matches(password, user.getPassword()).thenApply(isMatch -> {
+            if (!isMatch) {
+                return ResponseEntity.status(401).body("Invalid Credentials");
+            }
+
+            // The cost factor was raised since this hash was made: re-hash now that we know the password.
+            // Best effort, the login itself never waits on it or fails because of it.
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                try {
+                    passwordHashingService.encode(password).thenAccept(hash -> {
+                        user.setPassword(hash);
+                        userRepository.save(user);
+                    });
+                } catch (RejectedExecutionException e) {
+                    // Pool is busy, try again on the next login
+                }
+            }
+
+            String jwt = jwtUtils.generateToken(user);
             return ResponseEntity.ok(Map.of(
                 "message", "Login Successful",
                 "token", jwt,  
                 "role", user.getRole(),
                 "name", user.getFullName()
             ));
-        } else {
-            return ResponseEntity.status(401).body("Invalid Credentials");
-        }
+        });
     }
     // --- FORGOT PASSWORD (Generate Link) ---
     @Autowired
@@ -130,7 +139,7 @@ public class AuthController {
 
     // --- RESET PASSWORD (Update Password) ---
     @PostMapping("/reset-password")
-    public ResponseEntity<?> resetPassword(@RequestBody Map<String, String> request) {
+    public CompletableFuture<ResponseEntity<?>> resetPassword(@RequestBody Map<String, String> request) {
         String token = request.get("token");
         String newPassword = request.get("newPassword");
 
@@ -139,17 +148,27 @@ public class AuthController {
 
         // Check if token has expired
         if (user.getResetTokenExpiry().isBefore(LocalDateTime.now())) {
-            return ResponseEntity.badRequest().body("Token has expired");
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().body("Token has expired"));
         }
 
         // Update Password
-        user.setPassword(passwordEncoder.encode(newPassword));
+        return passwordHashingService.encode(newPassword).thenApply(hash -> {
+            user.setPassword(hash);
 
-        // Clear Token so it can't be used again
-        user.setResetToken(null);
-        user.setResetTokenExpiry(null);
-        userRepository.save(user);
+            // Clear Token so it can't be used again
+            user.setResetToken(null);
+            user.setResetTokenExpiry(null);
+            userRepository.save(user);
+
+            return ResponseEntity.ok("Password reset successfully! Please login.");
+        });
+    }
 
-        return ResponseEntity.ok("Password reset successfully! Please login.");
+    // Hashing pool and its queue are full: shed load fast instead of queueing behind the storm
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> handleHashingSaturated(RejectedExecutionException e) {
+        return ResponseEntity.status(503)
+                .header("Retry-After", "2")
+                .body("Too many sign-in requests right now, please try again in a moment");
     }
 }
\ No newline at end of file
@@ -1,51 +1,138 @@
 package com.ecobazaar.backend.controller;
 
 import com.ecobazaar.backend.model.CarbonFootprint;
+import com.ecobazaar.backend.service.CarbonIngestParser;
+import com.ecobazaar.backend.service.CarbonIngestService;
+import com.ecobazaar.backend.service.CarbonRollupService;
 import com.ecobazaar.backend.service.CarbonService;
+import com.ecobazaar.backend.service.ReportJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 
-import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/carbon")
 public class CarbonController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     @Autowired
     private CarbonService carbonService;
 
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private CarbonRollupService carbonRollupService;
+
+    @Autowired
+    private CarbonIngestService carbonIngestService;
+
     @PostMapping
     public ResponseEntity<CarbonFootprint> saveCarbonFootprint(@RequestBody CarbonFootprint carbonFootprint) {
         return ResponseEntity.ok(carbonService.saveCarbonFootprint(carbonFootprint));
     }
 
+    // Bulk upload for sellers: an NDJSON (application/x-ndjson) or CSV (text/csv) body, optionally
+    // gzip-compressed (Content-Encoding: gzip). Bad rows are listed in the result, not fatal.
+    // Sellers may only upload for their own products and without a userId; admins for anything.
+    @PostMapping(value = "/bulk", consumes = { NDJSON, "text/csv" })
+    public ResponseEntity<?> bulkUpload(InputStream body,
+                                        @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding) {
+        String format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? CarbonIngestParser.CSV : CarbonIngestParser.NDJSON;
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        boolean admin = auth.getAuthorities().stream().anyMatch(a -> "ROLE_ADMIN".equals(a.getAuthority()));
+        try (InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, 64 * 1024) : body) {
+            return ResponseEntity.ok(carbonIngestService.ingest(in, format, admin ? null : auth.getName()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Error: Could not read the upload: " + e.getMessage());
+        }
+    }
+
+    // Newest first, e.g. ?from=2026-01-01&to=2026-03-31&size=100, then ?cursor=<nextCursor>
     @GetMapping("/product/{productId}")
-    public ResponseEntity<List<CarbonFootprint>> getCarbonFootprintHistoryForProduct(@PathVariable Long productId) {
-        return ResponseEntity.ok(carbonService.getCarbonFootprintHistoryForProduct(productId));
+    public ResponseEntity<?> getCarbonFootprintHistoryForProduct(@PathVariable Long productId,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                 @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(carbonService.getHistoryPage(productId, null, from, to, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<CarbonFootprint>> getCarbonFootprintHistoryForUser(@PathVariable Long userId) {
-        return ResponseEntity.ok(carbonService.getCarbonFootprintHistoryForUser(userId));
+    public ResponseEntity<?> getCarbonFootprintHistoryForUser(@PathVariable Long userId,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(carbonService.getHistoryPage(null, userId, from, to, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    // The whole history (or ?from=&to=) as NDJSON, one record per line, streamed from a database cursor
+    @GetMapping(value = "/product/{productId}/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamCarbonFootprintHistoryForProduct(@PathVariable Long productId,
+                                                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        StreamingResponseBody body = out -> carbonService.writeHistory(productId, null, from, to, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    @GetMapping(value = "/user/{userId}/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamCarbonFootprintHistoryForUser(@PathVariable Long userId,
+                                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        StreamingResponseBody body = out -> carbonService.writeHistory(null, userId, from, to, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    // Chart points from the rollups, e.g. ?from=2026-01-01&to=2026-06-30&granularity=auto
+    @GetMapping("/product/{productId}/series")
+    public ResponseEntity<?> getCarbonSeriesForProduct(@PathVariable Long productId,
+                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                       @RequestParam(defaultValue = "auto") String granularity) {
+        try {
+            return ResponseEntity.ok(carbonRollupService.getSeries(productId, from, to, granularity));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     @GetMapping("/product/{productId}/report")
     public ResponseEntity<byte[]> downloadReport(@PathVariable Long productId) {
-        String html = carbonService.generateCarbonFootprintReport(productId);
         try (ByteArrayOutputStream os = new ByteArrayOutputStream()) {
-            PdfRendererBuilder builder = new PdfRendererBuilder();
-            builder.withHtmlContent(html, null);
-            builder.toStream(os);
-            builder.run();
+            carbonService.writeCarbonFootprintReport(productId, os);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
@@ -56,4 +143,19 @@ public class CarbonController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    // Renders the report in the background; poll /api/reports/jobs/{id} for the result
+    @PostMapping("/product/{productId}/report/jobs")
+    public ResponseEntity<?> submitReport(@PathVariable Long productId) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return ResponseEntity.accepted().body(reportJobService.submit(ReportJobService.PRODUCT, email, productId));
+    }
+
+    // Report workers and their queue are full
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<?> handleReportQueueFull(RejectedExecutionException e) {
+        return ResponseEntity.status(503)
+                .header("Retry-After", "10")
+                .body(Map.of("error", "Too many reports are being generated, please try again shortly"));
+    }
 }
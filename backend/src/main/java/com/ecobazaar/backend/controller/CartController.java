@@ -1,66 +1,117 @@
 package com.ecobazaar.backend.controller;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.ecobazaar.backend.dto.CartAlternativesDTO;
+import com.ecobazaar.backend.dto.CartAlternativesRequestDTO;
+import com.ecobazaar.backend.dto.CartChangeDTO;
+import com.ecobazaar.backend.dto.SwapsRequestDTO;
 import com.ecobazaar.backend.model.Cart;
 import com.ecobazaar.backend.model.CartItem;
-import com.ecobazaar.backend.repository.CartRepository;
+import com.ecobazaar.backend.service.CartStore;
+import com.ecobazaar.backend.service.GreenSwapService;
 
+// Mutations answer with only the lines they touched plus the cart totals, not the whole cart
 @RestController
 @RequestMapping("/api/cart")
 public class CartController {
 
     @Autowired
-    private CartRepository cartRepository;
+    private CartStore cartStore;
+
+    @Autowired
+    private GreenSwapService greenSwapService;
 
-    private Cart getMyCartFromDb() {
-        String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        return cartRepository.findByUserEmail(email)
-                .orElseGet(() -> cartRepository.save(Cart.builder().userEmail(email).build()));
+    private String currentEmail() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
     }
 
     @GetMapping
     public Cart getCart() {
-        return getMyCartFromDb();
+        return cartStore.getCart(currentEmail());
     }
 
     @PostMapping("/add")
-    public Cart addToCart(@RequestBody CartItem newItem) {
-        Cart cart = getMyCartFromDb();
-        cart.getItems().add(newItem);
-        return cartRepository.save(cart);
+    public CartChangeDTO addToCart(@RequestBody CartItem newItem) {
+        return cartStore.addItem(currentEmail(), newItem);
+    }
+
+    // Body: { "quantity": 3 }; 0 removes the line
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<?> setQuantity(@PathVariable Long productId, @RequestBody Map<String, Object> body) {
+        Object quantity = body.get("quantity");
+        if (!(quantity instanceof Number)) {
+            return ResponseEntity.badRequest().body("Error: quantity is required");
+        }
+        try {
+            return ResponseEntity.ok(cartStore.setQuantity(currentEmail(), productId, ((Number) quantity).intValue()));
+        } catch (CartStore.NotInCartException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/remove/{productId}")
-    public Cart removeFromCart(@PathVariable Long productId) {
-        Cart cart = getMyCartFromDb();
-        // Remove the item where the productId matches
-        cart.getItems().removeIf(item -> item.getProductId().equals(productId));
-        return cartRepository.save(cart);
+    public CartChangeDTO removeFromCart(@PathVariable Long productId) {
+        return cartStore.removeItem(currentEmail(), productId);
     }
 
     @PostMapping("/swap/{oldProductId}")
-    public Cart swapCartItem(@PathVariable Long oldProductId, @RequestBody CartItem newItem) {
-        Cart cart = getMyCartFromDb();
-        // Remove the bad eco-choice
-        cart.getItems().removeIf(item -> item.getProductId().equals(oldProductId));
-        // Add the green alternative
-        cart.getItems().add(newItem);
-        return cartRepository.save(cart);
+    public CartChangeDTO swapCartItem(@PathVariable Long oldProductId, @RequestBody CartItem newItem) {
+        // Remove the bad eco-choice and add the green alternative in one step
+        return cartStore.swapItem(currentEmail(), oldProductId, newItem);
+    }
+
+    // Greener swaps for every line at once. Body: { "items": [ { "id": 12, "quantity": 2 }, ... ] },
+    // the same line format as checkout; without items the user's stored cart is used.
+    // limit (1 to 10) is the most suggestions per line.
+    @PostMapping("/alternatives")
+    public CartAlternativesDTO getAlternatives(@RequestBody(required = false) CartAlternativesRequestDTO body,
+                                               @RequestParam(defaultValue = "3") int limit) {
+        Map<Long, Integer> quantities;
+        if (body != null && body.getItems() != null && !body.getItems().isEmpty()) {
+            quantities = GreenSwapService.quantitiesOf(body.getItems());
+        } else {
+            quantities = new HashMap<>();
+            for (CartItem item : cartStore.getCart(currentEmail()).getItems()) {
+                quantities.merge(item.getProductId(), item.getQuantity() != null ? item.getQuantity() : 1, Integer::sum);
+            }
+        }
+        return greenSwapService.suggest(quantities, limit);
+    }
+
+    // Applies several swaps in one step. Body: { "swaps": [ { "oldProductId": 1, "newProductId": 7 }, ... ] }
+    @PostMapping("/swaps")
+    public ResponseEntity<?> applySwaps(@RequestBody SwapsRequestDTO body) {
+        try {
+            return ResponseEntity.ok(greenSwapService.applySwaps(currentEmail(), body.getSwaps()));
+        } catch (CartStore.NotInCartException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     @DeleteMapping("/clear")
     public void clearCart() {
-        Cart cart = getMyCartFromDb();
-        cart.getItems().clear();
-        cartRepository.save(cart);
+        cartStore.clear(currentEmail());
+    }
+
+    // Bad request bodies, and lines the cart store refuses (see CartStore.checkLine)
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<?> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body("Error: " + e.getMessage());
     }
-}
\ No newline at end of file
+}
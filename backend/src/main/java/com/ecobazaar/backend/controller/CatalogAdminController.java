@@ -0,0 +1,52 @@
+package com.ecobazaar.backend.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ecobazaar.backend.service.ProductCache;
+import com.ecobazaar.backend.service.ProductFacetIndex;
+import com.ecobazaar.backend.service.ProductSearchIndex;
+
+@RestController
+@RequestMapping("/api/admin/catalog")
+public class CatalogAdminController {
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        return ResponseEntity.ok(productCache.getStats());
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<?> clearCache() {
+        productCache.clear();
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<?> rebuildSearchIndex() {
+        productSearchIndex.rebuild();
+        return ResponseEntity.ok("Search index rebuilt");
+    }
+
+    @PostMapping("/facet-index/rebuild")
+    public ResponseEntity<?> rebuildFacetIndex() {
+        productFacetIndex.rebuild();
+        return ResponseEntity.ok("Facet index rebuilt");
+    }
+}
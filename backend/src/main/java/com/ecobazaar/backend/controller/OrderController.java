@@ -1,63 +1,63 @@
 package com.ecobazaar.backend.controller;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.ecobazaar.backend.model.Order;
-import com.ecobazaar.backend.model.OrderItem;
-import com.ecobazaar.backend.repository.OrderRepository;
+import com.ecobazaar.backend.service.OrderService;
+import com.ecobazaar.backend.service.StockReservationService;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    // All order writes go through OrderService so footprints, ledgers and counters stay in step
     @Autowired
-    private OrderRepository orderRepository;
+    private OrderService orderService;
+
+    @Autowired
+    private StockReservationService stockReservationService;
 
     @PostMapping("/create")
     public Order createOrder(@RequestBody Map<String, Object> orderRequest) {
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-
-        Double totalAmount = Double.valueOf(orderRequest.get("totalAmount").toString());
-        Double totalCo2 = Double.valueOf(orderRequest.get("totalCo2").toString());
-        
-        List<Map<String, Object>> cartItems = (List<Map<String, Object>>) orderRequest.get("items");
-        
-        List<OrderItem> orderItems = cartItems.stream().map(item -> {
-            return OrderItem.builder()
-                    .productId(Long.valueOf(item.get("id").toString()))
-                    .productName(item.get("name").toString())
-                    .price(Double.valueOf(item.get("price").toString()))
-                    .co2Emission(Double.valueOf(item.get("co2Emission").toString()))
-                    .isEcoFriendly(Boolean.valueOf(item.getOrDefault("isEcoFriendly", false).toString()))
-                    .build();
-        }).collect(Collectors.toList());
-
-        Order newOrder = Order.builder()
-                .userEmail(userEmail)
-                .totalAmount(totalAmount)
-                .totalCo2Saved(totalCo2)
-                .orderDate(LocalDateTime.now())
-                .status("COMPLETED")
-                .items(orderItems)
-                .build();
-
-        return orderRepository.save(newOrder);
+        return orderService.createOrder(orderRequest);
+    }
+
+    // Lets the checkout page give a hold back straight away when the buyer cancels payment
+    @PostMapping("/reservations/{id}/release")
+    public ResponseEntity<?> releaseReservation(@PathVariable Long id) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        if (!stockReservationService.release(id, email)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("released", id));
+    }
+
+    @ExceptionHandler(StockReservationService.OutOfStockException.class)
+    public ResponseEntity<?> handleOutOfStock(StockReservationService.OutOfStockException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", e.getMessage(), "shortfalls", e.getShortfalls()));
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleBadRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body("Error: " + e.getMessage());
     }
 
     @GetMapping("/my-orders")
     public List<Order> getMyOrders() {
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        return orderRepository.findByUserEmailOrderByOrderDateDesc(userEmail);
+        return orderService.getMyOrders();
     }
 }
\ No newline at end of file
@@ -1,15 +1,22 @@
 package com.ecobazaar.backend.controller;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.ecobazaar.backend.model.StockReservation;
+import com.ecobazaar.backend.service.OrderService;
+import com.ecobazaar.backend.service.StockReservationService;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
@@ -22,34 +29,89 @@ public class PaymentController {
     @Value("${stripe.secret.key}")
     private String stripeSecretKey;
 
+    @Autowired
+    private StockReservationService stockReservationService;
+
     @PostMapping("/create-payment-intent")
-    public ResponseEntity<Map<String, String>> createPaymentIntent(@RequestBody Map<String, Object> data) {
+    public ResponseEntity<Map<String, Object>> createPaymentIntent(@RequestBody Map<String, Object> data) {
         Stripe.apiKey = stripeSecretKey;
 
+        // Checked before anything is reserved, so a malformed request can't pin stock
+        double amount;
+        try {
+            amount = Double.parseDouble(String.valueOf(data.get("amount")));
+        } catch (NumberFormatException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "amount must be a number"));
+        }
+        if (!Double.isFinite(amount) || amount <= 0) {
+            return ResponseEntity.badRequest().body(Map.of("error", "amount must be greater than 0"));
+        }
+
+        // Hold the cart's stock while the buyer pays; the order confirms it, a timeout gives it back
+        StockReservation reservation = null;
+        if (data.get("items") != null) {
+            String email = SecurityContextHolder.getContext().getAuthentication().getName();
+            boolean allowPartial = Boolean.parseBoolean(String.valueOf(data.getOrDefault("allowPartial", false)));
+            try {
+                if (!(data.get("items") instanceof List<?> items)) {
+                    throw new IllegalArgumentException("items must be a list");
+                }
+                reservation = stockReservationService.reserve(email, OrderService.quantitiesOf(cartLines(items)), allowPartial);
+            } catch (StockReservationService.OutOfStockException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", e.getMessage(), "shortfalls", e.getShortfalls()));
+            } catch (IllegalArgumentException | NullPointerException | ClassCastException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid items: " + e.getMessage()));
+            }
+        }
+
+        // Whatever goes wrong from here on, the hold must not outlive the failed request
+        boolean created = false;
         try {
             // Stripe expects the amount in CENTS! ($10.00 = 1000 cents)
-            Double amount = Double.valueOf(data.get("amount").toString());
-            long amountInCents = (long) (amount * 100);
+            long amountInCents = Math.round(amount * 100);
 
-            PaymentIntentCreateParams params = PaymentIntentCreateParams.builder()
+            PaymentIntentCreateParams.Builder params = PaymentIntentCreateParams.builder()
                     .setAmount(amountInCents)
                     .setCurrency("usd")
                     .setAutomaticPaymentMethods(
                             PaymentIntentCreateParams.AutomaticPaymentMethods.builder()
                                     .setEnabled(true)
                                     .build()
-                    )
-                    .build();
+                    );
+            if (reservation != null) {
+                params.putMetadata("reservationId", reservation.getId().toString());
+            }
 
-            PaymentIntent intent = PaymentIntent.create(params);
+            PaymentIntent intent = PaymentIntent.create(params.build());
 
-            Map<String, String> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
             response.put("clientSecret", intent.getClientSecret());
+            if (reservation != null) {
+                response.put("reservationId", reservation.getId());
+                response.put("reservedItems", reservation.getLines());
+                response.put("reservationExpiresAt", reservation.getExpiresAt());
+            }
 
+            created = true;
             return ResponseEntity.ok(response);
             
         } catch (StripeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } finally {
+            if (!created && reservation != null) {
+                stockReservationService.release(reservation.getId(), reservation.getUserEmail());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> cartLines(List<?> items) {
+        for (Object item : items) {
+            if (!(item instanceof Map)) {
+                throw new IllegalArgumentException("each item must be an object");
+            }
         }
+        return (List<Map<String, Object>>) items;
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,34 @@
 package com.ecobazaar.backend.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.ecobazaar.backend.dto.ProductFilterDTO;
+import com.ecobazaar.backend.dto.ProductSearchResultDTO;
 import com.ecobazaar.backend.model.Product;
+import com.ecobazaar.backend.service.ProductFacetIndex;
+import com.ecobazaar.backend.service.ProductImportParser;
+import com.ecobazaar.backend.service.ProductImportService;
+import com.ecobazaar.backend.service.ProductSearchIndex;
 import com.ecobazaar.backend.service.ProductService;
 
 @RestController
@@ -23,9 +38,48 @@ public class ProductController {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    // Keyset-paginated catalog: ?sort=id|price|co2Emission&order=asc|desc&size=24, then ?cursor=<nextCursor>.
+    // Optional filters, repeated on every page: q (name contains), category, and shop=true for only
+    // what the storefront may show (unapproved eco-friendly products are left out).
     @GetMapping
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<?> getProducts(@RequestParam(defaultValue = "id") String sort,
+                                         @RequestParam(defaultValue = "asc") String order,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer size,
+                                         @RequestParam(required = false) String q,
+                                         @RequestParam(required = false) String category,
+                                         @RequestParam(defaultValue = "false") boolean shop) {
+        try {
+            return ResponseEntity.ok(productService.getProductPage(sort, order, cursor, size, q, category, shop));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    // Full-text search over name, brand, category, material, certifications and description
+    @GetMapping("/search")
+    public ProductSearchResultDTO searchProducts(@RequestParam("q") String query,
+                                                 @RequestParam(required = false) Integer limit) {
+        return productSearchIndex.search(query, limit);
+    }
+
+    // Combined filters + sort + facet counts, answered from the in-memory columnar index
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterProducts(@ModelAttribute ProductFilterDTO filter) {
+        try {
+            return ResponseEntity.ok(productFacetIndex.query(filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
@@ -45,6 +99,24 @@ public class ProductController {
         return productService.addProduct(product, email);
     }
 
+    // Bulk import for sellers: an NDJSON (application/x-ndjson) or CSV (text/csv) body, optionally
+    // gzip-compressed (Content-Encoding: gzip). Bad rows are listed in the report, not fatal.
+    @PostMapping(value = "/import", consumes = { "application/x-ndjson", "text/csv" })
+    public ResponseEntity<?> importProducts(InputStream body,
+                                            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                            @RequestHeader(value = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding) {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        String format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductImportParser.CSV : ProductImportParser.NDJSON;
+        try (InputStream in = "gzip".equalsIgnoreCase(contentEncoding) ? new GZIPInputStream(body, 64 * 1024) : body) {
+            return ResponseEntity.ok(productImportService.importProducts(in, format, email));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body("Error: Could not read the upload: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     public Product updateProduct(@PathVariable Long id, @RequestBody Product product) {
         return productService.updateProduct(id, product);
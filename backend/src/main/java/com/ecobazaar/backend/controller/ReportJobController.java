@@ -0,0 +1,59 @@
+package com.ecobazaar.backend.controller;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.ecobazaar.backend.dto.ReportJobDTO;
+import com.ecobazaar.backend.service.ReportJobService;
+
+// Status and download of background report jobs. Jobs are submitted next to the reports they render,
+// e.g. POST /api/analytics/user/report/jobs, and are only visible to the user who submitted them.
+@RestController
+@RequestMapping("/api/reports/jobs")
+public class ReportJobController {
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable String id) {
+        ReportJobDTO job = reportJobService.get(id, currentEmail());
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/{id}/download")
+    public ResponseEntity<?> download(@PathVariable String id) {
+        ReportJobDTO job = reportJobService.get(id, currentEmail());
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Path file = reportJobService.fileOf(job);
+        if (!ReportJobService.READY.equals(job.getStatus()) || !Files.exists(file)) {
+            return ResponseEntity.status(409).body(Map.of("status", job.getStatus(), "error", "Report is not ready"));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(job.getFileName()).build().toString())
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(new FileSystemResource(file));
+    }
+
+    private String currentEmail() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
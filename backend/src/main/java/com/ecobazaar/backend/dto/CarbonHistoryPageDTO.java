@@ -0,0 +1,18 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+import com.ecobazaar.backend.model.CarbonFootprint;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarbonHistoryPageDTO {
+    private List<CarbonFootprint> items; // newest first
+    private String nextCursor; // Opaque token, pass back as ?cursor= to get the next page
+    private boolean hasMore;
+}
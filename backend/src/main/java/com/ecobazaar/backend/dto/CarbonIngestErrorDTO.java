@@ -0,0 +1,14 @@
+package com.ecobazaar.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A row of a bulk upload that was not stored
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarbonIngestErrorDTO {
+    private long line; // 1-based line number in the uploaded body (a CSV header is line 1)
+    private String message;
+}
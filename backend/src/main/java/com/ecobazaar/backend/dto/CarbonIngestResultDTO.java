@@ -0,0 +1,20 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of a bulk carbon footprint upload
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarbonIngestResultDTO {
+    private long rows; // data rows read (blank lines and the CSV header are not counted)
+    private long inserted;
+    private long rejected;
+    private List<CarbonIngestErrorDTO> errors; // the first carbon.ingest.max-errors rejected rows
+    private boolean errorsTruncated; // more rows were rejected than are listed
+    private long durationMillis;
+}
@@ -0,0 +1,20 @@
+package com.ecobazaar.backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A product's carbon history over [from, to] at the granularity that was used; buckets without records are omitted
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarbonSeriesDTO {
+    private Long productId;
+    private String granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private List<CarbonSeriesPointDTO> points;
+}
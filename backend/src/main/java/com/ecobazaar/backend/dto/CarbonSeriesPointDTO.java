@@ -0,0 +1,23 @@
+package com.ecobazaar.backend.dto;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One chart point: a product's carbon footprint records within a day or month
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarbonSeriesPointDTO {
+    private LocalDate bucket;
+    private Long count;
+    private Double total;
+    private Double min;
+    private Double max;
+
+    public Double getAverage() {
+        return count != null && count > 0 && total != null ? total / count : null;
+    }
+}
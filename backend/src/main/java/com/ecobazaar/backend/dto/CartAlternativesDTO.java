@@ -0,0 +1,15 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartAlternativesDTO {
+    private List<CartLineAlternativesDTO> lines; // lines with the biggest possible saving first
+    private Double maxCo2Saved; // if the top suggestion were taken on every line
+}
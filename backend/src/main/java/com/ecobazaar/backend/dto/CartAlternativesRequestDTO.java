@@ -0,0 +1,15 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Body of POST /api/cart/alternatives; without items the user's stored cart is used
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartAlternativesRequestDTO {
+    private List<CartLineRequestDTO> items;
+}
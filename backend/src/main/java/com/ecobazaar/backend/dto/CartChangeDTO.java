@@ -0,0 +1,19 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+import com.ecobazaar.backend.model.CartItem;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What a cart mutation touched, instead of the whole cart
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartChangeDTO {
+    private List<CartItem> changed;
+    private List<Long> removedProductIds;
+    private CartTotalsDTO totals;
+}
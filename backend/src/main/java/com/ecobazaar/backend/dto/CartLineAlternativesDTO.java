@@ -0,0 +1,18 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLineAlternativesDTO {
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+    private Double co2Emission;
+    private List<SwapSuggestionDTO> suggestions; // best swap first; empty if nothing greener exists
+}
@@ -0,0 +1,14 @@
+package com.ecobazaar.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One cart line as the client sends it, e.g. { "id": 12, "quantity": 2 }; other checkout fields are ignored
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLineRequestDTO {
+    private Long id;
+    private Integer quantity; // null means 1
+}
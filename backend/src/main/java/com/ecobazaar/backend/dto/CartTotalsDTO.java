@@ -0,0 +1,15 @@
+package com.ecobazaar.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartTotalsDTO {
+    private Long lines;
+    private Long itemCount; // sum of quantities
+    private Double totalPrice;
+    private Double totalCo2;
+}
@@ -1,6 +1,15 @@
 package com.ecobazaar.backend.dto;
 
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
 public interface MonthlyTrendDTO {
-    String getMonth();
+    String getPeriod(); // "yyyy-MM"
     Double getCo2Saved();
-}
\ No newline at end of file
+
+    // Chart label, e.g. "Oct 2026"
+    default String getMonth() {
+        return YearMonth.parse(getPeriod()).format(DateTimeFormatter.ofPattern("MMM yyyy", Locale.ENGLISH));
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecobazaar.backend.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of the order history table in a user's PDF report
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReportRowDTO {
+    private LocalDateTime orderDate;
+    private Double totalAmount;
+    private Double totalCo2Saved;
+    private String status;
+}
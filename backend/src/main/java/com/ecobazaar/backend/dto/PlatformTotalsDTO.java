@@ -0,0 +1,8 @@
+package com.ecobazaar.backend.dto;
+
+public interface PlatformTotalsDTO {
+    Long getTotalUsers();
+    Long getTotalOrders();
+    Double getTotalRevenue();
+    Double getTotalCo2Saved();
+}
@@ -0,0 +1,20 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import com.ecobazaar.backend.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetResultDTO {
+    private int total;
+    private List<Product> items;
+    // facet name -> (value -> number of matching products), e.g. facets.category["Fashion"] = 12
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,26 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Bound from the query string of GET /api/products/filter, e.g.
+// ?category=Fashion&ecoFriendly=true&maxPrice=40&sort=co2Emission&order=asc
+@Data
+@NoArgsConstructor
+public class ProductFilterDTO {
+    private List<String> category;
+    private List<String> status; // verificationStatus values
+    private Boolean ecoFriendly;
+    private List<String> material;
+    private List<String> certification;
+    private Double minPrice;
+    private Double maxPrice;
+    private Double minCo2;
+    private Double maxCo2;
+    private String sort = "id"; // id, price, co2Emission or carbonSaving
+    private String order = "asc";
+    private int offset = 0;
+    private int limit = 24;
+}
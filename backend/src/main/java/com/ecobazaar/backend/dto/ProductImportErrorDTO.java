@@ -0,0 +1,14 @@
+package com.ecobazaar.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A row of a product import that was not saved
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportErrorDTO {
+    private long line; // 1-based line the row starts on (a CSV header is line 1)
+    private String message;
+}
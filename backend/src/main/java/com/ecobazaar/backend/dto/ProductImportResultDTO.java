@@ -0,0 +1,20 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Import report for a bulk product upload
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportResultDTO {
+    private long rows; // product rows read (blank lines and the CSV header are not counted)
+    private long imported;
+    private long rejected;
+    private List<ProductImportErrorDTO> errors; // the first product.import.max-errors rejected rows
+    private boolean errorsTruncated; // more rows were rejected than are listed
+    private long durationMillis;
+}
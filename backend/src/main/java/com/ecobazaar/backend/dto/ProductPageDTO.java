@@ -0,0 +1,18 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+import com.ecobazaar.backend.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageDTO {
+    private List<Product> items;
+    private String nextCursor; // Opaque token, pass back as ?cursor= to get the next page
+    private boolean hasMore;
+}
@@ -0,0 +1,18 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+import com.ecobazaar.backend.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResultDTO {
+    private String query;
+    private int totalMatches; // Matches before the result limit was applied
+    private List<Product> items; // Best match first
+}
@@ -0,0 +1,31 @@
+package com.ecobazaar.backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A PDF report rendered in the background; poll until READY, then download it
+@Data
+@NoArgsConstructor
+public class ReportJobDTO {
+    private String id;
+    private String type; // platform, user or product
+    private volatile String status; // QUEUED, RUNNING, READY or FAILED
+    private LocalDateTime submittedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile LocalDateTime expiresAt; // when a finished report is deleted
+    private volatile String error;
+    private String downloadUrl;
+
+    @JsonIgnore
+    private String owner; // email of the user who asked for it
+
+    @JsonIgnore
+    private Long productId;
+
+    @JsonIgnore
+    private String fileName;
+}
@@ -0,0 +1,16 @@
+package com.ecobazaar.backend.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// What a user's report is rendered from: changes whenever one of their orders is added or removed
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportVersionDTO {
+    private Long orderCount;
+    private LocalDateTime lastOrderAt;
+}
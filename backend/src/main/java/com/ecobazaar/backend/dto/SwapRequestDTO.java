@@ -0,0 +1,15 @@
+package com.ecobazaar.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One swap in POST /api/cart/swaps
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwapRequestDTO {
+    private Long oldProductId;
+    private Long newProductId;
+    private Integer quantity; // null keeps the old line's quantity
+}
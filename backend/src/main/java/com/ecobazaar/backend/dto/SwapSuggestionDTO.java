@@ -0,0 +1,21 @@
+package com.ecobazaar.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwapSuggestionDTO {
+    private Long productId;
+    private String productName;
+    private String category;
+    private Double price;
+    private Double co2Emission;
+    private String imageUrl;
+    private Double co2SavedPerUnit;
+    private Double co2Saved; // for the line's whole quantity
+    private Double priceDelta; // per unit; negative when the swap is cheaper
+    private boolean linked; // the product's own listed alternative
+}
@@ -0,0 +1,15 @@
+package com.ecobazaar.backend.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Body of POST /api/cart/swaps, applied all or nothing
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SwapsRequestDTO {
+    private List<SwapRequestDTO> swaps;
+}
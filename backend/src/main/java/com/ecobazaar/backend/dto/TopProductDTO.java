@@ -1,7 +1,18 @@
 package com.ecobazaar.backend.dto;
 
-public interface TopProductDTO {
-    String getProductName();
-    Long getUnitsSold();
-    Double getTotalCarbonSaved();
-}
\ No newline at end of file
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopProductDTO {
+    private Long productId;
+    private String productName;
+    private String category;
+    private Long unitsSold;
+    private Double totalCarbonSaved;
+    // How far unitsSold may overstate the true count; 0 means the count is exact
+    private Long maxOvercount;
+}
@@ -0,0 +1,15 @@
+package com.ecobazaar.backend.event;
+
+import com.ecobazaar.backend.model.Order;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by OrderService inside the order transaction. Plain @EventListeners join that
+// transaction (derived totals stay in step); @TransactionalEventListeners see it after commit.
+@Getter
+@AllArgsConstructor
+public class OrderCreatedEvent {
+    private final Order order;
+    private final Long userId;
+}
@@ -0,0 +1,18 @@
+package com.ecobazaar.backend.event;
+
+import com.ecobazaar.backend.model.Product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by ProductService after every catalog write so in-memory views can follow along
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+    private final Long productId;
+    private final Product product; // null when the product was deleted
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
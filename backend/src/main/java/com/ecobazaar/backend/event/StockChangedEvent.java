@@ -0,0 +1,13 @@
+package com.ecobazaar.backend.event;
+
+import java.util.Collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by StockReservationService when checkout moves stock, so in-memory product copies can catch up
+@Getter
+@AllArgsConstructor
+public class StockChangedEvent {
+    private final Collection<Long> productIds;
+}
@@ -3,22 +3,30 @@ package com.ecobazaar.backend.model;
 import java.util.Date;
 
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import com.ecobazaar.backend.config.BlockId;
+
 @Entity
+// History pages walk a product's or user's records newest first: (owner, date, id) is both the filter and the keyset
+@Table(name = "carbon_footprint", indexes = {
+        @Index(name = "idx_carbon_footprint_product_date", columnList = "product_id, calculation_date, id"),
+        @Index(name = "idx_carbon_footprint_user_date", columnList = "user_id, calculation_date, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class CarbonFootprint {
+    // Block-allocated ids so an order's footprint rows go out as one JDBC batch (see OrderItem)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @BlockId(name = "carbon_footprint")
     private Long id;
 
     private Long productId;
@@ -0,0 +1,40 @@
+package com.ecobazaar.backend.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Running per-user totals, bumped in the same transaction as each order so the dashboard never aggregates orders
+@Entity
+@Table(name = "carbon_ledgers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CarbonLedger {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_email", unique = true, nullable = false)
+    private String userEmail;
+
+    @Column(name = "lifetime_co2_saved")
+    private Double lifetimeCo2Saved;
+
+    @Column(name = "order_count")
+    private Long orderCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
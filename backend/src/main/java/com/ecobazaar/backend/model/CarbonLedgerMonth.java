@@ -0,0 +1,38 @@
+package com.ecobazaar.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(name = "carbon_ledger_months", uniqueConstraints = @UniqueConstraint(columnNames = {"user_email", "period"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CarbonLedgerMonth {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Column(nullable = false, length = 7)
+    private String period; // "yyyy-MM", so each year keeps its own months
+
+    @Column(name = "co2_saved")
+    private Double co2Saved;
+
+    @Column(name = "order_count")
+    private Long orderCount;
+}
@@ -0,0 +1,50 @@
+package com.ecobazaar.backend.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A product's carbon footprint records summed per day and per month, bumped as records are saved,
+// so charts read one row per point instead of every record. The unique key also serves range reads.
+@Entity
+@Table(name = "carbon_rollups", uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "granularity", "bucket"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CarbonRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false, length = 5)
+    private String granularity; // "DAY" or "MONTH"
+
+    @Column(nullable = false)
+    private LocalDate bucket; // the day, or the first day of the month
+
+    @Column(name = "sample_count")
+    private Long sampleCount;
+
+    private Double total;
+
+    @Column(name = "min_value")
+    private Double minValue;
+
+    @Column(name = "max_value")
+    private Double maxValue;
+}
@@ -20,8 +20,10 @@ public class Cart {
     @Column(unique = true)
     private String userEmail; // Links this specific cart to a logged-in user
 
-    // If a Cart is deleted, all CartItems inside it are deleted too
+    // If a Cart is deleted, all CartItems inside it are deleted too. Lines are written row by row by the
+    // CartStore (DatabaseCartStore or MemoryCartStore) through CartItem.cartId, which owns the column,
+    // so this side is read-only.
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "cart_id")
+    @JoinColumn(name = "cart_id", insertable = false, updatable = false)
     private List<CartItem> items = new ArrayList<>();
 }
\ No newline at end of file
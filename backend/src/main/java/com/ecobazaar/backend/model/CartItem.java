@@ -6,13 +6,15 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+// One row per (cart, product); adding the same product again bumps quantity
 @Entity
-@Table(name = "cart_items")
+@Table(name = "cart_items", uniqueConstraints = @UniqueConstraint(columnNames = {"cart_id", "product_id"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -23,6 +25,10 @@ public class CartItem {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Column(name = "cart_id")
+    private Long cartId;
+
+    @Column(name = "product_id")
     private Long productId;
     private String productName;
     private Double price;
@@ -36,4 +42,6 @@ public class CartItem {
     private Boolean isEcoFriendly;
     
     private String category;
+
+    private Integer quantity; // null on rows written before quantities existed, meaning 1
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.ecobazaar.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One row per @BlockId name: the next id IdBlockAllocator will hand out
+@Entity
+@Table(name = "id_generators")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdGenerator {
+
+    @Id
+    private String name;
+
+    @Column(name = "next_val")
+    private Long nextVal;
+}
@@ -7,7 +7,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+// The index serves "a user's orders, newest first" (order history, reports)
+@Table(name = "orders", indexes = @Index(name = "idx_orders_user_date", columnList = "user_email, order_date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -28,7 +29,8 @@ public class Order {
     @Column(length = 500) 
     private String shippingAddress; 
 
+    // Not nullable, so order_id goes into the item INSERT instead of a follow-up UPDATE per item
     @OneToMany(cascade = CascadeType.ALL)
-    @JoinColumn(name = "order_id")
+    @JoinColumn(name = "order_id", nullable = false)
     private List<OrderItem> items = new ArrayList<>();
 }
\ No newline at end of file
@@ -2,8 +2,6 @@ package com.ecobazaar.backend.model;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
@@ -11,6 +9,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import com.ecobazaar.backend.config.BlockId;
+
 @Entity
 @Table(name = "order_items")
 @Data
@@ -19,8 +19,10 @@ import lombok.NoArgsConstructor;
 @Builder
 public class OrderItem {
 
+    // Ids are handed out in blocks (see IdBlockAllocator) so inserts can be batched;
+    // IDENTITY would force one round trip per row to read the generated key
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @BlockId(name = "order_items")
     private Long id;
 
     private Long productId;
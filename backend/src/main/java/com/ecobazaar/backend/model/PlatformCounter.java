@@ -0,0 +1,36 @@
+package com.ecobazaar.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Platform-wide totals, split over a few rows ("slots") so concurrent checkouts don't all
+// queue on one row lock. The real total is the SUM over the slots.
+@Entity
+@Table(name = "platform_counters")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlatformCounter {
+
+    @Id
+    private Integer slot;
+
+    @Column(name = "total_users")
+    private Long totalUsers;
+
+    @Column(name = "total_orders")
+    private Long totalOrders;
+
+    @Column(name = "total_revenue")
+    private Double totalRevenue;
+
+    @Column(name = "total_co2_saved")
+    private Double totalCo2Saved;
+}
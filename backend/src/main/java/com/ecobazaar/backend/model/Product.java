@@ -9,8 +9,6 @@ import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
@@ -19,16 +17,21 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import org.hibernate.annotations.BatchSize;
+
+import com.ecobazaar.backend.config.BlockId;
+
 @Entity
 @Table(name = "products")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Product {
 
+    // Block-allocated ids so a bulk import's products and their images go out as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @BlockId(name = "products")
     private Long id;
 
     @Column(nullable = false)
@@ -48,7 +51,9 @@ public class Product {
     @Column(nullable = false)
     private Double price;
     
+    // Lets a whole catalog page load its images in one IN (...) query instead of one per product
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "image_url")
     private List<String> imageUrls = new ArrayList<>();
@@ -73,4 +78,12 @@ public class Product {
 
     @Column(name = "verification_status")
     private String verificationStatus = "PENDING";
+
+    // Detached copy with its own image list. The in-memory catalog (cache and indexes) keeps and
+    // hands out copies, so no caller can change what other readers see.
+    public Product copy() {
+        Product copy = toBuilder().build();
+        copy.setImageUrls(imageUrls != null ? new ArrayList<>(imageUrls) : new ArrayList<>());
+        return copy;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.ecobazaar.backend.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import com.ecobazaar.backend.config.BlockId;
+
+@Entity
+@Table(name = "stock_reservation_lines")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationLine {
+
+    // Block-allocated ids so a reservation's lines are inserted as one batch (see OrderItem)
+    @Id
+    @BlockId(name = "stock_reservation_lines")
+    private Long id;
+
+    private Long productId;
+    private Integer requested;
+    private Integer reserved;
+}
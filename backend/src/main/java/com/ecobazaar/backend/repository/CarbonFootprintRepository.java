@@ -1,13 +1,52 @@
 package com.ecobazaar.backend.repository;
 
 import com.ecobazaar.backend.model.CarbonFootprint;
+
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CarbonFootprintRepository extends JpaRepository<CarbonFootprint, Long> {
     List<CarbonFootprint> findByProductId(Long productId);
-    List<CarbonFootprint> findByUserId(Long userId);
+
+    // History pages filter on exactly one of productId / userId (the other is null). Dated records
+    // come first, newest first, continuing below (beforeDate, beforeId); see findUndatedPage for the rest.
+    @Query("SELECT f FROM CarbonFootprint f " +
+           "WHERE (:productId IS NULL OR f.productId = :productId) AND (:userId IS NULL OR f.userId = :userId) " +
+           "AND f.calculationDate >= :from AND f.calculationDate < :to " +
+           "AND (f.calculationDate < :beforeDate OR (f.calculationDate = :beforeDate AND f.id < :beforeId)) " +
+           "ORDER BY f.calculationDate DESC, f.id DESC")
+    List<CarbonFootprint> findDatedPage(@Param("productId") Long productId, @Param("userId") Long userId,
+                                        @Param("from") Date from, @Param("to") Date to,
+                                        @Param("beforeDate") Date beforeDate, @Param("beforeId") Long beforeId,
+                                        Limit limit);
+
+    // Records saved without a date, after all dated ones (only when no time range is asked for)
+    @Query("SELECT f FROM CarbonFootprint f " +
+           "WHERE (:productId IS NULL OR f.productId = :productId) AND (:userId IS NULL OR f.userId = :userId) " +
+           "AND f.calculationDate IS NULL AND f.id < :beforeId ORDER BY f.id DESC")
+    List<CarbonFootprint> findUndatedPage(@Param("productId") Long productId, @Param("userId") Long userId,
+                                          @Param("beforeId") Long beforeId, Limit limit);
+
+    // Same filter as the pages, pulled through a cursor a few hundred rows at a time as unmanaged
+    // copies, so the session does not grow with the stream; must be consumed (and closed) inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.ecobazaar.backend.model.CarbonFootprint(f.id, f.productId, f.userId, f.carbonFootprint, f.calculationDate) " +
+           "FROM CarbonFootprint f " +
+           "WHERE (:productId IS NULL OR f.productId = :productId) AND (:userId IS NULL OR f.userId = :userId) " +
+           "AND (:from IS NULL OR f.calculationDate >= :from) AND (:to IS NULL OR f.calculationDate < :to) " +
+           "ORDER BY f.calculationDate DESC, f.id DESC")
+    Stream<CarbonFootprint> streamHistory(@Param("productId") Long productId, @Param("userId") Long userId,
+                                          @Param("from") Date from, @Param("to") Date to);
 }
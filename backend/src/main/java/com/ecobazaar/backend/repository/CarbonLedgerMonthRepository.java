@@ -0,0 +1,26 @@
+package com.ecobazaar.backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ecobazaar.backend.dto.MonthlyTrendDTO;
+import com.ecobazaar.backend.model.CarbonLedgerMonth;
+
+public interface CarbonLedgerMonthRepository extends JpaRepository<CarbonLedgerMonth, Long> {
+
+    List<MonthlyTrendDTO> findTop12ByUserEmailOrderByPeriodDesc(String userEmail);
+
+    @Modifying
+    @Query(value = "INSERT INTO carbon_ledger_months (user_email, period, co2_saved, order_count) " +
+                   "VALUES (:email, :period, :co2, 1) " +
+                   "ON DUPLICATE KEY UPDATE co2_saved = co2_saved + :co2, order_count = order_count + 1", nativeQuery = true)
+    void addOrder(@Param("email") String email, @Param("period") String period, @Param("co2") Double co2);
+
+    @Modifying
+    @Query("DELETE FROM CarbonLedgerMonth m WHERE m.userEmail = :email")
+    void deleteByUserEmail(@Param("email") String email);
+}
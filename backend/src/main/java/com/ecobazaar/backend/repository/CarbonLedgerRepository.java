@@ -0,0 +1,28 @@
+package com.ecobazaar.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ecobazaar.backend.model.CarbonLedger;
+
+public interface CarbonLedgerRepository extends JpaRepository<CarbonLedger, Long> {
+
+    Optional<CarbonLedger> findByUserEmail(String userEmail);
+
+    // Single atomic upsert, so concurrent orders from the same user can't lose an update
+    @Modifying
+    @Query(value = "INSERT INTO carbon_ledgers (user_email, lifetime_co2_saved, order_count, updated_at) " +
+                   "VALUES (:email, :co2, 1, :now) " +
+                   "ON DUPLICATE KEY UPDATE lifetime_co2_saved = lifetime_co2_saved + :co2, " +
+                   "order_count = order_count + 1, updated_at = :now", nativeQuery = true)
+    void addOrder(@Param("email") String email, @Param("co2") Double co2, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM CarbonLedger l WHERE l.userEmail = :email")
+    void deleteByUserEmail(@Param("email") String email);
+}
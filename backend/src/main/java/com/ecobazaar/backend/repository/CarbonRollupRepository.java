@@ -0,0 +1,25 @@
+package com.ecobazaar.backend.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ecobazaar.backend.dto.CarbonSeriesPointDTO;
+import com.ecobazaar.backend.model.CarbonRollup;
+
+public interface CarbonRollupRepository extends JpaRepository<CarbonRollup, Long> {
+
+    @Query("SELECT new com.ecobazaar.backend.dto.CarbonSeriesPointDTO(r.bucket, r.sampleCount, r.total, r.minValue, r.maxValue) " +
+           "FROM CarbonRollup r WHERE r.productId = :productId AND r.granularity = :granularity " +
+           "AND r.bucket BETWEEN :from AND :to ORDER BY r.bucket")
+    List<CarbonSeriesPointDTO> findSeries(@Param("productId") Long productId, @Param("granularity") String granularity,
+                                          @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM CarbonRollup r WHERE r.productId = :productId")
+    void deleteByProductId(@Param("productId") Long productId);
+}
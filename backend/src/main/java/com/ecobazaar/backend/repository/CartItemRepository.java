@@ -0,0 +1,49 @@
+package com.ecobazaar.backend.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ecobazaar.backend.dto.CartTotalsDTO;
+import com.ecobazaar.backend.model.CartItem;
+
+public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+
+    List<CartItem> findByCartId(Long cartId);
+
+    Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
+
+    // Adds to the line for (cart, product), creating it if needed, in one statement
+    @Modifying
+    @Query(value = "INSERT INTO cart_items (cart_id, product_id, product_name, price, co2_emission_kg, image_url, is_eco_friendly, category, quantity) " +
+                   "VALUES (:cartId, :productId, :productName, :price, :co2, :imageUrl, :eco, :category, :quantity) " +
+                   "ON DUPLICATE KEY UPDATE quantity = COALESCE(quantity, 1) + :quantity, product_name = :productName, " +
+                   "price = :price, co2_emission_kg = :co2, image_url = :imageUrl, is_eco_friendly = :eco, category = :category",
+           nativeQuery = true)
+    void addQuantity(@Param("cartId") Long cartId, @Param("productId") Long productId,
+                     @Param("productName") String productName, @Param("price") Double price,
+                     @Param("co2") Double co2, @Param("imageUrl") String imageUrl,
+                     @Param("eco") Boolean eco, @Param("category") String category,
+                     @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE CartItem i SET i.quantity = :quantity WHERE i.cartId = :cartId AND i.productId = :productId")
+    int setQuantity(@Param("cartId") Long cartId, @Param("productId") Long productId, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cartId = :cartId AND i.productId = :productId")
+    int deleteLine(@Param("cartId") Long cartId, @Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM CartItem i WHERE i.cartId = :cartId")
+    int deleteByCartId(@Param("cartId") Long cartId);
+
+    @Query("SELECT new com.ecobazaar.backend.dto.CartTotalsDTO(COUNT(i), COALESCE(SUM(COALESCE(i.quantity, 1)), 0L), " +
+           "COALESCE(SUM(i.price * COALESCE(i.quantity, 1)), 0.0), COALESCE(SUM(i.co2Emission * COALESCE(i.quantity, 1)), 0.0)) " +
+           "FROM CartItem i WHERE i.cartId = :cartId")
+    CartTotalsDTO getTotals(@Param("cartId") Long cartId);
+}
@@ -1,11 +1,22 @@
 package com.ecobazaar.backend.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.ecobazaar.backend.model.Cart;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserEmail(String userEmail);
+
+    @Query("SELECT c.id FROM Cart c WHERE c.userEmail = :email")
+    Optional<Long> findIdByUserEmail(@Param("email") String email);
+
+    // [cart id, user email] for each of the given users that has a cart
+    @Query("SELECT c.id, c.userEmail FROM Cart c WHERE c.userEmail IN :emails")
+    List<Object[]> findIdsByUserEmails(@Param("emails") Collection<String> emails);
 }
\ No newline at end of file
@@ -1,20 +1,41 @@
 package com.ecobazaar.backend.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import com.ecobazaar.backend.dto.TopProductDTO;
 import com.ecobazaar.backend.model.OrderItem;
 
+import jakarta.persistence.QueryHint;
+
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
 
-    @Query("SELECT i.productName as productName, COUNT(i.id) as unitsSold, SUM(i.co2Emission) as totalCarbonSaved " +
-           "FROM OrderItem i WHERE i.isEcoFriendly = true " +
-           "GROUP BY i.productId, i.productName " +
-           "ORDER BY unitsSold DESC LIMIT 5")
-    List<TopProductDTO> getTopEcoProducts();
-}
\ No newline at end of file
+    // Rows of [productId, productName, unitsSold, co2] per eco product
+    @Query("SELECT i.productId, MAX(i.productName), COUNT(i), COALESCE(SUM(i.co2Emission), 0) " +
+           "FROM Order o JOIN o.items i WHERE i.isEcoFriendly = true " +
+           "GROUP BY i.productId")
+    List<Object[]> getEcoProductTotals();
+
+    // Rows of [productId, productName, day, unitsSold, co2] per eco product and order day
+    @Query("SELECT i.productId, MAX(i.productName), cast(o.orderDate as LocalDate), COUNT(i), COALESCE(SUM(i.co2Emission), 0) " +
+           "FROM Order o JOIN o.items i WHERE i.isEcoFriendly = true AND o.orderDate >= :since " +
+           "GROUP BY i.productId, cast(o.orderDate as LocalDate)")
+    List<Object[]> getEcoProductDailyTotals(@Param("since") LocalDateTime since);
+
+    // Admin CSV export: the items of every order placed in [from, to) (either bound may be null),
+    // with their order's id, date and buyer, in order id order through a cursor; must be consumed
+    // (and closed) inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o.id, o.orderDate, o.userEmail, i.id, i.productId, i.productName, i.price, i.co2Emission, i.isEcoFriendly " +
+           "FROM Order o JOIN o.items i WHERE (:from IS NULL OR o.orderDate >= :from) AND (:to IS NULL OR o.orderDate < :to) " +
+           "ORDER BY o.id")
+    Stream<Object[]> streamExportRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -1,22 +1,55 @@
 package com.ecobazaar.backend.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
-import com.ecobazaar.backend.dto.MonthlyTrendDTO;
+import com.ecobazaar.backend.dto.OrderReportRowDTO;
+import com.ecobazaar.backend.dto.ReportVersionDTO;
 import com.ecobazaar.backend.model.Order;
 
+import jakarta.persistence.QueryHint;
+
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
     List<Order> findByUserEmailOrderByOrderDateDesc(String userEmail);
-    @Query(value = "SELECT MONTHNAME(order_date) as month, SUM(total_co2_saved) as co2Saved " +
-                   "FROM orders WHERE user_email = :email " +
-                   "GROUP BY MONTH(order_date), MONTHNAME(order_date) " +
-                   "ORDER BY MONTH(order_date)", nativeQuery = true)
-    List<MonthlyTrendDTO> getMonthlyCarbonTrend(@Param("email") String email);
+
+    // Just the columns a report prints, pulled through a cursor a few hundred rows at a time;
+    // must be consumed (and closed) inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.ecobazaar.backend.dto.OrderReportRowDTO(o.orderDate, o.totalAmount, o.totalCo2Saved, o.status) " +
+           "FROM Order o WHERE o.userEmail = :email ORDER BY o.orderDate DESC")
+    Stream<OrderReportRowDTO> streamReportRows(@Param("email") String email);
+
+    // Admin CSV export: every order placed in [from, to) (either bound may be null) in id order,
+    // through a cursor; must be consumed (and closed) inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT o.id, o.orderDate, o.userEmail, o.status, o.totalAmount, o.totalCo2Saved, o.shippingAddress " +
+           "FROM Order o WHERE (:from IS NULL OR o.orderDate >= :from) AND (:to IS NULL OR o.orderDate < :to) " +
+           "ORDER BY o.id")
+    Stream<Object[]> streamExportRows(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Answered from idx_orders_user_date alone; the user's cached report is current while this is unchanged
+    @Query("SELECT new com.ecobazaar.backend.dto.ReportVersionDTO(COUNT(o), MAX(o.orderDate)) " +
+           "FROM Order o WHERE o.userEmail = :email")
+    ReportVersionDTO getReportVersion(@Param("email") String email);
+
+    // Per user and calendar month (year included); only used to rebuild the carbon ledger
+    @Query("SELECT o.userEmail, YEAR(o.orderDate), MONTH(o.orderDate), COALESCE(SUM(o.totalCo2Saved), 0), COUNT(o) " +
+           "FROM Order o WHERE (:email IS NULL OR o.userEmail = :email) " +
+           "GROUP BY o.userEmail, YEAR(o.orderDate), MONTH(o.orderDate)")
+    List<Object[]> getCarbonTotalsByUserAndMonth(@Param("email") String email);
+
+    // Which of these orders exist, as the caller's transaction sees them
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o")
     Double getTotalPlatformRevenue();
@@ -0,0 +1,27 @@
+package com.ecobazaar.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ecobazaar.backend.dto.PlatformTotalsDTO;
+import com.ecobazaar.backend.model.PlatformCounter;
+
+public interface PlatformCounterRepository extends JpaRepository<PlatformCounter, Integer> {
+
+    @Query("SELECT COALESCE(SUM(c.totalUsers), 0) as totalUsers, COALESCE(SUM(c.totalOrders), 0) as totalOrders, " +
+           "COALESCE(SUM(c.totalRevenue), 0) as totalRevenue, COALESCE(SUM(c.totalCo2Saved), 0) as totalCo2Saved " +
+           "FROM PlatformCounter c")
+    PlatformTotalsDTO getTotals();
+
+    @Modifying
+    @Query("UPDATE PlatformCounter c SET c.totalOrders = c.totalOrders + :orders, " +
+           "c.totalRevenue = c.totalRevenue + :revenue, c.totalCo2Saved = c.totalCo2Saved + :co2 WHERE c.slot = :slot")
+    int addOrders(@Param("slot") int slot, @Param("orders") long orders,
+                  @Param("revenue") double revenue, @Param("co2") double co2);
+
+    @Modifying
+    @Query("UPDATE PlatformCounter c SET c.totalUsers = c.totalUsers + :users WHERE c.slot = :slot")
+    int addUsers(@Param("slot") int slot, @Param("users") long users);
+}
@@ -1,11 +1,50 @@
 package com.ecobazaar.backend.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.ecobazaar.backend.model.Product;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
     List<Product> findBySellerEmail(String sellerEmail);
-}
\ No newline at end of file
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.imageUrls WHERE p.id = :id")
+    Optional<Product> findWithImagesById(@Param("id") Long id);
+
+    // Keyset scrolling: Spring Data appends the id as a tie-breaker and turns the
+    // position into a "WHERE (sortKey, id) > (?, ?)" predicate, so every page costs the same.
+    Window<Product> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    // Decrements only if enough is left; returns 0 instead of going negative
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int takeStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.id = :id AND p.stockQuantity IS NOT NULL")
+    int returnStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Integer findStockQuantityById(@Param("id") Long id);
+
+    // Just the stock column, for patching the in-memory catalog after checkout
+    @Query("SELECT p.id AS id, p.stockQuantity AS stockQuantity FROM Product p WHERE p.id IN :ids")
+    List<StockLevel> findStockLevels(@Param("ids") Collection<Long> ids);
+
+    interface StockLevel {
+        Long getId();
+
+        Integer getStockQuantity();
+    }
+}
@@ -0,0 +1,26 @@
+package com.ecobazaar.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.ecobazaar.backend.model.StockReservation;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = 'HELD' AND r.expiresAt < :now ORDER BY r.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @Query("SELECT r.id FROM StockReservation r WHERE r.status = 'HELD' AND r.userEmail = :email ORDER BY r.id")
+    List<Long> findHeldIds(@Param("email") String email);
+
+    // Compare-and-set on the status, so a confirm and a release racing for the same hold can't both win
+    @Modifying
+    @Query("UPDATE StockReservation r SET r.status = :to WHERE r.id = :id AND r.status = :from")
+    int changeStatus(@Param("id") Long id, @Param("from") String from, @Param("to") String to);
+}
@@ -0,0 +1,166 @@
+package com.ecobazaar.backend.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Date;
+import java.util.Locale;
+
+import com.ecobazaar.backend.model.CarbonFootprint;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+// Turns one line of a bulk upload into a CarbonFootprint, or throws IllegalArgumentException with
+// a message fit to show the uploader. NDJSON lines are objects with the fields of POST /api/carbon;
+// CSV records come from a CsvReader and start with a header naming the columns (productId,
+// carbonFootprint, and optionally userId, calculationDate; snake_case works too). Dates are ISO dates, date-times or epoch milliseconds,
+// read as UTC when they carry no offset, as POST /api/carbon reads them. Not thread-safe: one per upload.
+public class CarbonIngestParser {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private final String format;
+    private final ObjectReader reader;
+    private int productIdColumn = -1;
+    private int userIdColumn = -1;
+    private int carbonFootprintColumn = -1;
+    private int calculationDateColumn = -1;
+    private int columns;
+
+    public CarbonIngestParser(String format, JsonMapper jsonMapper) {
+        if (!NDJSON.equals(format) && !CSV.equals(format)) {
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        this.format = format;
+        this.reader = jsonMapper.readerFor(Row.class);
+    }
+
+    public boolean needsHeader() {
+        return CSV.equals(format);
+    }
+
+    // Reads the CSV header; fails the whole upload if a required column is missing
+    public void header(String[] names) {
+        for (int i = 0; i < names.length; i++) {
+            switch (names[i].trim().replace("_", "").toLowerCase(Locale.ROOT)) {
+                case "productid" -> productIdColumn = i;
+                case "userid" -> userIdColumn = i;
+                case "carbonfootprint" -> carbonFootprintColumn = i;
+                case "calculationdate" -> calculationDateColumn = i;
+                default -> { } // extra columns are ignored
+            }
+        }
+        if (productIdColumn < 0 || carbonFootprintColumn < 0) {
+            throw new IllegalArgumentException("CSV header must name productId and carbonFootprint columns");
+        }
+        columns = names.length;
+    }
+
+    // One NDJSON line
+    public CarbonFootprint parse(String line) {
+        return toFootprint(jsonRow(line));
+    }
+
+    // One CSV record, after header()
+    public CarbonFootprint parse(String[] cells) {
+        if (cells.length != columns) {
+            throw new IllegalArgumentException("Expected " + columns + " columns, found " + cells.length);
+        }
+        return toFootprint(new Row(
+                parseLong(cell(cells, productIdColumn), "productId"),
+                parseLong(cell(cells, userIdColumn), "userId"),
+                parseDouble(cell(cells, carbonFootprintColumn)),
+                cell(cells, calculationDateColumn)));
+    }
+
+    private CarbonFootprint toFootprint(Row row) {
+        if (row.productId() == null || row.productId() <= 0) {
+            throw new IllegalArgumentException("productId is required");
+        }
+        if (row.carbonFootprint() == null) {
+            throw new IllegalArgumentException("carbonFootprint is required");
+        }
+        if (!Double.isFinite(row.carbonFootprint()) || row.carbonFootprint() < 0) {
+            throw new IllegalArgumentException("carbonFootprint must be a non-negative number");
+        }
+        return CarbonFootprint.builder()
+                .productId(row.productId())
+                .userId(row.userId())
+                .carbonFootprint(row.carbonFootprint())
+                .calculationDate(parseDate(row.calculationDate()))
+                .build();
+    }
+
+    private Row jsonRow(String line) {
+        try {
+            Row row = reader.readValue(line);
+            if (row == null) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+            return row;
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String cell(String[] cells, int column) {
+        if (column < 0) {
+            return null;
+        }
+        String value = cells[column].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Long parseLong(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a whole number: " + value);
+        }
+    }
+
+    private static Double parseDouble(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("carbonFootprint is not a number: " + value);
+        }
+    }
+
+    static Date parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            if (value.chars().allMatch(Character::isDigit)) {
+                return new Date(Long.parseLong(value));
+            }
+            if (value.length() == 10) {
+                return Date.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+            }
+            char last = value.charAt(value.length() - 1);
+            Instant instant = last == 'Z' || value.indexOf('+', 10) > 0 || value.lastIndexOf('-') > 10
+                    ? OffsetDateTime.parse(value).toInstant()
+                    : LocalDateTime.parse(value).toInstant(ZoneOffset.UTC);
+            return Date.from(instant);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("calculationDate is not an ISO date or date-time: " + value);
+        }
+    }
+
+    // Dates stay text here so NDJSON and CSV rows share one date parser
+    private record Row(Long productId, Long userId, Double carbonFootprint, String calculationDate) {
+    }
+}
@@ -0,0 +1,269 @@
+package com.ecobazaar.backend.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecobazaar.backend.config.IdBlockAllocator;
+import com.ecobazaar.backend.dto.CarbonIngestErrorDTO;
+import com.ecobazaar.backend.dto.CarbonIngestResultDTO;
+import com.ecobazaar.backend.model.CarbonFootprint;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import tools.jackson.databind.json.JsonMapper;
+
+// Bulk carbon footprint uploads. The body is read record by record, so an upload of any size needs
+// memory for one batch only. Valid rows go out as JDBC batches of carbon.ingest.batch-size, each
+// batch (with its rollups) in its own transaction; a bad row is reported and skipped, and a batch
+// the database refuses is retried row by row so only the rows at fault are lost.
+@Service
+public class CarbonIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarbonIngestService.class);
+
+    private static final String INSERT =
+            "INSERT INTO carbon_footprint (id, product_id, user_id, carbon_footprint, calculation_date) VALUES (?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IdBlockAllocator idBlockAllocator;
+
+    @Autowired
+    private CarbonRollupService carbonRollupService;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxErrors;
+    private final Counter insertedRows;
+    private final Counter rejectedRows;
+
+    public CarbonIngestService(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                               @Value("${carbon.ingest.batch-size:5000}") int batchSize,
+                               @Value("${carbon.ingest.max-errors:1000}") int maxErrors) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.insertedRows = Counter.builder("carbon.ingest.rows").tag("outcome", "inserted").register(meterRegistry);
+        this.rejectedRows = Counter.builder("carbon.ingest.rows").tag("outcome", "rejected").register(meterRegistry);
+    }
+
+    // format is CarbonIngestParser.NDJSON or CSV. sellerEmail limits the upload to that seller's own
+    // products and rows without a userId; null (admins) allows any product and user. Throws
+    // IllegalArgumentException only for problems with the upload as a whole (unknown format, bad
+    // CSV header); row problems end up in the result.
+    public CarbonIngestResultDTO ingest(InputStream body, String format, String sellerEmail) throws IOException {
+        long start = System.currentTimeMillis();
+        CarbonIngestParser parser = new CarbonIngestParser(format, jsonMapper);
+        Upload upload = new Upload(sellerEmail);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+
+        Batch batch = new Batch();
+        if (parser.needsHeader()) {
+            CsvReader csv = new CsvReader(reader);
+            String[] header = csv.next();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV body is empty");
+            }
+            parser.header(header);
+            String[] record;
+            while ((record = next(csv, upload)) != null) {
+                String[] cells = record;
+                add(batch, upload, csv.getRecordLine(), () -> parser.parse(cells));
+            }
+        } else {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String text = line;
+                add(batch, upload, lineNumber, () -> parser.parse(text));
+            }
+        }
+        write(batch.footprints, batch.lines, upload);
+        // Unknown products and database failures are only found when a batch is written
+        upload.errors.sort(Comparator.comparingLong(CarbonIngestErrorDTO::getLine));
+
+        long duration = System.currentTimeMillis() - start;
+        insertedRows.increment(upload.inserted);
+        rejectedRows.increment(upload.rejected);
+        logger.info("Carbon upload ({}): {} rows, {} inserted, {} rejected in {} ms",
+                format, upload.rows, upload.inserted, upload.rejected, duration);
+        return new CarbonIngestResultDTO(upload.rows, upload.inserted, upload.rejected,
+                upload.errors, upload.rejected > upload.errors.size(), duration);
+    }
+
+    private void add(Batch batch, Upload upload, long line, Supplier<CarbonFootprint> row) {
+        upload.rows++;
+        try {
+            CarbonFootprint footprint = row.get();
+            if (upload.sellerEmail != null && footprint.getUserId() != null) {
+                upload.reject(line, "userId can only be set by admins");
+            } else {
+                batch.footprints.add(footprint);
+                batch.lines.add(line);
+            }
+        } catch (IllegalArgumentException e) {
+            upload.reject(line, e.getMessage());
+        }
+        if (batch.footprints.size() >= batchSize) {
+            write(batch.footprints, batch.lines, upload);
+            batch.footprints.clear();
+            batch.lines.clear();
+        }
+    }
+
+    // An unterminated quote swallows the rest of the body, so it ends the upload with what was read so far
+    private String[] next(CsvReader csv, Upload upload) throws IOException {
+        try {
+            return csv.next();
+        } catch (IllegalArgumentException e) {
+            upload.rows++;
+            upload.reject(csv.getRecordLine(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(List<CarbonFootprint> batch, List<Long> lines, Upload upload) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        checkProducts(batch, upload);
+
+        // Rows without a calculationDate are stamped with the upload time, as POST /api/carbon does
+        Date now = new Date();
+        List<CarbonFootprint> accepted = new ArrayList<>(batch.size());
+        List<Long> acceptedLines = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            CarbonFootprint footprint = batch.get(i);
+            if (upload.unknownProducts.contains(footprint.getProductId())) {
+                upload.reject(lines.get(i), upload.sellerEmail == null
+                        ? "Unknown product " + footprint.getProductId()
+                        : "Product " + footprint.getProductId() + " is not one of your products");
+                continue;
+            }
+            footprint.setId(idBlockAllocator.next("carbon_footprint", batchSize));
+            if (footprint.getCalculationDate() == null) {
+                footprint.setCalculationDate(now);
+            }
+            accepted.add(footprint);
+            acceptedLines.add(lines.get(i));
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        try {
+            insert(accepted);
+            upload.inserted += accepted.size();
+        } catch (DataAccessException e) {
+            logger.warn("Carbon upload batch of {} rows failed, retrying row by row: {}", accepted.size(), e.getMessage());
+            for (int i = 0; i < accepted.size(); i++) {
+                try {
+                    insert(List.of(accepted.get(i)));
+                    upload.inserted++;
+                } catch (DataAccessException rowFailure) {
+                    upload.reject(acceptedLines.get(i), NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<CarbonFootprint> footprints) {
+        List<Object[]> rows = new ArrayList<>(footprints.size());
+        for (CarbonFootprint footprint : footprints) {
+            rows.add(new Object[] {
+                    footprint.getId(),
+                    footprint.getProductId(),
+                    footprint.getUserId(),
+                    footprint.getCarbonFootprint(),
+                    new Timestamp(footprint.getCalculationDate().getTime()) });
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT, rows);
+            carbonRollupService.record(footprints);
+        });
+    }
+
+    // Looks up product ids not seen earlier in this upload, one query per batch. For a seller,
+    // products of other sellers count as unknown.
+    private void checkProducts(List<CarbonFootprint> batch, Upload upload) {
+        Set<Long> unseen = new HashSet<>();
+        for (CarbonFootprint footprint : batch) {
+            Long productId = footprint.getProductId();
+            if (!upload.knownProducts.contains(productId) && !upload.unknownProducts.contains(productId)) {
+                unseen.add(productId);
+            }
+        }
+        if (unseen.isEmpty()) {
+            return;
+        }
+        String sql = "SELECT id FROM products WHERE id IN (" + String.join(",", Collections.nCopies(unseen.size(), "?")) + ")";
+        List<Object> args = new ArrayList<>(unseen);
+        if (upload.sellerEmail != null) {
+            sql += " AND seller_email = ?";
+            args.add(upload.sellerEmail);
+        }
+        List<Long> found = jdbcTemplate.queryForList(sql, Long.class, args.toArray());
+        upload.knownProducts.addAll(found);
+        unseen.removeAll(found);
+        upload.unknownProducts.addAll(unseen);
+    }
+
+    private static class Batch {
+        private final List<CarbonFootprint> footprints = new ArrayList<>();
+        private final List<Long> lines = new ArrayList<>();
+    }
+
+    private class Upload {
+        private final String sellerEmail;
+        private long rows;
+        private long inserted;
+        private long rejected;
+        private final List<CarbonIngestErrorDTO> errors = new ArrayList<>();
+        private final Set<Long> knownProducts = new HashSet<>();
+        private final Set<Long> unknownProducts = new HashSet<>();
+
+        Upload(String sellerEmail) {
+            this.sellerEmail = sellerEmail;
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new CarbonIngestErrorDTO(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecobazaar.backend.service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecobazaar.backend.dto.MonthlyTrendDTO;
+import com.ecobazaar.backend.event.OrderCreatedEvent;
+import com.ecobazaar.backend.model.CarbonLedger;
+import com.ecobazaar.backend.model.CarbonLedgerMonth;
+import com.ecobazaar.backend.model.Order;
+import com.ecobazaar.backend.repository.CarbonLedgerMonthRepository;
+import com.ecobazaar.backend.repository.CarbonLedgerRepository;
+import com.ecobazaar.backend.repository.OrderRepository;
+
+@Service
+public class CarbonLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarbonLedgerService.class);
+
+    @Autowired
+    private CarbonLedgerRepository carbonLedgerRepository;
+
+    @Autowired
+    private CarbonLedgerMonthRepository carbonLedgerMonthRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // Runs inside the order's transaction: if the order rolls back, so does the ledger bump
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        double co2 = order.getTotalCo2Saved() != null ? order.getTotalCo2Saved() : 0.0;
+        LocalDateTime orderDate = order.getOrderDate() != null ? order.getOrderDate() : LocalDateTime.now();
+
+        carbonLedgerRepository.addOrder(order.getUserEmail(), co2, LocalDateTime.now());
+        carbonLedgerMonthRepository.addOrder(order.getUserEmail(), YearMonth.from(orderDate).toString(), co2);
+    }
+
+    // The ledger only follows orders placed since it existed, so on the first start with orders but
+    // no ledger rows it is built from order history (as POST /admin/ledger/rebuild would)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (carbonLedgerRepository.count() > 0 || orderRepository.count() == 0) {
+            return;
+        }
+        logger.info("Carbon ledger is empty; building it from order history");
+        rebuild(null);
+    }
+
+    public double getLifetimeSavings(String email) {
+        return carbonLedgerRepository.findByUserEmail(email)
+                .map(CarbonLedger::getLifetimeCo2Saved)
+                .orElse(0.0);
+    }
+
+    // Last 12 active months, oldest first for charting
+    public List<MonthlyTrendDTO> getMonthlyTrend(String email) {
+        List<MonthlyTrendDTO> trend = new ArrayList<>(carbonLedgerMonthRepository.findTop12ByUserEmailOrderByPeriodDesc(email));
+        Collections.reverse(trend);
+        return trend;
+    }
+
+    // Recomputes ledgers from order history, for one user or (email == null) everyone.
+    // Orders placed while this runs can be missed, so run it when checkout is quiet.
+    @Transactional
+    public int rebuild(String email) {
+        if (email == null) {
+            carbonLedgerMonthRepository.deleteAllInBatch();
+            carbonLedgerRepository.deleteAllInBatch();
+        } else {
+            carbonLedgerMonthRepository.deleteByUserEmail(email);
+            carbonLedgerRepository.deleteByUserEmail(email);
+        }
+
+        Map<String, CarbonLedger> ledgers = new HashMap<>();
+        List<CarbonLedgerMonth> months = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (Object[] row : orderRepository.getCarbonTotalsByUserAndMonth(email)) {
+            String userEmail = (String) row[0];
+            double co2 = ((Number) row[3]).doubleValue();
+            long count = ((Number) row[4]).longValue();
+
+            CarbonLedger ledger = ledgers.computeIfAbsent(userEmail, key -> CarbonLedger.builder()
+                    .userEmail(key).lifetimeCo2Saved(0.0).orderCount(0L).updatedAt(now).build());
+            ledger.setLifetimeCo2Saved(ledger.getLifetimeCo2Saved() + co2);
+            ledger.setOrderCount(ledger.getOrderCount() + count);
+
+            if (row[1] != null && row[2] != null) {
+                months.add(CarbonLedgerMonth.builder()
+                        .userEmail(userEmail)
+                        .period(YearMonth.of(((Number) row[1]).intValue(), ((Number) row[2]).intValue()).toString())
+                        .co2Saved(co2)
+                        .orderCount(count)
+                        .build());
+            }
+        }
+
+        carbonLedgerRepository.saveAll(ledgers.values());
+        carbonLedgerMonthRepository.saveAll(months);
+        logger.info("Rebuilt carbon ledger for {} user(s), {} month bucket(s)", ledgers.size(), months.size());
+        return ledgers.size();
+    }
+}
@@ -0,0 +1,153 @@
+package com.ecobazaar.backend.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Level;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.ecobazaar.backend.model.CarbonFootprint;
+import com.openhtmltopdf.extend.FSCacheEx;
+import com.openhtmltopdf.extend.FSCacheValue;
+import com.openhtmltopdf.extend.impl.FSDefaultCacheStore;
+import com.openhtmltopdf.pdfboxout.PdfRendererBuilder;
+import com.openhtmltopdf.util.Diagnostic;
+import com.openhtmltopdf.util.XRLog;
+import com.openhtmltopdf.util.XRLogger;
+
+// Renders the product carbon footprint PDF from templates/carbon-report.xhtml. The template is
+// parsed once at startup and cloned per report, and values go in as DOM text nodes, so nothing
+// is parsed as HTML per render and a value can never turn into markup. An optional TrueType font
+// (report.pdf.font) is read once; its metrics are cached across renders in a shared store.
+@Component
+public class CarbonReportRenderer {
+
+    private static final String TEMPLATE = "templates/carbon-report.xhtml";
+    // The family the template's stylesheet asks for; falls back to the built-in sans-serif if no font is set
+    private static final String FONT_FAMILY = "report";
+
+    private final Document template;
+    private final Element rowPrototype;
+    private final String baseUri;
+    private final byte[] font;
+    private final FSCacheEx<String, FSCacheValue> fontMetrics = new FSDefaultCacheStore();
+
+    public CarbonReportRenderer(@Value("${report.pdf.font:}") String fontPath) throws Exception {
+        URL resource = getClass().getClassLoader().getResource(TEMPLATE);
+        if (resource == null) {
+            throw new IllegalStateException("Missing report template " + TEMPLATE);
+        }
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        try (InputStream in = resource.openStream()) {
+            this.template = factory.newDocumentBuilder().parse(in);
+        }
+        this.baseUri = resource.toExternalForm();
+
+        // The sample row is cut out of the template and cloned once per history record
+        this.rowPrototype = findById(template, "row");
+        rowPrototype.getParentNode().removeChild(rowPrototype);
+        rowPrototype.removeAttribute("id");
+
+        this.font = fontPath.isBlank() ? null : Files.readAllBytes(Path.of(fontPath));
+
+        XRLog.setLoggerImpl(new Slf4jXRLogger());
+    }
+
+    // The report as a filled-in copy of the template; safe to call from any thread
+    public Document buildDocument(Long productId, List<CarbonFootprint> history) {
+        Document document;
+        Element prototype;
+        // Reading a DOM is not guaranteed thread-safe, so copies of the shared template take turns
+        synchronized (template) {
+            document = (Document) template.cloneNode(true);
+            prototype = (Element) document.importNode(rowPrototype, true);
+        }
+        findById(document, "product-id").setTextContent(String.valueOf(productId));
+
+        Element rows = findById(document, "rows");
+        for (CarbonFootprint record : history) {
+            Element row = (Element) prototype.cloneNode(true);
+            NodeList cells = row.getElementsByTagNameNS("*", "td");
+            cells.item(0).setTextContent(record.getCalculationDate() != null ? record.getCalculationDate().toString() : "N/A");
+            cells.item(1).setTextContent(String.valueOf(record.getCarbonFootprint()));
+            rows.appendChild(row);
+        }
+        return document;
+    }
+
+    public void render(Document document, OutputStream out) throws IOException {
+        PdfRendererBuilder builder = new PdfRendererBuilder()
+                .withW3cDocument(document, baseUri)
+                .useCacheStore(PdfRendererBuilder.CacheStore.PDF_FONT_METRICS, fontMetrics)
+                .toStream(out);
+        if (font != null) {
+            builder.useFont(() -> new ByteArrayInputStream(font), FONT_FAMILY);
+        }
+        builder.run();
+    }
+
+    // getElementById only sees attributes a DTD declared as ids, and the template has no DTD
+    private static Element findById(Node node, String id) {
+        if (node instanceof Element element && id.equals(element.getAttribute("id"))) {
+            return element;
+        }
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            Element found = findById(child, id);
+            if (found != null) {
+                return found;
+            }
+        }
+        return null;
+    }
+
+    // openhtmltopdf logs to its own java.util.logging console handler by default, several INFO
+    // lines per render. This sends it through the application's logging instead, with its INFO
+    // chatter at DEBUG, and lets it skip formatting messages nobody will see.
+    private static class Slf4jXRLogger implements XRLogger {
+        @Override
+        public void log(String where, Level level, String msg) {
+            log(where, level, msg, null);
+        }
+
+        @Override
+        public void log(String where, Level level, String msg, Throwable th) {
+            Logger logger = LoggerFactory.getLogger(where);
+            if (level.intValue() >= Level.SEVERE.intValue()) {
+                logger.error(msg, th);
+            } else if (level.intValue() >= Level.WARNING.intValue()) {
+                logger.warn(msg, th);
+            } else {
+                logger.debug(msg, th);
+            }
+        }
+
+        @Override
+        public void setLevel(String logger, Level level) {
+            // levels come from the application's logging configuration
+        }
+
+        @Override
+        public boolean isLogLevelEnabled(Diagnostic diagnostic) {
+            Logger logger = LoggerFactory.getLogger(diagnostic.getLogMessageId().getWhere());
+            return diagnostic.getLevel().intValue() >= Level.WARNING.intValue() ? logger.isWarnEnabled() : logger.isDebugEnabled();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.ecobazaar.backend.service;
+
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecobazaar.backend.dto.CarbonSeriesDTO;
+import com.ecobazaar.backend.model.CarbonFootprint;
+import com.ecobazaar.backend.repository.CarbonFootprintRepository;
+import com.ecobazaar.backend.repository.CarbonRollupRepository;
+
+// Keeps carbon_rollups (count, sum, min, max per product per day and per month) in step with
+// the raw footprint records, and answers chart range queries from it. A range read touches at
+// most MAX_POINTS rows however many records the product has. Days and months are cut in
+// carbon.rollup.zone (the server's time zone unless set), both when recording and when rebuilding.
+@Service
+public class CarbonRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarbonRollupService.class);
+
+    public static final String DAY = "DAY";
+    public static final String MONTH = "MONTH";
+    public static final String AUTO = "AUTO";
+
+    // "auto" answers ranges up to this many days with daily points, longer ones with monthly points
+    public static final int AUTO_DAILY_LIMIT = 92;
+    // Hard cap on the points in any answer; longer ranges keep their most recent end
+    public static final int MAX_POINTS = 366;
+
+    private static final String UPSERT =
+            "INSERT INTO carbon_rollups (product_id, granularity, bucket, sample_count, total, min_value, max_value) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE sample_count = sample_count + VALUES(sample_count), total = total + VALUES(total), " +
+            "min_value = LEAST(min_value, VALUES(min_value)), max_value = GREATEST(max_value, VALUES(max_value))";
+    private static final String SELECT_RECORDS =
+            "SELECT product_id, calculation_date, carbon_footprint FROM carbon_footprint " +
+            "WHERE product_id IS NOT NULL AND calculation_date IS NOT NULL AND carbon_footprint IS NOT NULL";
+
+    private static final Comparator<Key> KEY_ORDER = Comparator
+            .comparing(Key::productId)
+            .thenComparing(Key::granularity)
+            .thenComparing(Key::bucket);
+
+    @Autowired
+    private CarbonRollupRepository carbonRollupRepository;
+
+    @Autowired
+    private CarbonFootprintRepository carbonFootprintRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Rebuilds read the records in a read-only transaction of their own, which takes its connection
+    // from the streaming pool (see DataSourceConfig) so the fetch size is honoured
+    private TransactionTemplate readOnlyTransaction;
+
+    private ZoneId zone = ZoneId.systemDefault();
+
+    @Autowired
+    void setTransactionManager(PlatformTransactionManager transactionManager) {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readOnlyTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Value("${carbon.rollup.zone:}")
+    void setZone(String zone) {
+        this.zone = zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(zone);
+    }
+
+    // Joins the caller's transaction, so rollups and records commit or roll back together.
+    // Records are summed per bucket first and the upserts go out as one batch in key order,
+    // so two orders touching the same products always lock their rollup rows in the same order.
+    @Transactional
+    public void record(Collection<CarbonFootprint> footprints) {
+        Map<Key, Totals> buckets = new TreeMap<>(KEY_ORDER);
+        for (CarbonFootprint footprint : footprints) {
+            // Same rows as SELECT_RECORDS, so a rebuild gives back exactly what was recorded
+            if (footprint.getProductId() == null || footprint.getCalculationDate() == null || footprint.getCarbonFootprint() == null) {
+                continue;
+            }
+            LocalDate day = dayOf(footprint.getCalculationDate());
+            double value = footprint.getCarbonFootprint();
+            buckets.computeIfAbsent(new Key(footprint.getProductId(), DAY, day), key -> new Totals()).add(1, value, value, value);
+            buckets.computeIfAbsent(new Key(footprint.getProductId(), MONTH, day.withDayOfMonth(1)), key -> new Totals()).add(1, value, value, value);
+        }
+        write(buckets);
+    }
+
+    // Points for [from, to]; either end may be null (default: the last AUTO_DAILY_LIMIT days).
+    // granularity is "day", "month" or "auto" (the coarsest that still gives a useful chart).
+    public CarbonSeriesDTO getSeries(Long productId, LocalDate from, LocalDate to, String granularity) {
+        LocalDate end = to != null ? to : LocalDate.now(zone);
+        LocalDate start = from != null ? from : end.minusDays(AUTO_DAILY_LIMIT - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+
+        String level = granularity == null ? AUTO : granularity.toUpperCase(Locale.ROOT);
+        if (AUTO.equals(level)) {
+            level = ChronoUnit.DAYS.between(start, end) + 1 <= AUTO_DAILY_LIMIT ? DAY : MONTH;
+        } else if (!DAY.equals(level) && !MONTH.equals(level)) {
+            throw new IllegalArgumentException("granularity must be one of day, month, auto");
+        }
+
+        if (DAY.equals(level)) {
+            start = later(start, end.minusDays(MAX_POINTS - 1));
+        } else {
+            start = later(start.withDayOfMonth(1), end.withDayOfMonth(1).minusMonths(MAX_POINTS - 1));
+        }
+        return new CarbonSeriesDTO(productId, level, start, end, carbonRollupRepository.findSeries(productId, level, start, end));
+    }
+
+    // Rollups only follow records saved since they existed, so on the first start with records but
+    // no rollup rows they are built from the raw records (as POST /admin/carbon-rollups/rebuild would)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        if (carbonRollupRepository.count() > 0 || carbonFootprintRepository.count() == 0) {
+            return;
+        }
+        logger.info("Carbon rollups are empty; building them from the footprint records");
+        rebuild(null);
+    }
+
+    // Recomputes rollups from the raw records, for one product or (productId == null) all of them.
+    // Records are read one by one and bucketed here with dayOf, exactly as record() buckets them.
+    // Records saved while this runs can be missed, so run it when checkout is quiet.
+    @Transactional
+    public int rebuild(Long productId) {
+        Map<Key, Totals> buckets = new TreeMap<>(KEY_ORDER);
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(productId == null ? SELECT_RECORDS : SELECT_RECORDS + " AND product_id = ?");
+            statement.setFetchSize(1000);
+            if (productId != null) {
+                statement.setLong(1, productId);
+            }
+            return statement;
+        }, rs -> {
+            Long product = rs.getLong(1);
+            LocalDate day = dayOf(rs.getTimestamp(2));
+            double value = rs.getDouble(3);
+            buckets.computeIfAbsent(new Key(product, DAY, day), key -> new Totals()).add(1, value, value, value);
+            buckets.computeIfAbsent(new Key(product, MONTH, day.withDayOfMonth(1)), key -> new Totals()).add(1, value, value, value);
+        }));
+
+        if (productId == null) {
+            carbonRollupRepository.deleteAllInBatch();
+        } else {
+            carbonRollupRepository.deleteByProductId(productId);
+        }
+        write(buckets);
+
+        long products = buckets.keySet().stream().map(Key::productId).distinct().count();
+        logger.info("Rebuilt carbon rollups for {} product(s), {} bucket(s)", products, buckets.size());
+        return (int) products;
+    }
+
+    private LocalDate dayOf(Date date) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(zone).toLocalDate();
+    }
+
+    private void write(Map<Key, Totals> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((key, totals) -> rows.add(new Object[] {
+                key.productId(), key.granularity(), key.bucket(), totals.count, totals.total, totals.min, totals.max }));
+        jdbcTemplate.batchUpdate(UPSERT, rows);
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    private record Key(Long productId, String granularity, LocalDate bucket) {
+    }
+
+    private static class Totals {
+        private long count;
+        private double total;
+        private double min = Double.MAX_VALUE;
+        private double max = -Double.MAX_VALUE;
+
+        void add(long count, double total, double min, double max) {
+            this.count += count;
+            this.total += total;
+            this.min = Math.min(this.min, min);
+            this.max = Math.max(this.max, max);
+        }
+    }
+}
@@ -1,41 +1,150 @@
 package com.ecobazaar.backend.service;
 
+import com.ecobazaar.backend.dto.CarbonHistoryPageDTO;
 import com.ecobazaar.backend.model.CarbonFootprint;
 import com.ecobazaar.backend.repository.CarbonFootprintRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.w3c.dom.Document;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class CarbonService {
 
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 100;
+    private static final int MAX_HISTORY_PAGE_SIZE = 1000;
+    private static final int NDJSON_FLUSH_ROWS = 500;
+
+    // Bounds for "no date filter", inside what a DATETIME column can hold
+    private static final Date EARLIEST = Date.from(LocalDate.of(1000, 1, 1).atStartOfDay(ZoneId.systemDefault()).toInstant());
+    private static final Date LATEST = Date.from(LocalDate.of(9999, 12, 31).atStartOfDay(ZoneId.systemDefault()).toInstant());
+
     @Autowired
     private CarbonFootprintRepository carbonFootprintRepository;
 
+    @Autowired
+    private CarbonReportRenderer carbonReportRenderer;
+
+    @Autowired
+    private CarbonRollupService carbonRollupService;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Transactional
     public CarbonFootprint saveCarbonFootprint(CarbonFootprint carbonFootprint) {
-        return carbonFootprintRepository.save(carbonFootprint);
+        // Undated records are taken as of now, so they land in a chart bucket and a rollup rebuild keeps them
+        if (carbonFootprint.getCalculationDate() == null) {
+            carbonFootprint.setCalculationDate(new Date());
+        }
+        CarbonFootprint saved = carbonFootprintRepository.save(carbonFootprint);
+        carbonRollupService.record(List.of(saved));
+        return saved;
     }
 
     public List<CarbonFootprint> getCarbonFootprintHistoryForProduct(Long productId) {
         return carbonFootprintRepository.findByProductId(productId);
     }
 
-    public List<CarbonFootprint> getCarbonFootprintHistoryForUser(Long userId) {
-        return carbonFootprintRepository.findByUserId(userId);
+    // One page of a product's (userId == null) or a user's (productId == null) records, newest first,
+    // optionally limited to the days [from, to]. Records without a date come after all dated ones.
+    @Transactional(readOnly = true)
+    public CarbonHistoryPageDTO getHistoryPage(Long productId, Long userId, LocalDate from, LocalDate to, String cursor, Integer size) {
+        int pageSize = (size == null || size <= 0) ? DEFAULT_HISTORY_PAGE_SIZE : Math.min(size, MAX_HISTORY_PAGE_SIZE);
+        boolean ranged = from != null || to != null;
+        Date start = from != null ? startOfDay(from) : EARLIEST;
+        Date end = to != null ? startOfDay(to.plusDays(1)) : LATEST;
+
+        // "d:<millis>:<id>" continues among dated records, "n:<id>" among undated ones
+        boolean undated = false;
+        Date beforeDate = LATEST;
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length == 3 && parts[0].equals("d")) {
+                beforeDate = new Date(Long.parseLong(parts[1]));
+                beforeId = Long.parseLong(parts[2]);
+            } else if (parts.length == 2 && parts[0].equals("n")) {
+                undated = true;
+                beforeId = Long.parseLong(parts[1]);
+            } else {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        // One row more than the page tells whether another page follows
+        List<CarbonFootprint> items = new ArrayList<>(pageSize + 1);
+        if (!undated) {
+            items.addAll(carbonFootprintRepository.findDatedPage(productId, userId, start, end, beforeDate, beforeId, Limit.of(pageSize + 1)));
+        }
+        if (items.size() <= pageSize && !ranged) {
+            items.addAll(carbonFootprintRepository.findUndatedPage(productId, userId, undated ? beforeId : Long.MAX_VALUE,
+                    Limit.of(pageSize + 1 - items.size())));
+        }
+
+        boolean hasMore = items.size() > pageSize;
+        String nextCursor = null;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+            CarbonFootprint last = items.get(pageSize - 1);
+            String raw = last.getCalculationDate() != null
+                    ? "d:" + last.getCalculationDate().getTime() + ":" + last.getId()
+                    : "n:" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        return new CarbonHistoryPageDTO(items, nextCursor, hasMore);
     }
 
-    public String generateCarbonFootprintReport(Long productId) {
-        List<CarbonFootprint> history = getCarbonFootprintHistoryForProduct(productId);
-        StringBuilder html = new StringBuilder();
-        html.append("<html><body>");
-        html.append("<h1>Carbon Footprint Report for Product ").append(productId).append("</h1>");
-        html.append("<table border='1'><tr><th>Date</th><th>Carbon Footprint (kg)</th></tr>");
-        for (CarbonFootprint record : history) {
-            html.append("<tr><td>").append(record.getCalculationDate()).append("</td><td>").append(record.getCarbonFootprint()).append("</td></tr>");
+    // The same records as NDJSON, one per line, written as they come off a database cursor, so
+    // memory stays flat and the first lines go out before the last rows are read
+    @Transactional(readOnly = true)
+    public void writeHistory(Long productId, Long userId, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Date start = from != null ? startOfDay(from) : null;
+        Date end = to != null ? startOfDay(to.plusDays(1)) : null;
+        ObjectWriter writer = jsonMapper.writerFor(CarbonFootprint.class);
+        OutputStream buffered = new BufferedOutputStream(out, 16 * 1024);
+
+        try (Stream<CarbonFootprint> rows = carbonFootprintRepository.streamHistory(productId, userId, start, end)) {
+            Iterator<CarbonFootprint> iterator = rows.iterator();
+            int written = 0;
+            while (iterator.hasNext()) {
+                buffered.write(writer.writeValueAsBytes(iterator.next()));
+                buffered.write('\n');
+                // The first line goes out at once; after that, whenever enough has piled up
+                if (++written == 1 || written % NDJSON_FLUSH_ROWS == 0) {
+                    buffered.flush();
+                }
+            }
         }
-        html.append("</table>");
-        html.append("</body></html>");
-        return html.toString();
+        buffered.flush();
+    }
+
+    private static Date startOfDay(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    // The report as a filled-in copy of the precompiled template (see CarbonReportRenderer)
+    public Document generateCarbonFootprintReport(Long productId) {
+        return carbonReportRenderer.buildDocument(productId, getCarbonFootprintHistoryForProduct(productId));
+    }
+
+    public void writeCarbonFootprintReport(Long productId, OutputStream out) throws IOException {
+        carbonReportRenderer.render(generateCarbonFootprintReport(productId), out);
     }
 }
@@ -0,0 +1,62 @@
+package com.ecobazaar.backend.service;
+
+import java.util.Map;
+
+import com.ecobazaar.backend.dto.CartChangeDTO;
+import com.ecobazaar.backend.model.Cart;
+import com.ecobazaar.backend.model.CartItem;
+
+// Where carts live, chosen with cart.store: "memory" (default, MemoryCartStore) or "database"
+// (DatabaseCartStore). Mutations report only the lines they touched plus the new totals.
+public interface CartStore {
+
+    Cart getCart(String email);
+
+    // Adds the item, or raises its quantity if the product is already in the cart
+    CartChangeDTO addItem(String email, CartItem item);
+
+    // Sets a line's quantity; zero or less removes it. Throws NotInCartException if the product is not in the cart.
+    CartChangeDTO setQuantity(String email, Long productId, int quantity);
+
+    CartChangeDTO removeItem(String email, Long productId);
+
+    // Replaces one product with another, keeping the quantity unless the new item sets its own
+    CartChangeDTO swapItem(String email, Long oldProductId, CartItem newItem);
+
+    // Several swaps (old product id -> new item) applied together or not at all. Throws
+    // NotInCartException, changing nothing, if any old product is not in the cart.
+    CartChangeDTO swapItems(String email, Map<Long, CartItem> swaps);
+
+    void clear(String email);
+
+    class NotInCartException extends RuntimeException {
+        public NotInCartException(Long productId) {
+            super("Product " + productId + " is not in the cart");
+        }
+    }
+
+    // Lines are written as they come from the client, so anything the cart_items columns can't hold
+    // is refused up front rather than failing a later write
+    static void checkLine(CartItem item) {
+        if (item.getProductId() == null) {
+            throw new IllegalArgumentException("productId is required");
+        }
+        checkText("productName", item.getProductName());
+        checkText("imageUrl", item.getImageUrl());
+        checkText("category", item.getCategory());
+        checkAmount("price", item.getPrice());
+        checkAmount("co2Emission", item.getCo2Emission());
+    }
+
+    private static void checkText(String field, String value) {
+        if (value != null && value.length() > 255) {
+            throw new IllegalArgumentException(field + " must be at most 255 characters");
+        }
+    }
+
+    private static void checkAmount(String field, Double value) {
+        if (value != null && (!Double.isFinite(value) || value < 0)) {
+            throw new IllegalArgumentException(field + " must be a non-negative number");
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.ecobazaar.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecobazaar.backend.model.CarbonFootprint;
+import com.ecobazaar.backend.repository.CarbonFootprintRepository;
+import com.ecobazaar.backend.repository.OrderItemRepository;
+import com.ecobazaar.backend.repository.OrderRepository;
+
+// Admin CSV exports. Orders, order items and carbon footprints are read through forward-only
+// database cursors (fetch size 500) as plain rows, never entities, and written out as they
+// arrive, so an export holds one fetch window and one write buffer whatever its size. Date
+// ranges are whole days, to inclusive.
+@Service
+public class CsvExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvExportService.class);
+
+    public static final String ORDERS = "orders";
+    public static final String ORDER_ITEMS = "order-items";
+    public static final String PRODUCTS = "products";
+    public static final String CARBON_FOOTPRINTS = "carbon-footprints";
+    public static final List<String> TYPES = List.of(ORDERS, ORDER_ITEMS, PRODUCTS, CARBON_FOOTPRINTS);
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private CarbonFootprintRepository carbonFootprintRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Transactional(readOnly = true)
+    public void writeOrders(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        CsvWriter csv = start(out, "id", "orderDate", "userEmail", "status", "totalAmount", "totalCo2Saved", "shippingAddress");
+        try (Stream<Object[]> rows = orderRepository.streamExportRows(startOf(from), endOf(to))) {
+            finish(ORDERS, csv, rows.iterator());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeOrderItems(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        CsvWriter csv = start(out, "orderId", "orderDate", "userEmail", "id", "productId", "productName", "price",
+                "co2Emission", "isEcoFriendly");
+        try (Stream<Object[]> rows = orderItemRepository.streamExportRows(startOf(from), endOf(to))) {
+            finish(ORDER_ITEMS, csv, rows.iterator());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void writeCarbonFootprints(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        CsvWriter csv = start(out, "id", "productId", "userId", "carbonFootprint", "calculationDate");
+        Date start = from != null ? toDate(startOf(from)) : null;
+        Date end = to != null ? toDate(endOf(to)) : null;
+        try (Stream<CarbonFootprint> rows = carbonFootprintRepository.streamHistory(null, null, start, end)) {
+            finish(CARBON_FOOTPRINTS, csv, rows
+                    .map(f -> new Object[] { f.getId(), f.getProductId(), f.getUserId(), f.getCarbonFootprint(), f.getCalculationDate() })
+                    .iterator());
+        }
+    }
+
+    // Products have no date to filter on. Columns match the bulk import, so an export can be edited
+    // and imported again (id, seller and status are ignored there, and the import drops the formula
+    // guard CsvWriter puts on text). Not @Transactional on purpose: forEachProduct reads keyset
+    // batches in their own short transactions, which it could not do inside one that keeps every
+    // product loaded so far.
+    public void writeProducts(OutputStream out) throws IOException {
+        CsvWriter csv = start(out, "id", "name", "description", "brand", "category", "price", "co2Emission",
+                "carbonSaving", "isEcoFriendly", "stockQuantity", "material", "certifications", "imageUrls",
+                "alternativeProductId", "sellerEmail", "verificationStatus");
+        long start = System.currentTimeMillis();
+        long[] rows = { 0 };
+        try {
+            productService.forEachProduct(p -> {
+                try {
+                    csv.writeRow(p.getId(), p.getName(), p.getDescription(), p.getBrand(), p.getCategory(), p.getPrice(),
+                            p.getCo2Emission(), p.getCarbonSaving(), p.isEcoFriendly(), p.getStockQuantity(), p.getMaterial(),
+                            p.getCertifications(), String.join("|", p.getImageUrls()), p.getAlternativeProductId(),
+                            p.getSellerEmail(), p.getVerificationStatus());
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        csv.flush();
+        logger.info("Exported {} {} rows in {} ms", rows[0], PRODUCTS, System.currentTimeMillis() - start);
+    }
+
+    // The header goes out at once, so the download starts before the first query returns
+    private CsvWriter start(OutputStream out, String... header) throws IOException {
+        CsvWriter csv = new CsvWriter(out);
+        csv.writeRow((Object[]) header);
+        csv.flush();
+        return csv;
+    }
+
+    private void finish(String type, CsvWriter csv, Iterator<Object[]> rows) throws IOException {
+        long start = System.currentTimeMillis();
+        long count = 0;
+        while (rows.hasNext()) {
+            csv.writeRow(rows.next());
+            count++;
+        }
+        csv.flush();
+        logger.info("Exported {} {} rows in {} ms", count, type, System.currentTimeMillis() - start);
+    }
+
+    private static LocalDateTime startOf(LocalDate day) {
+        return day != null ? day.atStartOfDay() : null;
+    }
+
+    private static LocalDateTime endOf(LocalDate day) {
+        return day != null ? day.plusDays(1).atStartOfDay() : null;
+    }
+
+    private static Date toDate(LocalDateTime time) {
+        return Date.from(time.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
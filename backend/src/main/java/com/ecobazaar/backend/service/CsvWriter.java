@@ -0,0 +1,106 @@
+package com.ecobazaar.backend.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+// Writes RFC 4180 CSV (UTF-8, CRLF line ends) one row at a time through a fixed-size buffer, the
+// counterpart of CsvReader. Values are written so CsvReader and spreadsheets read them back alike:
+// numbers in plain notation, date-times as ISO 8601, and text that a spreadsheet would run as a
+// formula (=, +, -, @ first) prefixed with an apostrophe. unguard() takes that apostrophe off again
+// when the file is imported. Not thread-safe.
+public class CsvWriter {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    // First characters a spreadsheet treats as the start of a formula
+    private static final String FORMULA_START = "=+-@\t\r";
+
+    private final Writer writer;
+
+    public CsvWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    public void writeRow(Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeValue(values[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    // Pushes buffered rows to the underlying stream; does not close it
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Double d) {
+            writer.write(plain(d));
+        } else if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value.toString());
+        } else if (value instanceof LocalDateTime dateTime) {
+            writer.write(DATE_TIME.format(dateTime));
+        } else if (value instanceof Date date) {
+            writer.write(date.toInstant().toString());
+        } else {
+            writeText(value.toString());
+        }
+    }
+
+    // Double.toString switches to 1.0E-5 style below 0.001 and from 10^7, which some readers take for text
+    private static String plain(double d) {
+        String text = Double.toString(d);
+        return text.indexOf('E') < 0 ? text : new BigDecimal(text).stripTrailingZeros().toPlainString();
+    }
+
+    // Text as it was before the writer's formula guard. Only an apostrophe followed by a formula
+    // character or another apostrophe is taken off, so other text starting with one (e.g. "'90s") is kept.
+    public static String unguard(String text) {
+        if (text != null && text.length() > 1 && text.charAt(0) == '\'' && guarded(text.charAt(1))) {
+            return text.substring(1);
+        }
+        return text;
+    }
+
+    // Text that already starts with an apostrophe before such a character is guarded too, so
+    // unguard() gives back exactly what was written
+    private static boolean needsGuard(String text) {
+        return !text.isEmpty() && (FORMULA_START.indexOf(text.charAt(0)) >= 0
+                || text.length() > 1 && text.charAt(0) == '\'' && guarded(text.charAt(1)));
+    }
+
+    private static boolean guarded(char c) {
+        return c == '\'' || FORMULA_START.indexOf(c) >= 0;
+    }
+
+    private void writeText(String text) throws IOException {
+        if (needsGuard(text)) {
+            text = "'" + text;
+        }
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
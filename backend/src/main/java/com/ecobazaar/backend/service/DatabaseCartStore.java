@@ -0,0 +1,156 @@
+package com.ecobazaar.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecobazaar.backend.dto.CartChangeDTO;
+import com.ecobazaar.backend.model.Cart;
+import com.ecobazaar.backend.model.CartItem;
+import com.ecobazaar.backend.repository.CartItemRepository;
+import com.ecobazaar.backend.repository.CartRepository;
+
+// Cart mutations as single-row statements keyed by (cart, productId). Nothing here loads the
+// whole cart, so a change costs the same for a 2-line and a 200-line cart, and two tabs
+// editing different lines no longer overwrite each other. Used with cart.store=database, e.g.
+// when several backend instances serve the same users.
+@Service
+@ConditionalOnProperty(name = "cart.store", havingValue = "database")
+public class DatabaseCartStore implements CartStore {
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Override
+    public Cart getCart(String email) {
+        return cartRepository.findByUserEmail(email)
+                .orElseGet(() -> cartRepository.save(Cart.builder().userEmail(email).build()));
+    }
+
+    @Override
+    @Transactional
+    public CartChangeDTO addItem(String email, CartItem item) {
+        Long cartId = cartIdFor(email);
+        upsert(cartId, item, quantityOf(item));
+        return change(cartId, line(cartId, item.getProductId()), List.of());
+    }
+
+    @Override
+    @Transactional
+    public CartChangeDTO setQuantity(String email, Long productId, int quantity) {
+        Long cartId = cartIdFor(email);
+        if (quantity <= 0) {
+            cartItemRepository.deleteLine(cartId, productId);
+            return change(cartId, null, List.of(productId));
+        }
+        if (cartItemRepository.setQuantity(cartId, productId, quantity) == 0) {
+            throw new NotInCartException(productId);
+        }
+        return change(cartId, line(cartId, productId), List.of());
+    }
+
+    @Override
+    @Transactional
+    public CartChangeDTO removeItem(String email, Long productId) {
+        Long cartId = cartIdFor(email);
+        cartItemRepository.deleteLine(cartId, productId);
+        return change(cartId, null, List.of(productId));
+    }
+
+    @Override
+    @Transactional
+    public CartChangeDTO swapItem(String email, Long oldProductId, CartItem newItem) {
+        Long cartId = cartIdFor(email);
+        int quantity = newItem.getQuantity() != null ? quantityOf(newItem) : 1;
+        if (newItem.getQuantity() == null) {
+            CartItem old = line(cartId, oldProductId);
+            if (old != null) {
+                quantity = quantityOf(old);
+            }
+        }
+        cartItemRepository.deleteLine(cartId, oldProductId);
+        upsert(cartId, newItem, quantity);
+        List<Long> removed = oldProductId.equals(newItem.getProductId()) ? List.of() : List.of(oldProductId);
+        return change(cartId, line(cartId, newItem.getProductId()), removed);
+    }
+
+    @Override
+    @Transactional
+    public CartChangeDTO swapItems(String email, Map<Long, CartItem> swaps) {
+        Long cartId = cartIdFor(email);
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (Map.Entry<Long, CartItem> swap : swaps.entrySet()) {
+            CartItem old = line(cartId, swap.getKey());
+            if (old == null) {
+                throw new NotInCartException(swap.getKey());
+            }
+            CartItem newItem = swap.getValue();
+            quantities.put(swap.getKey(), newItem.getQuantity() != null ? quantityOf(newItem) : quantityOf(old));
+        }
+        // Every old line goes before any new one is written, so chained swaps (A -> B, B -> C) work
+        for (Long oldProductId : swaps.keySet()) {
+            cartItemRepository.deleteLine(cartId, oldProductId);
+        }
+        Set<Long> added = new LinkedHashSet<>();
+        for (Map.Entry<Long, CartItem> swap : swaps.entrySet()) {
+            upsert(cartId, swap.getValue(), quantities.get(swap.getKey()));
+            added.add(swap.getValue().getProductId());
+        }
+
+        List<CartItem> changed = new ArrayList<>();
+        for (Long productId : added) {
+            changed.add(line(cartId, productId));
+        }
+        List<Long> removed = swaps.keySet().stream().filter(id -> !added.contains(id)).toList();
+        return new CartChangeDTO(changed, removed, cartItemRepository.getTotals(cartId));
+    }
+
+    @Override
+    @Transactional
+    public void clear(String email) {
+        cartRepository.findIdByUserEmail(email).ifPresent(cartItemRepository::deleteByCartId);
+    }
+
+    private Long cartIdFor(String email) {
+        return cartRepository.findIdByUserEmail(email)
+                .orElseGet(() -> cartRepository.save(Cart.builder().userEmail(email).build()).getId());
+    }
+
+    private void upsert(Long cartId, CartItem item, int quantity) {
+        CartStore.checkLine(item);
+        cartItemRepository.addQuantity(cartId, item.getProductId(), item.getProductName(), item.getPrice(),
+                item.getCo2Emission(), item.getImageUrl(), item.getIsEcoFriendly(), item.getCategory(), quantity);
+    }
+
+    // The line for a product, if the cart has one. The (cart, product) key allows only one.
+    private CartItem line(Long cartId, Long productId) {
+        CartItem line = cartItemRepository.findByCartIdAndProductId(cartId, productId).orElse(null);
+        if (line != null && line.getQuantity() == null) {
+            line.setQuantity(1);
+        }
+        return line;
+    }
+
+    private CartChangeDTO change(Long cartId, CartItem line, List<Long> removed) {
+        List<CartItem> changed = new ArrayList<>();
+        if (line != null) {
+            changed.add(line);
+        }
+        return new CartChangeDTO(changed, removed, cartItemRepository.getTotals(cartId));
+    }
+
+    private static int quantityOf(CartItem item) {
+        return item.getQuantity() != null && item.getQuantity() > 0 ? item.getQuantity() : 1;
+    }
+}
@@ -0,0 +1,133 @@
+package com.ecobazaar.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.ecobazaar.backend.dto.CartAlternativesDTO;
+import com.ecobazaar.backend.dto.CartChangeDTO;
+import com.ecobazaar.backend.dto.CartLineAlternativesDTO;
+import com.ecobazaar.backend.dto.CartLineRequestDTO;
+import com.ecobazaar.backend.dto.SwapRequestDTO;
+import com.ecobazaar.backend.dto.SwapSuggestionDTO;
+import com.ecobazaar.backend.model.CartItem;
+import com.ecobazaar.backend.model.Product;
+
+// Whole-cart eco swaps: suggestions for every line in one call, and several swaps applied at once
+@Service
+public class GreenSwapService {
+
+    // Most lines one request may ask about or swap
+    public static final int MAX_LINES = 100;
+
+    @Autowired
+    private GreenerAlternativesIndex alternativesIndex;
+
+    @Autowired
+    private CartStore cartStore;
+
+    // productId -> quantity for each cart line; lines the catalog no longer has are left out
+    public CartAlternativesDTO suggest(Map<Long, Integer> quantities, int limit) {
+        if (limit < 1 || limit > GreenerAlternativesIndex.MAX_SUGGESTIONS) {
+            throw new IllegalArgumentException("limit must be between 1 and " + GreenerAlternativesIndex.MAX_SUGGESTIONS);
+        }
+        List<CartLineAlternativesDTO> lines = new ArrayList<>();
+        double maxCo2Saved = 0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = alternativesIndex.get(entry.getKey());
+            if (product == null) {
+                continue;
+            }
+            int quantity = entry.getValue();
+            List<SwapSuggestionDTO> suggestions = new ArrayList<>();
+            for (Product alternative : alternativesIndex.greenerThan(product.getId(), limit)) {
+                double savedPerUnit = product.getCo2Emission() - alternative.getCo2Emission();
+                Double priceDelta = alternative.getPrice() != null && product.getPrice() != null
+                        ? alternative.getPrice() - product.getPrice() : null;
+                suggestions.add(new SwapSuggestionDTO(alternative.getId(), alternative.getName(), alternative.getCategory(),
+                        alternative.getPrice(), alternative.getCo2Emission(), firstImage(alternative),
+                        savedPerUnit, savedPerUnit * quantity, priceDelta,
+                        alternative.getId().equals(product.getAlternativeProductId())));
+            }
+            lines.add(new CartLineAlternativesDTO(product.getId(), product.getName(), quantity, product.getCo2Emission(), suggestions));
+            maxCo2Saved += bestSaving(suggestions);
+        }
+        lines.sort(Comparator.comparingDouble((CartLineAlternativesDTO line) -> bestSaving(line.getSuggestions())).reversed()
+                .thenComparing(CartLineAlternativesDTO::getProductId));
+        return new CartAlternativesDTO(lines, maxCo2Saved);
+    }
+
+    // productId -> units, from lines that may repeat a product; lines with quantity 0 are left out
+    public static Map<Long, Integer> quantitiesOf(List<CartLineRequestDTO> lines) {
+        checkSize(lines, "items");
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (CartLineRequestDTO line : lines) {
+            if (line == null || line.getId() == null) {
+                throw new IllegalArgumentException("Each item needs an id");
+            }
+            int quantity = line.getQuantity() != null ? line.getQuantity() : 1;
+            if (quantity < 0) {
+                throw new IllegalArgumentException("quantity can't be negative");
+            }
+            if (quantity > 0) {
+                quantities.merge(line.getId(), quantity, Integer::sum);
+            }
+        }
+        return quantities;
+    }
+
+    // All or nothing; a swap without a quantity keeps the old line's
+    public CartChangeDTO applySwaps(String email, List<SwapRequestDTO> swaps) {
+        checkSize(swaps, "swaps");
+        Map<Long, CartItem> byOldProduct = new LinkedHashMap<>();
+        for (SwapRequestDTO swap : swaps) {
+            if (swap == null || swap.getOldProductId() == null || swap.getNewProductId() == null) {
+                throw new IllegalArgumentException("Each swap needs oldProductId and newProductId");
+            }
+            if (swap.getQuantity() != null && swap.getQuantity() < 1) {
+                throw new IllegalArgumentException("quantity must be at least 1");
+            }
+            Product product = alternativesIndex.get(swap.getNewProductId());
+            if (product == null || !GreenerAlternativesIndex.APPROVED.equals(product.getVerificationStatus())) {
+                throw new IllegalArgumentException("Product " + swap.getNewProductId() + " is not available");
+            }
+            CartItem item = CartItem.builder()
+                    .productId(product.getId())
+                    .productName(product.getName())
+                    .price(product.getPrice())
+                    .co2Emission(product.getCo2Emission())
+                    .imageUrl(firstImage(product))
+                    .isEcoFriendly(product.isEcoFriendly())
+                    .category(product.getCategory())
+                    .quantity(swap.getQuantity())
+                    .build();
+            if (byOldProduct.put(swap.getOldProductId(), item) != null) {
+                throw new IllegalArgumentException("Product " + swap.getOldProductId() + " is swapped more than once");
+            }
+        }
+        return cartStore.swapItems(email, byOldProduct);
+    }
+
+    private static void checkSize(List<?> lines, String field) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        if (lines.size() > MAX_LINES) {
+            throw new IllegalArgumentException("At most " + MAX_LINES + " " + field + " per request");
+        }
+    }
+
+    private static double bestSaving(List<SwapSuggestionDTO> suggestions) {
+        return suggestions.stream().mapToDouble(SwapSuggestionDTO::getCo2Saved).max().orElse(0);
+    }
+
+    private static String firstImage(Product product) {
+        return product.getImageUrls() != null && !product.getImageUrls().isEmpty() ? product.getImageUrls().get(0) : null;
+    }
+}
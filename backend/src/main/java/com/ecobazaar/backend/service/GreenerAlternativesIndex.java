@@ -0,0 +1,254 @@
+package com.ecobazaar.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ecobazaar.backend.event.ProductChangedEvent;
+import com.ecobazaar.backend.model.Product;
+
+// Greener swaps for every product, kept in memory from ProductChangedEvents. Each category keeps
+// its APPROVED products sorted by CO2, re-sorted on the first read after one of them changes (so a
+// bulk import sorts each category once, not once per product), and the greener candidates for a
+// product are the head of its category's list. A product's own
+// alternativeProductId, when it points at an approved and greener product, always ranks first.
+@Component
+public class GreenerAlternativesIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(GreenerAlternativesIndex.class);
+
+    public static final String APPROVED = "APPROVED";
+    public static final int MAX_SUGGESTIONS = 10;
+
+    @Autowired
+    private ProductService productService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Graph graph = new Graph();
+    private List<ProductChangedEvent> pendingChanges = null;
+    private Map<Long, Integer> pendingStock = null;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+            pendingStock = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Graph fresh = new Graph();
+        long start = System.currentTimeMillis();
+        try {
+            productService.forEachProduct(fresh::upsert);
+            fresh.refresh();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+                pendingStock = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            graph = fresh;
+            for (ProductChangedEvent change : pendingChanges) {
+                graph.apply(change);
+            }
+            graph.applyStock(pendingStock);
+            graph.refresh();
+            pendingChanges = null;
+            pendingStock = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Alternatives index built: {} products, {} categories in {} ms",
+                fresh.byId.size(), fresh.greenest.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            graph.apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Stock doesn't affect the ranking, so only the stored products change (see StockLevelListener)
+    public void applyStock(Map<Long, Integer> levels) {
+        lock.writeLock().lock();
+        try {
+            if (pendingStock != null) {
+                pendingStock.putAll(levels);
+            }
+            graph.applyStock(levels);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A copy of the catalog's current product, or null if it is unknown or deleted
+    public Product get(Long productId) {
+        lock.readLock().lock();
+        try {
+            Product product = graph.byId.get(productId);
+            return product != null ? product.copy() : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Up to `limit` approved products with lower CO2 than the given one, best swap first
+    public List<Product> greenerThan(Long productId, int limit) {
+        int max = Math.min(Math.max(limit, 0), MAX_SUGGESTIONS);
+        refreshIfStale();
+        lock.readLock().lock();
+        try {
+            Product product = graph.byId.get(productId);
+            List<Product> result = new ArrayList<>(max);
+            if (product == null || product.getCo2Emission() == null || max == 0) {
+                return result;
+            }
+            double co2 = product.getCo2Emission();
+
+            Product linked = product.getAlternativeProductId() != null ? graph.byId.get(product.getAlternativeProductId()) : null;
+            if (linked != null && isCandidate(linked) && !linked.getId().equals(productId) && linked.getCo2Emission() < co2) {
+                result.add(linked.copy());
+            }
+            for (Product candidate : graph.greenest.getOrDefault(product.getCategory(), List.of())) {
+                if (result.size() >= max || candidate.getCo2Emission() >= co2) {
+                    break;
+                }
+                if (!candidate.getId().equals(productId) && (linked == null || !candidate.getId().equals(linked.getId()))) {
+                    result.add(candidate.copy());
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Sorts the categories changed since the last read; a read lock cannot be upgraded, so this
+    // checks under the write lock and the caller reads afterwards
+    private void refreshIfStale() {
+        lock.readLock().lock();
+        try {
+            if (graph.staleCategories.isEmpty()) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        lock.writeLock().lock();
+        try {
+            graph.refresh();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean isCandidate(Product product) {
+        return APPROVED.equals(product.getVerificationStatus()) && product.getCo2Emission() != null;
+    }
+
+    // All state lives here so a rebuild can fill a fresh copy and swap it in at once
+    private static class Graph {
+        private static final Comparator<Product> GREENEST_FIRST = Comparator
+                .comparingDouble(Product::getCo2Emission)
+                .thenComparingDouble(p -> p.getPrice() != null ? p.getPrice() : Double.MAX_VALUE)
+                .thenComparingLong(Product::getId);
+
+        private final Map<Long, Product> byId = new HashMap<>();
+        private final Map<String, Set<Long>> members = new HashMap<>();
+        // category -> its approved products, lowest CO2 first
+        private final Map<String, List<Product>> greenest = new HashMap<>();
+        private final Set<String> staleCategories = new HashSet<>();
+
+        void apply(ProductChangedEvent event) {
+            if (event.isDeleted()) {
+                remove(event.getProductId());
+            } else {
+                upsert(event.getProduct().copy());
+            }
+        }
+
+        void upsert(Product product) {
+            remove(product.getId());
+            byId.put(product.getId(), product);
+            if (product.getCategory() != null) {
+                members.computeIfAbsent(product.getCategory(), key -> new HashSet<>()).add(product.getId());
+                staleCategories.add(product.getCategory());
+            }
+        }
+
+        void applyStock(Map<Long, Integer> levels) {
+            for (Map.Entry<Long, Integer> level : levels.entrySet()) {
+                Product product = byId.get(level.getKey());
+                if (product != null) {
+                    product.setStockQuantity(level.getValue());
+                }
+            }
+        }
+
+        void remove(Long productId) {
+            Product old = byId.remove(productId);
+            if (old != null && old.getCategory() != null) {
+                Set<Long> ids = members.get(old.getCategory());
+                if (ids != null) {
+                    ids.remove(productId);
+                }
+                staleCategories.add(old.getCategory());
+            }
+        }
+
+        // Re-sorts only the categories touched since the last refresh
+        void refresh() {
+            for (String category : staleCategories) {
+                Set<Long> ids = members.get(category);
+                List<Product> sorted = new ArrayList<>();
+                if (ids != null) {
+                    for (Long id : ids) {
+                        Product product = byId.get(id);
+                        if (isCandidate(product)) {
+                            sorted.add(product);
+                        }
+                    }
+                }
+                if (sorted.isEmpty()) {
+                    greenest.remove(category);
+                    if (ids != null && ids.isEmpty()) {
+                        members.remove(category);
+                    }
+                } else {
+                    sorted.sort(GREENEST_FIRST);
+                    greenest.put(category, sorted);
+                }
+            }
+            staleCategories.clear();
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package com.ecobazaar.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecobazaar.backend.dto.CartChangeDTO;
+import com.ecobazaar.backend.dto.CartTotalsDTO;
+import com.ecobazaar.backend.model.Cart;
+import com.ecobazaar.backend.model.CartItem;
+import com.ecobazaar.backend.repository.CartItemRepository;
+import com.ecobazaar.backend.repository.CartRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Carts served from memory, split into lock-striped shards by email, and written behind to the
+// carts/cart_items tables. Each cart remembers which lines changed since the last flush, so however
+// many clicks a user makes in one interval their cart costs one batched round of writes. A cart not
+// in memory (first use, or after a restart) is loaded from those tables on first access.
+// Only safe while a single backend instance serves carts; otherwise use cart.store=database.
+@Service
+@ConditionalOnProperty(name = "cart.store", havingValue = "memory", matchIfMissing = true)
+public class MemoryCartStore implements CartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemoryCartStore.class);
+
+    private static final String INSERT_CART = "INSERT INTO carts (user_email) VALUES (?) ON DUPLICATE KEY UPDATE user_email = user_email";
+    private static final String DELETE_CART_LINES = "DELETE FROM cart_items WHERE cart_id = ?";
+    private static final String DELETE_LINE = "DELETE FROM cart_items WHERE cart_id = ? AND product_id = ?";
+    private static final String UPSERT_LINE =
+            "INSERT INTO cart_items (cart_id, product_id, product_name, price, co2_emission_kg, image_url, is_eco_friendly, category, quantity) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE product_name = VALUES(product_name), price = VALUES(price), " +
+            "co2_emission_kg = VALUES(co2_emission_kg), image_url = VALUES(image_url), " +
+            "is_eco_friendly = VALUES(is_eco_friendly), category = VALUES(category), quantity = VALUES(quantity)";
+
+    @Value("${cart.store.flush-batch-size:200}")
+    private int flushBatchSize;
+
+    @Value("${cart.store.idle-ttl:PT30M}")
+    private Duration idleTtl;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Shard[] shards;
+    private final TransactionTemplate transactionTemplate;
+    private final Object flushLock = new Object();
+
+    public MemoryCartStore(@Value("${cart.store.shards:64}") int shardCount, PlatformTransactionManager transactionManager) {
+        // Power of two, so a shard is picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, shardCount - 1)) << 1;
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard();
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Cart getCart(String email) {
+        return withCart(email, false, cart -> {
+            List<CartItem> items = new ArrayList<>();
+            for (CartItem line : cart.lines.values()) {
+                items.add(copy(line));
+            }
+            return Cart.builder().id(cart.cartId).userEmail(email).items(items).build();
+        });
+    }
+
+    @Override
+    public CartChangeDTO addItem(String email, CartItem item) {
+        CartStore.checkLine(item);
+        return withCart(email, true, cart -> {
+            CartItem line = addLine(cart, item, quantityOf(item));
+            return change(cart, line, List.of());
+        });
+    }
+
+    @Override
+    public CartChangeDTO setQuantity(String email, Long productId, int quantity) {
+        return withCart(email, true, cart -> {
+            if (quantity <= 0) {
+                cart.remove(productId);
+                return change(cart, null, List.of(productId));
+            }
+            CartItem line = cart.lines.get(productId);
+            if (line == null) {
+                throw new NotInCartException(productId);
+            }
+            line.setQuantity(quantity);
+            cart.put(line);
+            return change(cart, line, List.of());
+        });
+    }
+
+    @Override
+    public CartChangeDTO removeItem(String email, Long productId) {
+        return withCart(email, true, cart -> {
+            cart.remove(productId);
+            return change(cart, null, List.of(productId));
+        });
+    }
+
+    @Override
+    public CartChangeDTO swapItem(String email, Long oldProductId, CartItem newItem) {
+        CartStore.checkLine(newItem);
+        return withCart(email, true, cart -> {
+            CartItem old = cart.lines.get(oldProductId);
+            int quantity = newItem.getQuantity() != null ? quantityOf(newItem) : old != null ? old.getQuantity() : 1;
+            cart.remove(oldProductId);
+            CartItem line = addLine(cart, newItem, quantity);
+            List<Long> removed = oldProductId.equals(newItem.getProductId()) ? List.of() : List.of(oldProductId);
+            return change(cart, line, removed);
+        });
+    }
+
+    @Override
+    public CartChangeDTO swapItems(String email, Map<Long, CartItem> swaps) {
+        swaps.values().forEach(CartStore::checkLine);
+        return withCart(email, true, cart -> {
+            // Checked before anything changes, so a bad swap leaves the cart untouched
+            Map<Long, Integer> quantities = new HashMap<>();
+            for (Map.Entry<Long, CartItem> swap : swaps.entrySet()) {
+                CartItem old = cart.lines.get(swap.getKey());
+                if (old == null) {
+                    throw new NotInCartException(swap.getKey());
+                }
+                CartItem newItem = swap.getValue();
+                quantities.put(swap.getKey(), newItem.getQuantity() != null ? quantityOf(newItem) : old.getQuantity());
+            }
+            // Every old line goes before any new one is added, so chained swaps (A -> B, B -> C) work
+            swaps.keySet().forEach(cart::remove);
+            Map<Long, CartItem> added = new LinkedHashMap<>();
+            for (Map.Entry<Long, CartItem> swap : swaps.entrySet()) {
+                CartItem line = addLine(cart, swap.getValue(), quantities.get(swap.getKey()));
+                added.put(line.getProductId(), line);
+            }
+            List<Long> removed = swaps.keySet().stream().filter(id -> !added.containsKey(id)).toList();
+            return changes(cart, new ArrayList<>(added.values()), removed);
+        });
+    }
+
+    @Override
+    public void clear(String email) {
+        withCart(email, true, cart -> {
+            cart.clear();
+            return null;
+        });
+    }
+
+    // Writes every dirty cart, then drops clean carts nobody has touched for idleTtl
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval:PT1S}")
+    public void flush() {
+        synchronized (flushLock) {
+            List<PendingCart> pending = new ArrayList<>();
+            for (Shard shard : shards) {
+                synchronized (shard) {
+                    for (String email : shard.dirty) {
+                        pending.add(shard.carts.get(email).takeChanges(email, shard));
+                    }
+                    shard.dirty.clear();
+                }
+            }
+            for (int from = 0; from < pending.size(); from += flushBatchSize) {
+                write(pending.subList(from, Math.min(from + flushBatchSize, pending.size())));
+            }
+            evictIdle();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // One transaction and a handful of JDBC batches for the whole group of carts. If the group fails,
+    // each cart is retried on its own so one bad cart can't hold back the others.
+    private void write(List<PendingCart> batch) {
+        Map<String, Long> createdIds = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Carts row for users who have never had one written
+                List<Object[]> newCarts = new ArrayList<>();
+                for (PendingCart cart : batch) {
+                    if (cart.cartId == null) {
+                        newCarts.add(new Object[] { cart.email });
+                    }
+                }
+                if (!newCarts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_CART, newCarts);
+                    List<String> emails = newCarts.stream().map(row -> (String) row[0]).toList();
+                    for (Object[] row : cartRepository.findIdsByUserEmails(emails)) {
+                        createdIds.put((String) row[1], (Long) row[0]);
+                    }
+                }
+
+                List<Object[]> clears = new ArrayList<>();
+                List<Object[]> deletes = new ArrayList<>();
+                List<Object[]> upserts = new ArrayList<>();
+                for (PendingCart cart : batch) {
+                    Long cartId = cart.cartId != null ? cart.cartId : createdIds.get(cart.email);
+                    if (cart.cleared) {
+                        clears.add(new Object[] { cartId });
+                    }
+                    for (Long productId : cart.removed) {
+                        deletes.add(new Object[] { cartId, productId });
+                    }
+                    for (CartItem line : cart.lines) {
+                        upserts.add(new Object[] { cartId, line.getProductId(), line.getProductName(), line.getPrice(),
+                                line.getCo2Emission(), line.getImageUrl(), line.getIsEcoFriendly(), line.getCategory(),
+                                line.getQuantity() });
+                    }
+                }
+                if (!clears.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_CART_LINES, clears);
+                }
+                if (!deletes.isEmpty()) {
+                    jdbcTemplate.batchUpdate(DELETE_LINE, deletes);
+                }
+                if (!upserts.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPSERT_LINE, upserts);
+                }
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() > 1) {
+                logger.warn("Could not write {} carts together, writing them one by one: {}", batch.size(), e.getMessage());
+                for (PendingCart cart : batch) {
+                    write(List.of(cart));
+                }
+                return;
+            }
+            PendingCart cart = batch.get(0);
+            logger.warn("Could not write the cart of {}, will retry: {}", cart.email, e.getMessage());
+            synchronized (cart.shard) {
+                cart.state.flushFailed();
+                cart.shard.dirty.add(cart.email);
+            }
+            return;
+        }
+        for (PendingCart cart : batch) {
+            synchronized (cart.shard) {
+                Long cartId = createdIds.get(cart.email);
+                if (cartId != null) {
+                    cart.state.cartId = cartId;
+                    cart.state.lines.values().forEach(line -> line.setCartId(cartId));
+                }
+                cart.state.flushing = false;
+            }
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTtl.toMillis();
+        int evicted = 0;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                Iterator<Map.Entry<String, MemCart>> it = shard.carts.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<String, MemCart> entry = it.next();
+                    MemCart cart = entry.getValue();
+                    if (cart.lastAccess < cutoff && !cart.flushing && !shard.dirty.contains(entry.getKey())) {
+                        it.remove();
+                        evicted++;
+                    }
+                }
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle cart(s)", evicted);
+        }
+    }
+
+    // Runs op on the user's cart under its shard's lock, loading the cart first if it isn't in memory
+    private <T> T withCart(String email, boolean mutates, Function<MemCart, T> op) {
+        Shard shard = shards[spread(email.hashCode()) & (shards.length - 1)];
+        synchronized (shard) {
+            MemCart cart = shard.carts.get(email);
+            if (cart != null) {
+                return apply(shard, email, cart, mutates, op);
+            }
+        }
+        // Read from the database without holding the lock, so one slow load doesn't stall the shard
+        MemCart loaded = load(email);
+        synchronized (shard) {
+            MemCart cart = shard.carts.putIfAbsent(email, loaded);
+            if (cart == null) {
+                cart = loaded;
+            }
+            return apply(shard, email, cart, mutates, op);
+        }
+    }
+
+    private <T> T apply(Shard shard, String email, MemCart cart, boolean mutates, Function<MemCart, T> op) {
+        cart.lastAccess = System.currentTimeMillis();
+        T result = op.apply(cart);
+        if (mutates) {
+            shard.dirty.add(email);
+        }
+        return result;
+    }
+
+    private MemCart load(String email) {
+        MemCart cart = new MemCart();
+        cart.cartId = cartRepository.findIdByUserEmail(email).orElse(null);
+        if (cart.cartId == null) {
+            return cart;
+        }
+        // One row per product: the (cart, product) key allows no more
+        for (CartItem row : cartItemRepository.findByCartId(cart.cartId)) {
+            row.setQuantity(quantityOf(row));
+            cart.lines.put(row.getProductId(), row);
+        }
+        return cart;
+    }
+
+    // Adds quantity units of the item, on top of any line the cart already has for that product
+    private static CartItem addLine(MemCart cart, CartItem item, int quantity) {
+        CartItem existing = cart.lines.get(item.getProductId());
+        CartItem line = copy(item);
+        line.setQuantity(quantity + (existing != null ? existing.getQuantity() : 0));
+        cart.put(line);
+        return line;
+    }
+
+    private static CartChangeDTO change(MemCart cart, CartItem line, List<Long> removed) {
+        return changes(cart, line != null ? List.of(line) : List.of(), removed);
+    }
+
+    private static CartChangeDTO changes(MemCart cart, List<CartItem> lines, List<Long> removed) {
+        List<CartItem> changed = new ArrayList<>();
+        for (CartItem line : lines) {
+            changed.add(copy(line));
+        }
+        long itemCount = 0;
+        double totalPrice = 0;
+        double totalCo2 = 0;
+        for (CartItem item : cart.lines.values()) {
+            int quantity = item.getQuantity();
+            itemCount += quantity;
+            totalPrice += (item.getPrice() != null ? item.getPrice() : 0.0) * quantity;
+            totalCo2 += (item.getCo2Emission() != null ? item.getCo2Emission() : 0.0) * quantity;
+        }
+        return new CartChangeDTO(changed, removed,
+                new CartTotalsDTO((long) cart.lines.size(), itemCount, totalPrice, totalCo2));
+    }
+
+    private static CartItem copy(CartItem item) {
+        return CartItem.builder()
+                .id(item.getId())
+                .cartId(item.getCartId())
+                .productId(item.getProductId())
+                .productName(item.getProductName())
+                .price(item.getPrice())
+                .co2Emission(item.getCo2Emission())
+                .imageUrl(item.getImageUrl())
+                .isEcoFriendly(item.getIsEcoFriendly())
+                .category(item.getCategory())
+                .quantity(item.getQuantity())
+                .build();
+    }
+
+    private static int quantityOf(CartItem item) {
+        return item.getQuantity() != null && item.getQuantity() > 0 ? item.getQuantity() : 1;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static class Shard {
+        private final Map<String, MemCart> carts = new HashMap<>();
+        private final Set<String> dirty = new LinkedHashSet<>();
+    }
+
+    // A cart plus what changed since it was last written. Guarded by its shard's lock.
+    private static class MemCart {
+        private Long cartId; // null until the carts row exists
+        private final Map<Long, CartItem> lines = new LinkedHashMap<>();
+        private final Set<Long> changed = new HashSet<>();
+        private final Set<Long> removed = new HashSet<>();
+        private boolean cleared; // every stored line must go before the changed ones are written
+        private boolean flushing;
+        private long lastAccess;
+
+        void put(CartItem line) {
+            line.setCartId(cartId);
+            lines.put(line.getProductId(), line);
+            changed.add(line.getProductId());
+            removed.remove(line.getProductId());
+        }
+
+        void remove(Long productId) {
+            // After a clear the stored row is deleted anyway
+            if (lines.remove(productId) != null && !cleared) {
+                removed.add(productId);
+            }
+            changed.remove(productId);
+        }
+
+        void clear() {
+            lines.clear();
+            changed.clear();
+            removed.clear();
+            cleared = true;
+        }
+
+        PendingCart takeChanges(String email, Shard shard) {
+            List<CartItem> toWrite = new ArrayList<>(changed.size());
+            for (Long productId : changed) {
+                toWrite.add(copy(lines.get(productId)));
+            }
+            PendingCart pending = new PendingCart(email, shard, this, cartId, cleared, new ArrayList<>(removed), toWrite);
+            changed.clear();
+            removed.clear();
+            cleared = false;
+            flushing = true;
+            return pending;
+        }
+
+        // The write was rolled back: rewrite the whole cart as it is now on the next flush
+        void flushFailed() {
+            flushing = false;
+            cleared = true;
+            removed.clear();
+            changed.addAll(lines.keySet());
+        }
+    }
+
+    private record PendingCart(String email, Shard shard, MemCart state, Long cartId, boolean cleared,
+                               List<Long> removed, List<CartItem> lines) {
+    }
+}
@@ -1,7 +1,9 @@
 package com.ecobazaar.backend.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -9,10 +11,12 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.ecobazaar.backend.event.OrderCreatedEvent;
 import com.ecobazaar.backend.model.CarbonFootprint;
 import com.ecobazaar.backend.model.Order;
 import com.ecobazaar.backend.model.OrderItem;
@@ -35,6 +39,15 @@ public class OrderService {
     @Autowired
     private CarbonFootprintRepository carbonFootprintRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private CarbonRollupService carbonRollupService;
+
     @Transactional
     public Order createOrder(Map<String, Object> orderRequest) {
         logger.info("Creating order with request: {}", orderRequest);
@@ -50,14 +63,8 @@ public class OrderService {
                                  orderRequest.get("shippingAddress").toString() : "No Address Provided";
 
         List<Map<String, Object>> cartItems = (List<Map<String, Object>>) orderRequest.get("items");
-        List<OrderItem> orderItems = cartItems.stream().map(item -> {
-            return OrderItem.builder()
-                    .productId(Long.valueOf(item.get("id").toString()))
-                    .productName(item.get("name").toString())
-                    .price(Double.valueOf(item.get("price").toString()))
-                    .co2Emission(Double.valueOf(item.get("co2Emission").toString()))
-                    .build();
-        }).collect(Collectors.toList());
+
+        List<OrderItem> orderItems = toOrderItems(cartItems);
 
         Order newOrder = Order.builder()
                 .userEmail(userEmail)
@@ -76,20 +83,60 @@ public class OrderService {
         Order savedOrder = orderRepository.save(newOrder);
         logger.info("Saved order: {}", savedOrder);
 
-        // Create CarbonFootprint for each order item
+        // Create CarbonFootprint for each order item; saved together so they flush as JDBC batches
+        Date calculationDate = new Date();
+        List<CarbonFootprint> footprints = new ArrayList<>(savedOrder.getItems().size());
         for (OrderItem item : savedOrder.getItems()) {
-            CarbonFootprint carbonFootprint = CarbonFootprint.builder()
+            footprints.add(CarbonFootprint.builder()
                     .productId(item.getProductId())
                     .userId(user.getId())
                     .carbonFootprint(item.getCo2Emission())
-                    .calculationDate(new Date())
-                    .build();
-            carbonFootprintRepository.save(carbonFootprint);
+                    .calculationDate(calculationDate)
+                    .build());
         }
+        carbonFootprintRepository.saveAll(footprints);
+
+        // Settle stock last, so product row locks are held for as little of the transaction as possible:
+        // confirms the hold made at payment time, or takes the stock now. A shortfall rolls the order back.
+        Long reservationId = orderRequest.get("reservationId") != null ?
+                             Long.valueOf(orderRequest.get("reservationId").toString()) : null;
+        stockReservationService.consume(reservationId, userEmail, quantitiesOf(cartItems));
+
+        // A popular product's rollup rows are as hot as its stock row, so they are bumped last as well
+        carbonRollupService.record(footprints);
+
+        // Ledgers and counters that derive from orders update in this same transaction
+        eventPublisher.publishEvent(new OrderCreatedEvent(savedOrder, user.getId()));
 
         return savedOrder;
     }
 
+    // One OrderItem per cart line, as the client sent it (prices and emissions are not looked up again)
+    public static List<OrderItem> toOrderItems(List<Map<String, Object>> cartItems) {
+        return cartItems.stream().map(item -> {
+            return OrderItem.builder()
+                    .productId(Long.valueOf(item.get("id").toString()))
+                    .productName(item.get("name").toString())
+                    .price(Double.valueOf(item.get("price").toString()))
+                    .co2Emission(Double.valueOf(item.get("co2Emission").toString()))
+                    .isEcoFriendly(Boolean.valueOf(item.getOrDefault("isEcoFriendly", false).toString()))
+                    .build();
+        }).collect(Collectors.toList());
+    }
+
+    // productId -> units, from cart lines that may repeat a product or carry a "quantity"
+    public static Map<Long, Integer> quantitiesOf(List<Map<String, Object>> cartItems) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (Map<String, Object> item : cartItems) {
+            Long productId = Long.valueOf(item.get("id").toString());
+            int quantity = item.get("quantity") != null ? Integer.parseInt(item.get("quantity").toString()) : 1;
+            if (quantity > 0) {
+                quantities.merge(productId, quantity, Integer::sum);
+            }
+        }
+        return quantities;
+    }
+
     public List<Order> getMyOrders() {
         String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
         return orderRepository.findByUserEmailOrderByOrderDateDesc(userEmail);
@@ -1,13 +1,18 @@
 package com.ecobazaar.backend.service;
 
 import java.awt.Color;
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.ecobazaar.backend.model.Order;
+import com.ecobazaar.backend.dto.OrderReportRowDTO;
+import com.ecobazaar.backend.repository.OrderRepository;
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
 import com.lowagie.text.Font;
@@ -22,9 +27,17 @@ import com.lowagie.text.pdf.PdfWriter;
 @Service
 public class PdfReportService {
 
-    public byte[] generateUserEcoReport(String email, Double lifetimeSavings, List<String> badges, List<Order> orders) throws DocumentException {
+    // Order rows handed to the PDF writer at a time; finished pages go straight to the output
+    private static final int ROWS_PER_FLUSH = 200;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    // Written to `out` as it is built: order rows are streamed from the database and the table is
+    // flushed every ROWS_PER_FLUSH rows, so memory use stays flat however many orders the user has
+    @Transactional(readOnly = true)
+    public void writeUserEcoReport(String email, Double lifetimeSavings, List<String> badges, OutputStream out) throws DocumentException {
         Document document = new Document(PageSize.A4);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         PdfWriter.getInstance(document, out);
 
         document.open();
@@ -82,6 +95,8 @@ public class PdfReportService {
         PdfPTable orderTable = new PdfPTable(4);
         orderTable.setWidthPercentage(100);
         orderTable.setWidths(new float[]{3f, 2f, 2f, 2f}); // Column widths
+        orderTable.setHeaderRows(1); // repeated on every page
+        orderTable.setComplete(false); // added in parts as rows arrive
 
         // Table Headers
         String[] headers = {"Date", "Amount", "CO2 Saved", "Status"};
@@ -94,19 +109,27 @@ public class PdfReportService {
 
         // Table Data
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        if (orders == null || orders.isEmpty()) {
-            PdfPCell emptyCell = new PdfPCell(new Phrase("No orders found."));
-            emptyCell.setColspan(4);
-            emptyCell.setPadding(8);
-            orderTable.addCell(emptyCell);
-        } else {
-            for (Order order : orders) {
+        int rows = 0;
+        try (Stream<OrderReportRowDTO> orders = orderRepository.streamReportRows(email)) {
+            Iterator<OrderReportRowDTO> it = orders.iterator();
+            while (it.hasNext()) {
+                OrderReportRowDTO order = it.next();
                 orderTable.addCell(new PdfPCell(new Phrase(order.getOrderDate() != null ? order.getOrderDate().format(formatter) : "N/A")));
                 orderTable.addCell(new PdfPCell(new Phrase("$" + String.format("%.2f", order.getTotalAmount()))));
                 orderTable.addCell(new PdfPCell(new Phrase(String.format("%.1f", order.getTotalCo2Saved()) + " kg")));
                 orderTable.addCell(new PdfPCell(new Phrase(order.getStatus())));
+                if (++rows % ROWS_PER_FLUSH == 0) {
+                    document.add(orderTable); // lays out and drops the rows added so far
+                }
             }
         }
+        if (rows == 0) {
+            PdfPCell emptyCell = new PdfPCell(new Phrase("No orders found."));
+            emptyCell.setColspan(4);
+            emptyCell.setPadding(8);
+            orderTable.addCell(emptyCell);
+        }
+        orderTable.setComplete(true);
         document.add(orderTable);
 
         // Footer
@@ -115,12 +138,10 @@ public class PdfReportService {
         document.add(footer);
 
         document.close();
-        return out.toByteArray();
     }
 
-    public byte[] generatePlatformEcoReport(Double totalRevenue, Double totalCo2, long totalOrders, long totalUsers) throws DocumentException {
+    public void writePlatformEcoReport(Double totalRevenue, Double totalCo2, long totalOrders, long totalUsers, OutputStream out) throws DocumentException {
         Document document = new Document(PageSize.A4);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
         PdfWriter.getInstance(document, out);
 
         document.open();
@@ -150,6 +171,5 @@ public class PdfReportService {
 
         document.add(table);
         document.close();
-        return out.toByteArray();
     }
 }
\ No newline at end of file
@@ -0,0 +1,119 @@
+package com.ecobazaar.backend.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecobazaar.backend.dto.PlatformTotalsDTO;
+import com.ecobazaar.backend.event.OrderCreatedEvent;
+import com.ecobazaar.backend.model.Order;
+import com.ecobazaar.backend.model.PlatformCounter;
+import com.ecobazaar.backend.repository.OrderRepository;
+import com.ecobazaar.backend.repository.PlatformCounterRepository;
+import com.ecobazaar.backend.repository.UserRepository;
+
+// Keeps the admin console totals as counters bumped alongside each order/user write,
+// so reading them is a SUM over SLOTS rows no matter how many orders exist.
+@Service
+public class PlatformCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlatformCounterService.class);
+
+    private static final int SLOTS = 16;
+    private static final double MONEY_TOLERANCE = 0.005;
+
+    @Autowired
+    private PlatformCounterRepository platformCounterRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final TransactionTemplate snapshotTransaction;
+
+    public PlatformCounterService(PlatformTransactionManager transactionManager) {
+        // Counters and the real aggregates have to be read from the same snapshot,
+        // otherwise an order committing in between looks like drift
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    // Runs inside the order's transaction: if the order rolls back, so does the counter bump
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        Order order = event.getOrder();
+        double revenue = order.getTotalAmount() != null ? order.getTotalAmount() : 0.0;
+        double co2 = order.getTotalCo2Saved() != null ? order.getTotalCo2Saved() : 0.0;
+        platformCounterRepository.addOrders(randomSlot(), 1, revenue, co2);
+    }
+
+    // Callers must already be in the transaction that writes the user row
+    public void addUsers(long delta) {
+        platformCounterRepository.addUsers(randomSlot(), delta);
+    }
+
+    public PlatformTotalsDTO getTotals() {
+        return platformCounterRepository.getTotals();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        List<PlatformCounter> missing = new ArrayList<>();
+        for (int slot = 0; slot < SLOTS; slot++) {
+            if (!platformCounterRepository.existsById(slot)) {
+                missing.add(PlatformCounter.builder()
+                        .slot(slot).totalUsers(0L).totalOrders(0L).totalRevenue(0.0).totalCo2Saved(0.0)
+                        .build());
+            }
+        }
+        platformCounterRepository.saveAll(missing);
+        reconcile();
+    }
+
+    // Recomputes the totals the slow way and folds any difference into slot 0. The fix is applied
+    // as an increment, so orders committed while this runs are not lost.
+    @Scheduled(fixedDelayString = "${platform.counters.reconcile-interval:PT1H}",
+               initialDelayString = "${platform.counters.reconcile-interval:PT1H}")
+    public void reconcile() {
+        snapshotTransaction.executeWithoutResult(status -> {
+            PlatformTotalsDTO counted = platformCounterRepository.getTotals();
+            long users = userRepository.count();
+            long orders = orderRepository.count();
+            double revenue = orderRepository.getTotalPlatformRevenue();
+            double co2 = orderRepository.getTotalPlatformCo2Saved();
+
+            long userDrift = users - counted.getTotalUsers();
+            long orderDrift = orders - counted.getTotalOrders();
+            double revenueDrift = revenue - counted.getTotalRevenue();
+            double co2Drift = co2 - counted.getTotalCo2Saved();
+
+            if (userDrift == 0 && orderDrift == 0
+                    && Math.abs(revenueDrift) < MONEY_TOLERANCE && Math.abs(co2Drift) < MONEY_TOLERANCE) {
+                logger.debug("Platform counters in sync: {} users, {} orders", users, orders);
+                return;
+            }
+
+            logger.warn("Platform counters drifted (users {}, orders {}, revenue {}, co2 {}); repairing",
+                    userDrift, orderDrift, revenueDrift, co2Drift);
+            platformCounterRepository.addUsers(0, userDrift);
+            platformCounterRepository.addOrders(0, orderDrift, revenueDrift, co2Drift);
+        });
+    }
+
+    private int randomSlot() {
+        return ThreadLocalRandom.current().nextInt(SLOTS);
+    }
+}
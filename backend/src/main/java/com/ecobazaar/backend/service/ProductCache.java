@@ -0,0 +1,121 @@
+package com.ecobazaar.backend.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ecobazaar.backend.dto.ProductPageDTO;
+import com.ecobazaar.backend.event.ProductChangedEvent;
+import com.ecobazaar.backend.model.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+@Component
+public class ProductCache {
+
+    private final Cache<Long, Product> products;
+    private final Cache<String, ProductPageDTO> pages;
+
+    public ProductCache(@Value("${catalog.cache.max-size:10000}") long maxSize,
+                        @Value("${catalog.cache.max-pages:500}") long maxPages,
+                        @Value("${catalog.cache.ttl-minutes:10}") long ttlMinutes) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats()
+                .build();
+    }
+
+    // Loader may return null (product not found), in which case nothing is cached. Callers get
+    // their own copy, so nothing they do to it reaches the cached entry.
+    public Product getProduct(Long id, Function<Long, Product> loader) {
+        Product product = products.get(id, loader);
+        return product != null ? product.copy() : null;
+    }
+
+    public ProductPageDTO getPage(String key, Supplier<ProductPageDTO> loader) {
+        ProductPageDTO page = pages.get(key, k -> loader.get());
+        if (page == null) {
+            return null;
+        }
+        List<Product> items = page.getItems().stream().map(Product::copy).toList();
+        return new ProductPageDTO(items, page.getNextCursor(), page.isHasMore());
+    }
+
+    // Runs after the writing transaction commits, so a rollback never leaks into the cache
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.isDeleted()) {
+            products.invalidate(event.getProductId());
+        } else {
+            // The event carries the writer's entity; keep a copy the writer can't touch afterwards
+            products.put(event.getProductId(), event.getProduct().copy());
+        }
+        // Any write can move a product between pages, and catalog writes are rare enough to just start over
+        pages.invalidateAll();
+    }
+
+    // New stock levels (see StockLevelListener). Entries are swapped for patched copies rather than
+    // changed in place, since readers copy them without a lock; pages not showing a product stay as they are.
+    public void applyStock(Map<Long, Integer> levels) {
+        for (Map.Entry<Long, Integer> level : levels.entrySet()) {
+            products.asMap().computeIfPresent(level.getKey(), (id, product) -> withStock(product, level.getValue()));
+        }
+        for (String key : pages.asMap().keySet()) {
+            pages.asMap().computeIfPresent(key, (k, page) -> {
+                boolean affected = page.getItems().stream()
+                        .anyMatch(p -> levels.containsKey(p.getId()) && !Objects.equals(levels.get(p.getId()), p.getStockQuantity()));
+                if (!affected) {
+                    return page;
+                }
+                List<Product> items = page.getItems().stream()
+                        .map(p -> levels.containsKey(p.getId()) ? withStock(p, levels.get(p.getId())) : p)
+                        .toList();
+                return new ProductPageDTO(items, page.getNextCursor(), page.isHasMore());
+            });
+        }
+    }
+
+    private static Product withStock(Product product, Integer stockQuantity) {
+        Product copy = product.copy();
+        copy.setStockQuantity(stockQuantity);
+        return copy;
+    }
+
+    public void clear() {
+        products.invalidateAll();
+        pages.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("products", describe(products.stats(), products.estimatedSize()));
+        stats.put("pages", describe(pages.stats(), pages.estimatedSize()));
+        return stats;
+    }
+
+    private Map<String, Object> describe(CacheStats stats, long size) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", size);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("loadFailures", stats.loadFailureCount());
+        return result;
+    }
+}
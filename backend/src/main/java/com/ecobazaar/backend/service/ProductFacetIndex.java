@@ -0,0 +1,449 @@
+package com.ecobazaar.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ecobazaar.backend.dto.ProductFacetResultDTO;
+import com.ecobazaar.backend.dto.ProductFilterDTO;
+import com.ecobazaar.backend.event.ProductChangedEvent;
+import com.ecobazaar.backend.model.Product;
+
+// Column-oriented copy of the catalog for shop filtering: one primitive array per numeric field,
+// one bitset per category/status/tag value. Filters are bitset ANDs, sorts walk a cached permutation.
+@Component
+public class ProductFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    private static final int MAX_LIMIT = 100;
+    private static final List<String> SORTABLE_FIELDS = List.of("id", "price", "co2Emission", "carbonSaving");
+
+    @Autowired
+    private ProductService productService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns = new Columns();
+    private List<ProductChangedEvent> pendingChanges = null;
+    private Map<Long, Integer> pendingStock = null;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+            pendingStock = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Columns fresh = new Columns();
+        long start = System.currentTimeMillis();
+        try {
+            productService.forEachProduct(fresh::upsert);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+                pendingStock = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            columns = fresh;
+            for (ProductChangedEvent change : pendingChanges) {
+                columns.apply(change);
+            }
+            columns.applyStock(pendingStock);
+            pendingChanges = null;
+            pendingStock = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Facet index built: {} products in {} ms", fresh.slotById.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            columns.apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Stock is not filtered or sorted on, so only the stored rows change (see StockLevelListener)
+    public void applyStock(Map<Long, Integer> levels) {
+        lock.writeLock().lock();
+        try {
+            if (pendingStock != null) {
+                pendingStock.putAll(levels);
+            }
+            columns.applyStock(levels);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductFacetResultDTO query(ProductFilterDTO filter) {
+        String sortBy = filter.getSort() == null ? "id" : filter.getSort();
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        }
+        boolean descending = "desc".equalsIgnoreCase(filter.getOrder());
+        int offset = Math.max(filter.getOffset(), 0);
+        int limit = filter.getLimit() <= 0 ? 24 : Math.min(filter.getLimit(), MAX_LIMIT);
+
+        lock.readLock().lock();
+        try {
+            Columns c = columns;
+            BitSet matches = c.filter(filter);
+            int total = matches.cardinality();
+
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put("category", c.categories.count(matches));
+            facets.put("status", c.statuses.count(matches));
+            facets.put("material", c.materials.count(matches));
+            facets.put("certification", c.certifications.count(matches));
+            int ecoCount = countAnd(c.ecoFriendly, matches);
+            Map<String, Integer> eco = new LinkedHashMap<>();
+            eco.put("true", ecoCount);
+            eco.put("false", total - ecoCount);
+            facets.put("ecoFriendly", eco);
+
+            List<Product> items = new ArrayList<>(Math.min(limit, total));
+            int skipped = 0;
+            for (int slot : c.sortOrder(sortBy, descending)) {
+                if (!matches.get(slot)) {
+                    continue;
+                }
+                if (skipped++ < offset) {
+                    continue;
+                }
+                items.add(c.rows[slot].copy());
+                if (items.size() == limit) {
+                    break;
+                }
+            }
+            return new ProductFacetResultDTO(total, items, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Current category of a catalog product, or null if it is unknown or deleted
+    public String categoryOf(Long productId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = columns.slotById.get(productId);
+            return slot == null ? null : columns.rows[slot].getCategory();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static int countAnd(BitSet a, BitSet b) {
+        int count = 0;
+        for (int slot = a.nextSetBit(0); slot >= 0; slot = a.nextSetBit(slot + 1)) {
+            if (b.get(slot)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static List<String> splitTags(String text) {
+        List<String> tags = new ArrayList<>();
+        if (text == null) {
+            return tags;
+        }
+        for (String raw : text.split("[,;/|]")) {
+            String tag = raw.trim().toLowerCase();
+            if (!tag.isEmpty() && !tags.contains(tag)) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+
+    // All state lives here so a rebuild can fill a fresh copy and swap it in at once
+    private static class Columns {
+        private int capacity = 1024;
+        private int highWaterMark = 0;
+        private long[] ids = new long[capacity];
+        private double[] prices = new double[capacity];
+        private double[] co2Emissions = new double[capacity];
+        private double[] carbonSavings = new double[capacity];
+        private Product[] rows = new Product[capacity];
+
+        private final BitSet live = new BitSet();
+        private final BitSet ecoFriendly = new BitSet();
+        private final Dictionary categories = new Dictionary(false);
+        private final Dictionary statuses = new Dictionary(false);
+        private final Dictionary materials = new Dictionary(true);
+        private final Dictionary certifications = new Dictionary(true);
+
+        private final Map<Long, Integer> slotById = new HashMap<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+        // Built lazily per "field:direction" and dropped on every write; catalog writes are rare
+        private final Map<String, int[]> sortOrders = new ConcurrentHashMap<>();
+
+        void apply(ProductChangedEvent event) {
+            if (event.isDeleted()) {
+                remove(event.getProductId());
+            } else {
+                upsert(event.getProduct().copy());
+            }
+        }
+
+        // Takes ownership of the product; callers pass a copy (or a freshly loaded entity)
+        void upsert(Product product) {
+            Integer slot = slotById.get(product.getId());
+            if (slot == null) {
+                slot = freeSlots.isEmpty() ? highWaterMark++ : freeSlots.pop();
+                ensureCapacity(slot + 1);
+                slotById.put(product.getId(), slot);
+            }
+
+            ids[slot] = product.getId();
+            prices[slot] = valueOf(product.getPrice());
+            co2Emissions[slot] = valueOf(product.getCo2Emission());
+            carbonSavings[slot] = valueOf(product.getCarbonSaving());
+            rows[slot] = product;
+            live.set(slot);
+            ecoFriendly.set(slot, product.isEcoFriendly());
+            categories.set(slot, product.getCategory() == null ? List.of() : List.of(product.getCategory()));
+            statuses.set(slot, product.getVerificationStatus() == null ? List.of() : List.of(product.getVerificationStatus()));
+            materials.set(slot, splitTags(product.getMaterial()));
+            certifications.set(slot, splitTags(product.getCertifications()));
+            sortOrders.clear();
+        }
+
+        void applyStock(Map<Long, Integer> levels) {
+            for (Map.Entry<Long, Integer> level : levels.entrySet()) {
+                Integer slot = slotById.get(level.getKey());
+                if (slot != null) {
+                    rows[slot].setStockQuantity(level.getValue());
+                }
+            }
+        }
+
+        void remove(Long productId) {
+            Integer slot = slotById.remove(productId);
+            if (slot == null) {
+                return;
+            }
+            live.clear(slot);
+            ecoFriendly.clear(slot);
+            categories.clear(slot);
+            statuses.clear(slot);
+            materials.clear(slot);
+            certifications.clear(slot);
+            rows[slot] = null;
+            freeSlots.push(slot);
+            sortOrders.clear();
+        }
+
+        BitSet filter(ProductFilterDTO filter) {
+            BitSet matches = (BitSet) live.clone();
+            if (filter.getCategory() != null && !filter.getCategory().isEmpty()) {
+                matches.and(categories.anyOf(filter.getCategory()));
+            }
+            if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+                matches.and(statuses.anyOf(filter.getStatus()));
+            }
+            if (filter.getMaterial() != null && !filter.getMaterial().isEmpty()) {
+                matches.and(materials.anyOf(filter.getMaterial()));
+            }
+            if (filter.getCertification() != null && !filter.getCertification().isEmpty()) {
+                matches.and(certifications.anyOf(filter.getCertification()));
+            }
+            if (Boolean.TRUE.equals(filter.getEcoFriendly())) {
+                matches.and(ecoFriendly);
+            } else if (Boolean.FALSE.equals(filter.getEcoFriendly())) {
+                matches.andNot(ecoFriendly);
+            }
+
+            boolean priceRange = filter.getMinPrice() != null || filter.getMaxPrice() != null;
+            boolean co2Range = filter.getMinCo2() != null || filter.getMaxCo2() != null;
+            if (priceRange || co2Range) {
+                double minPrice = filter.getMinPrice() != null ? filter.getMinPrice() : Double.NEGATIVE_INFINITY;
+                double maxPrice = filter.getMaxPrice() != null ? filter.getMaxPrice() : Double.POSITIVE_INFINITY;
+                double minCo2 = filter.getMinCo2() != null ? filter.getMinCo2() : Double.NEGATIVE_INFINITY;
+                double maxCo2 = filter.getMaxCo2() != null ? filter.getMaxCo2() : Double.POSITIVE_INFINITY;
+                for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                    boolean keep = (!priceRange || (prices[slot] >= minPrice && prices[slot] <= maxPrice))
+                            && (!co2Range || (co2Emissions[slot] >= minCo2 && co2Emissions[slot] <= maxCo2));
+                    if (!keep) {
+                        matches.clear(slot);
+                    }
+                }
+            }
+            return matches;
+        }
+
+        int[] sortOrder(String field, boolean descending) {
+            return sortOrders.computeIfAbsent(field + ":" + descending, key -> {
+                Integer[] slots = live.stream().boxed().toArray(Integer[]::new);
+                Comparator<Integer> byId = Comparator.comparingLong(slot -> ids[slot]);
+                Comparator<Integer> order;
+                if (field.equals("id")) {
+                    order = descending ? byId.reversed() : byId;
+                } else {
+                    double[] column = switch (field) {
+                        case "price" -> prices;
+                        case "co2Emission" -> co2Emissions;
+                        default -> carbonSavings;
+                    };
+                    // Products missing the value go last whichever way we sort
+                    Comparator<Integer> byValue = (a, b) -> {
+                        boolean aMissing = Double.isNaN(column[a]);
+                        boolean bMissing = Double.isNaN(column[b]);
+                        if (aMissing || bMissing) {
+                            return Boolean.compare(aMissing, bMissing);
+                        }
+                        return descending ? Double.compare(column[b], column[a]) : Double.compare(column[a], column[b]);
+                    };
+                    order = byValue.thenComparing(byId);
+                }
+                Arrays.sort(slots, order);
+                return Arrays.stream(slots).mapToInt(Integer::intValue).toArray();
+            });
+        }
+
+        private void ensureCapacity(int needed) {
+            if (needed <= capacity) {
+                return;
+            }
+            capacity = Math.max(needed, capacity * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            co2Emissions = Arrays.copyOf(co2Emissions, capacity);
+            carbonSavings = Arrays.copyOf(carbonSavings, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+            categories.ensureCapacity(capacity);
+            statuses.ensureCapacity(capacity);
+            materials.ensureCapacity(capacity);
+            certifications.ensureCapacity(capacity);
+        }
+
+        private static double valueOf(Double value) {
+            return value != null ? value : Double.NaN;
+        }
+    }
+
+    // Each distinct value is stored once and referred to by an int code; every code owns a bitset of slots
+    private static class Dictionary {
+        private final boolean caseInsensitive;
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<BitSet> postings = new ArrayList<>();
+        private int[][] slotCodes = new int[1024][];
+
+        Dictionary(boolean caseInsensitive) {
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        void set(int slot, Collection<String> slotValues) {
+            clear(slot);
+            int[] rowCodes = new int[slotValues.size()];
+            int i = 0;
+            for (String value : slotValues) {
+                int code = codes.computeIfAbsent(normalize(value), key -> {
+                    values.add(key);
+                    postings.add(new BitSet());
+                    return values.size() - 1;
+                });
+                postings.get(code).set(slot);
+                rowCodes[i++] = code;
+            }
+            slotCodes[slot] = rowCodes;
+        }
+
+        void clear(int slot) {
+            int[] rowCodes = slotCodes[slot];
+            if (rowCodes == null) {
+                return;
+            }
+            for (int code : rowCodes) {
+                postings.get(code).clear(slot);
+            }
+            slotCodes[slot] = null;
+        }
+
+        BitSet anyOf(Collection<String> wanted) {
+            BitSet result = new BitSet();
+            for (String value : wanted) {
+                Integer code = codes.get(normalize(value));
+                if (code != null) {
+                    result.or(postings.get(code));
+                }
+            }
+            return result;
+        }
+
+        // Walks the matching slots once instead of intersecting every value's bitset
+        Map<String, Integer> count(BitSet matches) {
+            int[] counts = new int[values.size()];
+            for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                int[] rowCodes = slotCodes[slot];
+                if (rowCodes != null) {
+                    for (int code : rowCodes) {
+                        counts[code]++;
+                    }
+                }
+            }
+            Integer[] order = new Integer[counts.length];
+            for (int code = 0; code < counts.length; code++) {
+                order[code] = code;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(counts[b], counts[a]));
+
+            Map<String, Integer> result = new LinkedHashMap<>();
+            for (int code : order) {
+                if (counts[code] > 0) {
+                    result.put(values.get(code), counts[code]);
+                }
+            }
+            return result;
+        }
+
+        void ensureCapacity(int capacity) {
+            if (slotCodes.length < capacity) {
+                slotCodes = Arrays.copyOf(slotCodes, capacity);
+            }
+        }
+
+        private String normalize(String value) {
+            String trimmed = value.trim();
+            return caseInsensitive ? trimmed.toLowerCase() : trimmed;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.ecobazaar.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.ecobazaar.backend.model.Product;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
+
+// Turns one row of a bulk product import into a validated Product, or throws IllegalArgumentException
+// with a message fit to show the seller. NDJSON rows are objects shaped like POST /api/products/add;
+// CSV starts with a header naming the columns (name, price and co2Emission are required; imageUrls
+// holds several URLs separated by '|'). Ids, sellers and verification status in the rows are ignored.
+// Once the CSV header is read, parse() is safe to call from several threads.
+public class ProductImportParser {
+
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final int MAX_TEXT = 255; // VARCHAR columns
+    private static final int MAX_DESCRIPTION = 65_535; // TEXT
+
+    private final String format;
+    private final ObjectReader reader;
+    private final double maxPrice;
+    private final double maxCo2Emission;
+    private Map<String, Integer> columns;
+    private int width;
+
+    public ProductImportParser(String format, JsonMapper jsonMapper, double maxPrice, double maxCo2Emission) {
+        if (!NDJSON.equals(format) && !CSV.equals(format)) {
+            throw new IllegalArgumentException("Unsupported format: " + format);
+        }
+        this.format = format;
+        // A row that leaves out isEcoFriendly means false, as in the CSV format
+        this.reader = jsonMapper.readerFor(Product.class).without(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES);
+        this.maxPrice = maxPrice;
+        this.maxCo2Emission = maxCo2Emission;
+    }
+
+    public boolean needsHeader() {
+        return CSV.equals(format);
+    }
+
+    // Reads the CSV header; fails the whole import if a required column is missing
+    public void header(String[] names) {
+        Map<String, Integer> found = new HashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            found.put(names[i].trim().replace("_", "").toLowerCase(Locale.ROOT), i);
+        }
+        // Accept the JSON names too
+        found.putIfAbsent("ecofriendly", found.get("isecofriendly"));
+        found.putIfAbsent("co2emission", found.get("co2emissionkg"));
+        for (String required : List.of("name", "price", "co2emission")) {
+            if (found.get(required) == null) {
+                throw new IllegalArgumentException("CSV header must name name, price and co2Emission columns");
+            }
+        }
+        this.columns = found;
+        this.width = names.length;
+    }
+
+    public Product parse(String line) {
+        Product product;
+        try {
+            product = reader.readValue(line);
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (product == null) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        if (product.getImageUrls() == null) {
+            product.setImageUrls(new ArrayList<>());
+        }
+        return validate(product);
+    }
+
+    public Product parse(String[] cells) {
+        if (cells.length != width) {
+            throw new IllegalArgumentException("Expected " + width + " columns, found " + cells.length);
+        }
+        List<String> imageUrls = new ArrayList<>();
+        String images = cell(cells, "imageurls");
+        if (images != null) {
+            for (String url : images.split("\\|")) {
+                if (!url.isBlank()) {
+                    imageUrls.add(url.trim());
+                }
+            }
+        }
+        Product product = Product.builder()
+                .name(cell(cells, "name"))
+                .description(cell(cells, "description"))
+                .brand(cell(cells, "brand"))
+                .stockQuantity(parseInteger(cell(cells, "stockquantity"), "stockQuantity"))
+                .material(cell(cells, "material"))
+                .certifications(cell(cells, "certifications"))
+                .price(parseDouble(cell(cells, "price"), "price"))
+                .imageUrls(imageUrls)
+                .category(cell(cells, "category"))
+                .co2Emission(parseDouble(cell(cells, "co2emission"), "co2Emission"))
+                .carbonSaving(parseDouble(cell(cells, "carbonsaving"), "carbonSaving"))
+                .isEcoFriendly(parseBoolean(cell(cells, "ecofriendly")))
+                .alternativeProductId(parseLong(cell(cells, "alternativeproductid"), "alternativeProductId"))
+                .build();
+        return validate(product);
+    }
+
+    private Product validate(Product product) {
+        if (product.getName() == null || product.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        requireLength(product.getName(), MAX_TEXT, "name");
+        requireLength(product.getDescription(), MAX_DESCRIPTION, "description");
+        requireLength(product.getBrand(), MAX_TEXT, "brand");
+        requireLength(product.getMaterial(), MAX_TEXT, "material");
+        requireLength(product.getCertifications(), MAX_TEXT, "certifications");
+        requireLength(product.getCategory(), MAX_TEXT, "category");
+
+        if (product.getPrice() == null) {
+            throw new IllegalArgumentException("price is required");
+        }
+        if (!Double.isFinite(product.getPrice()) || product.getPrice() <= 0 || product.getPrice() > maxPrice) {
+            throw new IllegalArgumentException("price must be above 0 and at most " + maxPrice);
+        }
+        if (product.getCo2Emission() == null) {
+            throw new IllegalArgumentException("co2Emission is required");
+        }
+        if (!Double.isFinite(product.getCo2Emission()) || product.getCo2Emission() < 0 || product.getCo2Emission() > maxCo2Emission) {
+            throw new IllegalArgumentException("co2Emission must be between 0 and " + maxCo2Emission + " kg");
+        }
+        if (product.getCarbonSaving() != null && (!Double.isFinite(product.getCarbonSaving()) || product.getCarbonSaving() < 0)) {
+            throw new IllegalArgumentException("carbonSaving must be a non-negative number");
+        }
+        if (product.getStockQuantity() != null && product.getStockQuantity() < 0) {
+            throw new IllegalArgumentException("stockQuantity must not be negative");
+        }
+        for (String url : product.getImageUrls()) {
+            if (url == null || url.isBlank()) {
+                throw new IllegalArgumentException("imageUrls must not contain empty entries");
+            }
+            requireLength(url, MAX_TEXT, "image URL");
+        }
+
+        // Decided by the import, as in ProductService.addProduct
+        product.setId(null);
+        product.setSellerEmail(null);
+        product.setVerificationStatus(null);
+        return product;
+    }
+
+    private String cell(String[] cells, String column) {
+        Integer index = columns.get(column);
+        if (index == null) {
+            return null;
+        }
+        // Exports guard text against spreadsheet formulas; the guard is not part of the value
+        String value = CsvWriter.unguard(cells[index].trim());
+        return value.isEmpty() ? null : value;
+    }
+
+    private static void requireLength(String value, int max, String field) {
+        if (value != null && value.length() > max) {
+            throw new IllegalArgumentException(field + " is longer than " + max + " characters");
+        }
+    }
+
+    private static Double parseDouble(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a number: " + value);
+        }
+    }
+
+    private static Integer parseInteger(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a whole number: " + value);
+        }
+    }
+
+    private static Long parseLong(String value, String field) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " is not a whole number: " + value);
+        }
+    }
+
+    private static boolean parseBoolean(String value) {
+        if (value == null) {
+            return false;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "yes", "1" -> true;
+            case "false", "no", "0" -> false;
+            default -> throw new IllegalArgumentException("isEcoFriendly must be true or false: " + value);
+        };
+    }
+}
@@ -0,0 +1,221 @@
+package com.ecobazaar.backend.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecobazaar.backend.dto.ProductImportErrorDTO;
+import com.ecobazaar.backend.dto.ProductImportResultDTO;
+import com.ecobazaar.backend.event.ProductChangedEvent;
+import com.ecobazaar.backend.model.Product;
+import com.ecobazaar.backend.repository.ProductRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import tools.jackson.databind.json.JsonMapper;
+
+// Bulk product import for sellers. Rows are read from the body in chunks of product.import.batch-size,
+// each chunk is parsed and validated in parallel, and its valid products are saved in one transaction
+// whose product and image inserts Hibernate sends as JDBC batches (products have block ids for that).
+// Bad rows are reported and skipped; a chunk the database refuses is retried product by product.
+@Service
+public class ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportService.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    private final int batchSize;
+    private final int maxErrors;
+    private final double maxPrice;
+    private final double maxCo2Emission;
+    private final Counter importedRows;
+    private final Counter rejectedRows;
+
+    public ProductImportService(MeterRegistry meterRegistry,
+                                @Value("${product.import.batch-size:1000}") int batchSize,
+                                @Value("${product.import.max-errors:1000}") int maxErrors,
+                                @Value("${product.import.max-price:1000000}") double maxPrice,
+                                @Value("${product.import.max-co2-kg:100000}") double maxCo2Emission) {
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+        this.maxPrice = maxPrice;
+        this.maxCo2Emission = maxCo2Emission;
+        this.importedRows = Counter.builder("product.import.rows").tag("outcome", "imported").register(meterRegistry);
+        this.rejectedRows = Counter.builder("product.import.rows").tag("outcome", "rejected").register(meterRegistry);
+    }
+
+    // format is ProductImportParser.NDJSON or CSV. Throws IllegalArgumentException only for problems
+    // with the import as a whole (unknown format, bad CSV header); row problems end up in the result.
+    public ProductImportResultDTO importProducts(InputStream body, String format, String sellerEmail) throws IOException {
+        long start = System.currentTimeMillis();
+        ProductImportParser parser = new ProductImportParser(format, jsonMapper, maxPrice, maxCo2Emission);
+        Import result = new Import();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+
+        List<Row> chunk = new ArrayList<>(batchSize);
+        if (parser.needsHeader()) {
+            CsvReader csv = new CsvReader(reader);
+            String[] header = csv.next();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV body is empty");
+            }
+            parser.header(header);
+            String[] record;
+            while ((record = next(csv, result)) != null) {
+                chunk.add(new Row(csv.getRecordLine(), null, record));
+                if (chunk.size() >= batchSize) {
+                    importChunk(chunk, parser, sellerEmail, result);
+                    chunk.clear();
+                }
+            }
+        } else {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Row(lineNumber, line, null));
+                if (chunk.size() >= batchSize) {
+                    importChunk(chunk, parser, sellerEmail, result);
+                    chunk.clear();
+                }
+            }
+        }
+        importChunk(chunk, parser, sellerEmail, result);
+        // Database failures are only found after the rows around them were parsed
+        result.errors.sort(Comparator.comparingLong(ProductImportErrorDTO::getLine));
+
+        long duration = System.currentTimeMillis() - start;
+        importedRows.increment(result.imported);
+        rejectedRows.increment(result.rejected);
+        logger.info("Product import ({}) for {}: {} rows, {} imported, {} rejected in {} ms",
+                format, sellerEmail, result.rows, result.imported, result.rejected, duration);
+        return new ProductImportResultDTO(result.rows, result.imported, result.rejected,
+                result.errors, result.rejected > result.errors.size(), duration);
+    }
+
+    // An unterminated quote swallows the rest of the body, so it ends the import with what was read so far
+    private String[] next(CsvReader csv, Import result) throws IOException {
+        try {
+            return csv.next();
+        } catch (IllegalArgumentException e) {
+            result.rows++;
+            result.reject(csv.getRecordLine(), e.getMessage());
+            return null;
+        }
+    }
+
+    private void importChunk(List<Row> chunk, ProductImportParser parser, String sellerEmail, Import result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        result.rows += chunk.size();
+
+        // Parsing and validating is pure CPU work on independent rows, so the chunk is spread over all cores
+        Parsed[] parsed = new Parsed[chunk.size()];
+        IntStream.range(0, chunk.size()).parallel().forEach(i -> {
+            Row row = chunk.get(i);
+            try {
+                parsed[i] = new Parsed(row.line(), row.text() != null ? parser.parse(row.text()) : parser.parse(row.cells()), null);
+            } catch (IllegalArgumentException e) {
+                parsed[i] = new Parsed(row.line(), null, e.getMessage());
+            }
+        });
+
+        List<Product> products = new ArrayList<>(chunk.size());
+        List<Long> lines = new ArrayList<>(chunk.size());
+        for (Parsed row : parsed) {
+            if (row.error() != null) {
+                result.reject(row.line(), row.error());
+                continue;
+            }
+            Product product = row.product();
+            product.setSellerEmail(sellerEmail);
+            // Same rule as ProductService.addProduct: eco claims wait for an admin, the rest go live
+            product.setVerificationStatus(product.isEcoFriendly() ? "PENDING" : "APPROVED");
+            products.add(product);
+            lines.add(row.line());
+        }
+        if (products.isEmpty()) {
+            return;
+        }
+
+        try {
+            save(products);
+            result.imported += products.size();
+        } catch (DataAccessException | TransactionException e) {
+            logger.warn("Product import chunk of {} failed, retrying one by one: {}", products.size(), e.getMessage());
+            for (int i = 0; i < products.size(); i++) {
+                Product product = products.get(i);
+                try {
+                    save(List.of(product));
+                    result.imported++;
+                } catch (DataAccessException | TransactionException rowFailure) {
+                    result.reject(lines.get(i), NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+    }
+
+    // Events go out with the transaction, so indexes and caches only see products that were committed
+    private void save(List<Product> products) {
+        // A rolled-back attempt has already handed out ids; clear them so the products are inserted as new
+        products.forEach(product -> product.setId(null));
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Product saved : productRepository.saveAll(products)) {
+                eventPublisher.publishEvent(new ProductChangedEvent(saved.getId(), saved));
+            }
+        });
+    }
+
+    private record Row(long line, String text, String[] cells) {
+    }
+
+    private record Parsed(long line, Product product, String error) {
+    }
+
+    private class Import {
+        private long rows;
+        private long imported;
+        private long rejected;
+        private final List<ProductImportErrorDTO> errors = new ArrayList<>();
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new ProductImportErrorDTO(line, message));
+            }
+        }
+    }
+}
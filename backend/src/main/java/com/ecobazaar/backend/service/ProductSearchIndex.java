@@ -0,0 +1,282 @@
+package com.ecobazaar.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ecobazaar.backend.dto.ProductSearchResultDTO;
+import com.ecobazaar.backend.event.ProductChangedEvent;
+import com.ecobazaar.backend.model.Product;
+
+// In-memory inverted index over the catalog text fields. Built once at startup,
+// then kept current from ProductChangedEvents, so searching never touches MySQL.
+@Component
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final int MAX_RESULTS = 100;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final double PREFIX_PENALTY = 0.5; // "bamb" should rank below an exact "bamboo"
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "the", "of", "for", "with", "in", "on", "to", "by", "or", "is");
+
+    @Autowired
+    private ProductService productService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (productId -> field-weighted term frequency); sorted so prefixes are a subMap range
+    private TreeMap<String, Map<Long, Double>> postings = new TreeMap<>();
+    private Map<Long, Product> documents = new HashMap<>();
+    private Map<Long, Map<String, Double>> documentTerms = new HashMap<>();
+    private Map<Long, Double> documentLengths = new HashMap<>();
+    private double totalLength = 0;
+
+    // Changes that land while a rebuild is reading the catalog are replayed on top of it
+    private List<ProductChangedEvent> pendingChanges = null;
+    private Map<Long, Integer> pendingStock = null;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+            pendingStock = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        ProductSearchIndex fresh = new ProductSearchIndex();
+        long start = System.currentTimeMillis();
+        try {
+            productService.forEachProduct(fresh::addDocument);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+                pendingStock = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = fresh.postings;
+            documents = fresh.documents;
+            documentTerms = fresh.documentTerms;
+            documentLengths = fresh.documentLengths;
+            totalLength = fresh.totalLength;
+            for (ProductChangedEvent change : pendingChanges) {
+                apply(change);
+            }
+            patchStock(pendingStock);
+            pendingChanges = null;
+            pendingStock = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Search index built: {} products, {} terms in {} ms",
+                documents.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(event);
+            }
+            apply(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Stock isn't searchable, so only the stored documents change (see StockLevelListener)
+    public void applyStock(Map<Long, Integer> levels) {
+        lock.writeLock().lock();
+        try {
+            if (pendingStock != null) {
+                pendingStock.putAll(levels);
+            }
+            patchStock(levels);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public ProductSearchResultDTO search(String query, Integer limit) {
+        int maxResults = (limit == null || limit <= 0) ? 20 : Math.min(limit, MAX_RESULTS);
+        List<String> tokens = tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty()) {
+            return new ProductSearchResultDTO(query, 0, Collections.emptyList());
+        }
+
+        lock.readLock().lock();
+        try {
+            double averageLength = documents.isEmpty() ? 1 : totalLength / documents.size();
+
+            // Every query token has to match (exactly or as a prefix); scores add up across tokens
+            Map<Long, Double> scores = null;
+            for (String token : tokens) {
+                Map<Long, Double> tokenScores = scoreToken(token, averageLength);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    break;
+                }
+            }
+
+            PriorityQueue<Map.Entry<Long, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > maxResults) {
+                    top.poll();
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(top);
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey()));
+            List<Product> items = new ArrayList<>(ranked.size());
+            for (Map.Entry<Long, Double> entry : ranked) {
+                items.add(documents.get(entry.getKey()).copy());
+            }
+            return new ProductSearchResultDTO(query, scores.size(), items);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreToken(String token, double averageLength) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<String, Map<Long, Double>> matches = token.length() < 2
+                ? (postings.containsKey(token) ? Map.of(token, postings.get(token)) : Map.of())
+                : postings.subMap(token, true, token + Character.MAX_VALUE, false);
+
+        // The exact term sorts first in the range, so the cap only ever drops longer expansions
+        List<Map.Entry<String, Map<Long, Double>>> terms = new ArrayList<>();
+        Set<Long> matchingDocs = new HashSet<>();
+        for (Map.Entry<String, Map<Long, Double>> term : matches.entrySet()) {
+            if (terms.size() > MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            terms.add(term);
+            matchingDocs.addAll(term.getValue().keySet());
+        }
+
+        // One idf for the token as a whole, so a rare expansion can't outrank the exact word
+        double idf = Math.log(1 + (documents.size() - matchingDocs.size() + 0.5) / (matchingDocs.size() + 0.5));
+        for (Map.Entry<String, Map<Long, Double>> term : terms) {
+            boolean exact = term.getKey().equals(token);
+            for (Map.Entry<Long, Double> doc : term.getValue().entrySet()) {
+                double length = documentLengths.get(doc.getKey());
+                double tf = doc.getValue();
+                double score = idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * length / averageLength));
+                if (!exact) {
+                    score *= PREFIX_PENALTY;
+                }
+                // A document matching both "bamboo" and "bamboos" only counts its best expansion
+                scores.merge(doc.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private void patchStock(Map<Long, Integer> levels) {
+        for (Map.Entry<Long, Integer> level : levels.entrySet()) {
+            Product product = documents.get(level.getKey());
+            if (product != null) {
+                product.setStockQuantity(level.getValue());
+            }
+        }
+    }
+
+    private void apply(ProductChangedEvent event) {
+        removeDocument(event.getProductId());
+        if (!event.isDeleted()) {
+            addDocument(event.getProduct().copy());
+        }
+    }
+
+    private void addDocument(Product product) {
+        Map<String, Double> terms = new HashMap<>();
+        addField(terms, product.getName(), 3.0);
+        addField(terms, product.getBrand(), 2.0);
+        addField(terms, product.getCategory(), 2.0);
+        addField(terms, product.getMaterial(), 1.5);
+        addField(terms, product.getCertifications(), 1.5);
+        addField(terms, product.getDescription(), 1.0);
+
+        double length = 0;
+        for (Map.Entry<String, Double> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new HashMap<>()).put(product.getId(), term.getValue());
+            length += term.getValue();
+        }
+        documents.put(product.getId(), product);
+        documentTerms.put(product.getId(), terms);
+        documentLengths.put(product.getId(), length);
+        totalLength += length;
+    }
+
+    private void removeDocument(Long productId) {
+        Map<String, Double> terms = documentTerms.remove(productId);
+        documents.remove(productId);
+        if (terms == null) {
+            return;
+        }
+        totalLength -= documentLengths.remove(productId);
+        for (Map.Entry<String, Double> term : terms.entrySet()) {
+            Map<Long, Double> docs = postings.get(term.getKey());
+            docs.remove(productId);
+            if (docs.isEmpty()) {
+                postings.remove(term.getKey());
+            }
+        }
+    }
+
+    private void addField(Map<String, Double> terms, String text, double weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Double::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String raw : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (!raw.isEmpty() && !STOP_WORDS.contains(raw)) {
+                tokens.add(raw);
+            }
+        }
+        return tokens;
+    }
+}
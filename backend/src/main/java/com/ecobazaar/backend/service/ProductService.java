@@ -1,32 +1,186 @@
 package com.ecobazaar.backend.service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
 
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.ecobazaar.backend.dto.ProductPageDTO;
+import com.ecobazaar.backend.event.ProductChangedEvent;
 import com.ecobazaar.backend.model.Product;
 import com.ecobazaar.backend.repository.ProductRepository;
 
+import jakarta.persistence.criteria.Predicate;
+
 @Service
 public class ProductService {
 
+    private static final int DEFAULT_PAGE_SIZE = 24;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int INDEX_BATCH_SIZE = 500;
+    private static final List<String> SORTABLE_FIELDS = List.of("id", "price", "co2Emission");
+
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
 
+    // Walks the whole catalog in id order, one short transaction per batch, for building in-memory indexes
+    public void forEachProduct(Consumer<Product> consumer) {
+        ScrollPosition position = ScrollPosition.keyset();
+        boolean hasNext = true;
+        while (hasNext) {
+            ScrollPosition from = position;
+            Window<Product> window = transactionTemplate.execute(status -> {
+                Window<Product> batch = productRepository.findBy(from, Sort.by("id"), Limit.of(INDEX_BATCH_SIZE));
+                batch.forEach(product -> Hibernate.initialize(product.getImageUrls()));
+                return batch;
+            });
+            window.forEach(consumer);
+            hasNext = window.hasNext() && !window.isEmpty();
+            if (hasNext) {
+                position = window.positionAt(window.size() - 1);
+            }
+        }
+    }
+
+    public ProductPageDTO getProductPage(String sortBy, String order, String cursor, Integer size) {
+        return getProductPage(sortBy, order, cursor, size, null, null, false);
+    }
+
+    // Filters are applied inside the keyset query, so every page is full and a match on a later page
+    // is still found. query matches the name (case-insensitive), category is an exact match, and
+    // shopOnly drops eco-friendly products that an admin hasn't approved yet, as the storefront must.
+    // Follow-up pages have to repeat the same filters alongside the cursor.
+    public ProductPageDTO getProductPage(String sortBy, String order, String cursor, Integer size,
+                                         String query, String category, boolean shopOnly) {
+        String search = query == null || query.isBlank() ? null : query.trim().toLowerCase(Locale.ROOT);
+        String only = category == null || category.isBlank() ? null : category;
+        String key = sortBy + "|" + order + "|" + cursor + "|" + size + "|" + search + "|" + only + "|" + shopOnly;
+        // The transaction is only opened on a miss, cache hits never touch the connection pool
+        return productCache.getPage(key, () -> transactionTemplate.execute(
+                status -> loadProductPage(sortBy, order, cursor, size, filter(search, only, shopOnly))));
+    }
+
+    private static Specification<Product> filter(String search, String category, boolean shopOnly) {
+        return (root, criteria, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (search != null) {
+                String escaped = search.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+                predicates.add(cb.like(cb.lower(root.get("name")), "%" + escaped + "%", '\\'));
+            }
+            if (category != null) {
+                predicates.add(cb.equal(root.get("category"), category));
+            }
+            if (shopOnly) {
+                predicates.add(cb.or(cb.isFalse(root.get("isEcoFriendly")), cb.equal(root.get("verificationStatus"), "APPROVED")));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private ProductPageDTO loadProductPage(String sortBy, String order, String cursor, Integer size, Specification<Product> filter) {
+        int pageSize = (size == null || size <= 0) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        ScrollPosition position = ScrollPosition.keyset();
+
+        // A cursor carries its own sort so follow-up pages can't drift onto a different ordering.
+        // Anything that doesn't decode to one of ours is the client's mistake, not a server error.
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts;
+            try {
+                parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", -1);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            if (parts.length != 4 || !SORTABLE_FIELDS.contains(parts[0])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            sortBy = parts[0];
+            order = parts[1];
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            try {
+                if (!sortBy.equals("id")) {
+                    keys.put(sortBy, Double.valueOf(parts[2]));
+                }
+                keys.put("id", Long.valueOf(parts[3]));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            position = ScrollPosition.forward(keys);
+        }
+
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new IllegalArgumentException("Unsupported sort field: " + sortBy);
+        }
+        Sort.Direction direction = "desc".equalsIgnoreCase(order) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = sortBy.equals("id")
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+
+        ScrollPosition from = position;
+        Window<Product> window = productRepository.findBy(filter, query -> query.sortBy(sort).limit(pageSize).scroll(from));
+        List<Product> items = window.getContent();
+
+        // The first initialize pulls images for the whole page in one batched query (see @BatchSize)
+        items.forEach(product -> Hibernate.initialize(product.getImageUrls()));
+
+        String nextCursor = null;
+        if (window.hasNext() && !items.isEmpty()) {
+            Product last = items.get(items.size() - 1);
+            // price and co2_emission_kg are NOT NULL columns, so a stored product always has a sort value
+            Object sortValue = switch (sortBy) {
+                case "price" -> last.getPrice();
+                case "co2Emission" -> last.getCo2Emission();
+                default -> last.getId();
+            };
+            String raw = sortBy + ":" + direction.name().toLowerCase() + ":" + sortValue + ":" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return new ProductPageDTO(items, nextCursor, window.hasNext());
+    }
+
     public Product getProductById(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
+        Product product = productCache.getProduct(id, key -> productRepository.findWithImagesById(key).orElse(null));
+        if (product == null) {
+            throw new RuntimeException("Product not found");
+        }
+        return product;
     }
 
     public List<Product> getProductsBySeller(String sellerEmail) {
         return productRepository.findBySellerEmail(sellerEmail);
     }
 
+    @Transactional
     public Product addProduct(Product product, String sellerEmail) {
         product.setSellerEmail(sellerEmail);
 
@@ -36,9 +190,10 @@ public class ProductService {
             product.setVerificationStatus("APPROVED"); 
         }
         
-        return productRepository.save(product);
+        return publishChange(productRepository.save(product));
     }
 
+    @Transactional
     public Product updateProduct(Long id, Product updatedProduct) {
         return productRepository.findById(id).map(product -> {
             product.setName(updatedProduct.getName());
@@ -55,18 +210,28 @@ public class ProductService {
             product.setAlternativeProductId(updatedProduct.getAlternativeProductId());
             product.setEcoFriendly(updatedProduct.isEcoFriendly());
 
-            return productRepository.save(product);
+            return publishChange(productRepository.save(product));
         }).orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
+    @Transactional
     public Product updateVerificationStatus(Long id, String status) {
         return productRepository.findById(id).map(product -> {
             product.setVerificationStatus(status);
-            return productRepository.save(product);
+            return publishChange(productRepository.save(product));
         }).orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
+    @Transactional
     public void deleteProduct(Long id) {
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id, null));
+    }
+
+    // Listeners keep the product after the session closes, so the images have to be loaded now
+    private Product publishChange(Product product) {
+        Hibernate.initialize(product.getImageUrls());
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), product));
+        return product;
     }
 }
\ No newline at end of file
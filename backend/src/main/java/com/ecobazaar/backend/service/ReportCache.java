@@ -0,0 +1,375 @@
+package com.ecobazaar.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Rendered PDF reports, one per scope ("platform", "user|<email>"), each tagged with a fingerprint
+// of the data it was rendered from. Asking for the fingerprint already cached returns the stored
+// bytes; a different one re-renders and replaces it. A render is streamed to the client that asked
+// for it while it is copied into the cache, and requests for the same scope arriving meanwhile
+// wait for that render instead of starting their own. Reports up to report.cache.max-entry-size
+// are kept in memory (report.cache.max-memory in total); bigger ones spill to files under
+// report.cache.dir, bounded by report.cache.max-disk.
+@Component
+public class ReportCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportCache.class);
+
+    // Part of every fingerprint: bump it when a report's layout changes so clients stop revalidating old copies
+    private static final String FORMAT_VERSION = "1";
+
+    private final Cache<String, Entry> memory;
+    private final Cache<String, Entry> disk;
+    // scope -> the render in progress for it, completed once it is cached (or has failed)
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> rendering = new ConcurrentHashMap<>();
+    private final Path directory;
+    private final int maxEntrySize;
+
+    public ReportCache(@Value("${report.cache.max-memory:64MB}") DataSize maxMemory,
+                       @Value("${report.cache.max-entry-size:1MB}") DataSize maxEntrySize,
+                       @Value("${report.cache.max-disk:1GB}") DataSize maxDisk,
+                       @Value("${report.cache.dir:${java.io.tmpdir}/ecobazaar-report-cache}") String directory) throws IOException {
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(maxMemory.toBytes())
+                .weigher((String scope, Entry entry) -> entry.bytes.length)
+                .recordStats()
+                .build();
+        this.disk = Caffeine.newBuilder()
+                .maximumWeight(maxDisk.toKilobytes())
+                .weigher((String scope, Entry entry) -> (int) Math.min(Integer.MAX_VALUE, Math.max(1, entry.length / 1024)))
+                .removalListener((String scope, Entry entry, RemovalCause cause) -> deleteFile(entry))
+                .recordStats()
+                .build();
+        this.maxEntrySize = (int) Math.min(Integer.MAX_VALUE - 8, maxEntrySize.toBytes());
+        this.directory = Path.of(directory);
+
+        // Spilled files are only reachable through the in-memory index, so anything left from a previous run is garbage
+        Files.createDirectories(this.directory);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(this.directory, "*.pdf")) {
+            for (Path file : leftovers) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // Writes a report to the given stream
+    @FunctionalInterface
+    public interface ReportWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    // Hex digest of the values a report is rendered from; used as the cache version and as the HTTP ETag
+    public static String fingerprint(Object... parts) {
+        StringBuilder source = new StringBuilder(FORMAT_VERSION);
+        for (Object part : parts) {
+            source.append('|').append(part);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The report for `scope` at version `fingerprint`. A cached copy is opened before returning, so a
+    // spilled file evicted meanwhile can still be read to the end. Otherwise nothing happens until the
+    // report is written out: then it is rendered with `writer` (or, if that scope is already being
+    // rendered, the render is waited for and its cached copy sent).
+    public CachedReport get(String scope, String fingerprint, ReportWriter writer) throws IOException {
+        CachedReport cached = open(lookup(scope, fingerprint));
+        if (cached != null) {
+            return cached;
+        }
+        return new CachedReport(fingerprint, Instant.now(), null, out -> send(scope, fingerprint, writer, out));
+    }
+
+    public void clear() {
+        memory.invalidateAll();
+        disk.invalidateAll();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("memory", describe(memory.stats(), memory.estimatedSize(),
+                memory.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L)));
+        stats.put("disk", describe(disk.stats(), disk.estimatedSize(),
+                disk.policy().eviction().map(e -> e.weightedSize().orElse(0) * 1024).orElse(0L)));
+        return stats;
+    }
+
+    private Entry lookup(String scope, String fingerprint) {
+        Entry entry = memory.getIfPresent(scope);
+        if (entry == null) {
+            entry = disk.getIfPresent(scope);
+        }
+        return entry != null && entry.fingerprint.equals(fingerprint) ? entry : null;
+    }
+
+    private CachedReport open(Entry entry) throws IOException {
+        if (entry == null) {
+            return null;
+        }
+        if (entry.file == null) {
+            return new CachedReport(entry.fingerprint, entry.renderedAt, entry.length, out -> out.write(entry.bytes));
+        }
+        try {
+            InputStream in = Files.newInputStream(entry.file);
+            return new CachedReport(entry.fingerprint, entry.renderedAt, entry.length, out -> {
+                try (in) {
+                    in.transferTo(out);
+                }
+            });
+        } catch (NoSuchFileException e) {
+            return null; // evicted between lookup and open; render it again
+        }
+    }
+
+    // Runs when a missed report is written out: the first request for the scope renders it, any
+    // arriving during that render wait for it and send the cached copy
+    private void send(String scope, String fingerprint, ReportWriter writer, OutputStream out) throws IOException {
+        while (true) {
+            CompletableFuture<Entry> mine = new CompletableFuture<>();
+            CompletableFuture<Entry> running = rendering.putIfAbsent(scope, mine);
+            if (running != null) {
+                try {
+                    running.join();
+                } catch (CompletionException | CancellationException e) {
+                    // That render failed; the next round renders it here
+                }
+                CachedReport cached = open(lookup(scope, fingerprint));
+                if (cached != null) {
+                    cached.writeTo(out);
+                    return;
+                }
+                continue; // an older version was being rendered, or it was evicted already
+            }
+
+            try {
+                // Another render may have finished between the lookup in get() and now
+                CachedReport cached = open(lookup(scope, fingerprint));
+                if (cached != null) {
+                    mine.complete(null);
+                    cached.writeTo(out);
+                    return;
+                }
+                mine.complete(render(scope, fingerprint, writer, out));
+                return;
+            } catch (IOException | RuntimeException | Error e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                rendering.remove(scope, mine);
+            }
+        }
+    }
+
+    // Renders into the cache and `out` at once. A client that goes away doesn't stop the render:
+    // the report is still finished and cached, and its write error rethrown afterwards.
+    private Entry render(String scope, String fingerprint, ReportWriter writer, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        SpillingOutputStream spill = new SpillingOutputStream(directory.resolve(UUID.randomUUID() + ".pdf"), maxEntrySize);
+        TeeOutputStream tee = new TeeOutputStream(spill, out);
+        try (spill) {
+            writer.write(tee);
+        } catch (IOException | RuntimeException e) {
+            spill.discard();
+            throw e;
+        }
+        Entry entry = new Entry(fingerprint, Instant.now(), spill.size(), spill.file == null ? spill.buffer.toByteArray() : null, spill.file);
+        if (entry.file == null) {
+            memory.put(scope, entry);
+            disk.invalidate(scope);
+        } else {
+            disk.put(scope, entry);
+            memory.invalidate(scope);
+        }
+        logger.debug("Rendered report {} ({} bytes, {}) in {} ms", fingerprint, entry.length,
+                entry.file == null ? "memory" : "disk", System.currentTimeMillis() - start);
+        if (tee.clientError != null) {
+            throw tee.clientError;
+        }
+        return entry;
+    }
+
+    private static void deleteFile(Entry entry) {
+        if (entry == null || entry.file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(entry.file);
+        } catch (IOException e) {
+            logger.warn("Could not delete cached report {}: {}", entry.file, e.getMessage());
+        }
+    }
+
+    private Map<String, Object> describe(CacheStats stats, long size, long bytes) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", size);
+        result.put("bytes", bytes);
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    @AllArgsConstructor
+    private static class Entry {
+        private final String fingerprint;
+        private final Instant renderedAt;
+        private final long length;
+        private final byte[] bytes; // null once spilled to `file`
+        private final Path file;
+    }
+
+    // Copies everything to the cache and to the client; once writing to the client fails it is skipped
+    private static class TeeOutputStream extends OutputStream {
+        private final OutputStream cache;
+        private final OutputStream client;
+        private IOException clientError;
+
+        TeeOutputStream(OutputStream cache, OutputStream client) {
+            this.cache = cache;
+            this.client = client;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            cache.write(b, off, len);
+            if (clientError == null) {
+                try {
+                    client.write(b, off, len);
+                } catch (IOException e) {
+                    clientError = e;
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (clientError == null) {
+                try {
+                    client.flush();
+                } catch (IOException e) {
+                    clientError = e;
+                }
+            }
+        }
+    }
+
+    // Buffers in memory until `threshold` bytes, then moves everything to `target` and keeps writing there
+    private static class SpillingOutputStream extends OutputStream {
+        private final Path target;
+        private final int threshold;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        private OutputStream fileOut;
+        private Path file;
+        private long size;
+
+        SpillingOutputStream(Path target, int threshold) {
+            this.target = target;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (fileOut == null && size + len > threshold) {
+                fileOut = Files.newOutputStream(target);
+                file = target;
+                buffer.writeTo(fileOut);
+                buffer = null;
+            }
+            if (fileOut != null) {
+                fileOut.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+            size += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (fileOut != null) {
+                fileOut.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (fileOut != null) {
+                fileOut.close();
+            }
+        }
+
+        long size() {
+            return size;
+        }
+
+        void discard() throws IOException {
+            close();
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    // A report ready to send: a cached copy whose body is already open, or a render still to run.
+    // Either way it is written out once.
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class CachedReport {
+        private final String fingerprint;
+        private final Instant renderedAt;
+        private final Long length; // null until rendered
+
+        @Getter(AccessLevel.NONE)
+        private final ReportWriter body;
+
+        public void writeTo(OutputStream out) throws IOException {
+            body.write(out);
+        }
+    }
+}
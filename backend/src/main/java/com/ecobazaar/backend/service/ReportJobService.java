@@ -0,0 +1,237 @@
+package com.ecobazaar.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.ecobazaar.backend.dto.PlatformTotalsDTO;
+import com.ecobazaar.backend.dto.ReportJobDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// PDF reports rendered off the request thread. Submitting returns a job at once; a small fixed pool
+// renders into files under report.jobs.dir, and finished files are deleted after report.jobs.ttl.
+// A full queue rejects new jobs (503 + Retry-After) instead of letting a month-end rush pile up.
+@Service
+public class ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    public static final String PLATFORM = "platform";
+    public static final String USER = "user";
+    public static final String PRODUCT = "product";
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String READY = "READY";
+    public static final String FAILED = "FAILED";
+
+    @Autowired
+    private PdfReportService pdfReportService;
+
+    @Autowired
+    private CarbonService carbonService;
+
+    @Autowired
+    private CarbonLedgerService carbonLedgerService;
+
+    @Autowired
+    private AnalyticsService analyticsService;
+
+    @Autowired
+    private PlatformCounterService platformCounterService;
+
+    private final Map<String, ReportJobDTO> jobs = new ConcurrentHashMap<>();
+    // "type|owner|productId" -> id of the job still queued or running for it
+    private final Map<String, String> unfinished = new ConcurrentHashMap<>();
+
+    private final ThreadPoolExecutor executor;
+    private final Path directory;
+    private final Duration ttl;
+    private final MeterRegistry meterRegistry;
+    private final Counter rejected;
+
+    public ReportJobService(MeterRegistry meterRegistry,
+                            @Value("${report.jobs.threads:2}") int threads,
+                            @Value("${report.jobs.queue-capacity:50}") int queueCapacity,
+                            @Value("${report.jobs.dir:${java.io.tmpdir}/ecobazaar-reports}") String directory,
+                            @Value("${report.jobs.ttl:PT1H}") Duration ttl) throws IOException {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.directory = Path.of(directory);
+        this.ttl = ttl;
+        this.meterRegistry = meterRegistry;
+
+        // Jobs only live in memory, so files left by a previous run can never be downloaded
+        Files.createDirectories(this.directory);
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(this.directory, "*.{pdf,tmp}")) {
+            for (Path file : leftovers) {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        this.rejected = Counter.builder("report.jobs.rejected").register(meterRegistry);
+        Gauge.builder("report.jobs.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+        Gauge.builder("report.jobs.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    // Queues a report for `owner`. Asking again for a report that is still queued or running
+    // returns that job instead of rendering it twice. Throws RejectedExecutionException when full.
+    public ReportJobDTO submit(String type, String owner, Long productId) {
+        if (!List.of(PLATFORM, USER, PRODUCT).contains(type)) {
+            throw new IllegalArgumentException("Unknown report type: " + type);
+        }
+        String key = type + "|" + owner + "|" + productId;
+        synchronized (unfinished) {
+            String existing = unfinished.get(key);
+            if (existing != null && jobs.containsKey(existing)) {
+                return jobs.get(existing);
+            }
+
+            ReportJobDTO job = new ReportJobDTO();
+            job.setId(UUID.randomUUID().toString());
+            job.setType(type);
+            job.setOwner(owner);
+            job.setProductId(productId);
+            job.setStatus(QUEUED);
+            job.setSubmittedAt(LocalDateTime.now());
+            job.setDownloadUrl("/api/reports/jobs/" + job.getId() + "/download");
+            job.setFileName(switch (type) {
+                case PLATFORM -> "EcoBazaar_Platform_Report.pdf";
+                case USER -> "EcoBazaar_Impact_Report.pdf";
+                default -> "Carbon_Report_Product_" + productId + ".pdf";
+            });
+
+            jobs.put(job.getId(), job);
+            unfinished.put(key, job.getId());
+            long submittedNanos = System.nanoTime();
+            try {
+                executor.execute(() -> run(job, key, submittedNanos));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.getId());
+                unfinished.remove(key);
+                rejected.increment();
+                throw e;
+            }
+            return job;
+        }
+    }
+
+    // The job if it exists and belongs to `owner`, otherwise null
+    public ReportJobDTO get(String id, String owner) {
+        ReportJobDTO job = jobs.get(id);
+        return job != null && job.getOwner().equals(owner) ? job : null;
+    }
+
+    public Path fileOf(ReportJobDTO job) {
+        return directory.resolve(job.getId() + ".pdf");
+    }
+
+    @Scheduled(fixedDelayString = "${report.jobs.cleanup-interval:PT5M}")
+    public void deleteExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = 0;
+        for (ReportJobDTO job : jobs.values()) {
+            if (job.getExpiresAt() != null && job.getExpiresAt().isBefore(now)) {
+                jobs.remove(job.getId());
+                try {
+                    Files.deleteIfExists(fileOf(job));
+                } catch (IOException e) {
+                    logger.warn("Could not delete report {}: {}", job.getId(), e.getMessage());
+                }
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} expired report job(s)", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void run(ReportJobDTO job, String key, long submittedNanos) {
+        job.setStatus(RUNNING);
+        Path target = fileOf(job);
+        Path temp = directory.resolve(job.getId() + ".tmp");
+        String outcome = "ready";
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                render(job, out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.setStatus(READY);
+        } catch (Exception e) {
+            outcome = "failed";
+            logger.warn("Report job {} ({}) failed", job.getId(), job.getType(), e);
+            job.setError("Report could not be generated");
+            job.setStatus(FAILED);
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // removed with the other leftovers on the next start
+            }
+        } finally {
+            LocalDateTime now = LocalDateTime.now();
+            job.setFinishedAt(now);
+            job.setExpiresAt(now.plus(ttl));
+            unfinished.remove(key, job.getId());
+            Timer.builder("report.jobs.latency")
+                    .description("Time from submission until the report is ready or has failed")
+                    .tag("type", job.getType())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - submittedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void render(ReportJobDTO job, OutputStream out) throws Exception {
+        switch (job.getType()) {
+            case PLATFORM -> {
+                PlatformTotalsDTO totals = platformCounterService.getTotals();
+                pdfReportService.writePlatformEcoReport(totals.getTotalRevenue(), totals.getTotalCo2Saved(),
+                        totals.getTotalOrders(), totals.getTotalUsers(), out);
+            }
+            case USER -> {
+                Double lifetimeSavings = carbonLedgerService.getLifetimeSavings(job.getOwner());
+                List<String> badges = analyticsService.calculateUserBadges(lifetimeSavings);
+                pdfReportService.writeUserEcoReport(job.getOwner(), lifetimeSavings, badges, out);
+            }
+            default -> carbonService.writeCarbonFootprintReport(job.getProductId(), out);
+        }
+    }
+}
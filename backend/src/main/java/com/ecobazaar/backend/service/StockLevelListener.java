@@ -0,0 +1,50 @@
+package com.ecobazaar.backend.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.ecobazaar.backend.event.StockChangedEvent;
+import com.ecobazaar.backend.repository.ProductRepository;
+import com.ecobazaar.backend.repository.ProductRepository.StockLevel;
+
+// Stock moves on every checkout, far too often to reload or re-index products, so the in-memory
+// catalog copies (product cache, listing pages, facet, search and alternatives indexes) only get
+// their stockQuantity patched. Levels are read after the commit and applied one event at a time,
+// so whichever read saw the newest level is always applied last.
+@Component
+public class StockLevelListener {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private GreenerAlternativesIndex greenerAlternativesIndex;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStockChanged(StockChangedEvent event) {
+        Map<Long, Integer> levels = new HashMap<>();
+        for (StockLevel level : productRepository.findStockLevels(event.getProductIds())) {
+            levels.put(level.getId(), level.getStockQuantity());
+        }
+        if (levels.isEmpty()) {
+            return;
+        }
+        productCache.applyStock(levels);
+        productFacetIndex.applyStock(levels);
+        productSearchIndex.applyStock(levels);
+        greenerAlternativesIndex.applyStock(levels);
+    }
+}
@@ -0,0 +1,295 @@
+package com.ecobazaar.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecobazaar.backend.event.StockChangedEvent;
+import com.ecobazaar.backend.model.Product;
+import com.ecobazaar.backend.model.StockReservation;
+import com.ecobazaar.backend.model.StockReservationLine;
+import com.ecobazaar.backend.repository.ProductRepository;
+import com.ecobazaar.backend.repository.StockReservationRepository;
+
+// Moves stock for checkout. Every decrement is a single conditional UPDATE ("... WHERE stock >= qty"),
+// so the database row is the only lock and buyers of the same product never oversell it.
+// Lines are always taken in product id order, so two carts sharing products can't deadlock.
+@Service
+public class StockReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationService.class);
+
+    private static final int PARTIAL_FILL_ATTEMPTS = 3;
+    private static final int SWEEP_BATCH_SIZE = 100;
+
+    @Value("${checkout.reservation.ttl-minutes:15}")
+    private long ttlMinutes;
+
+    @Value("${checkout.reservation.max-units:50}")
+    private int maxUnits;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository stockReservationRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public StockReservationService(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Holds stock while the buyer pays. Kept to its own short transaction, so row locks on a
+    // popular product last milliseconds rather than the length of a payment. A buyer has at most
+    // one hold: starting a new checkout first gives back whatever the previous one still holds,
+    // in a transaction of its own so each one locks product rows in a single id order.
+    public StockReservation reserve(String email, Map<Long, Integer> quantities, boolean allowPartial) {
+        validate(quantities);
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Long heldId : stockReservationRepository.findHeldIds(email)) {
+                doRelease(heldId, email);
+            }
+        });
+        return transactionTemplate.execute(status -> hold(email, quantities, allowPartial));
+    }
+
+    // Called inside the order transaction, after everything else is written so product row locks
+    // are held as briefly as possible. Whatever the order needs beyond the hold (everything,
+    // if there is no hold or it already timed out) is taken now, all or nothing; any excess goes back.
+    @Transactional
+    public void consume(Long reservationId, String email, Map<Long, Integer> needed) {
+        Map<Long, Integer> held = new HashMap<>();
+        if (reservationId != null) {
+            StockReservation reservation = stockReservationRepository.findById(reservationId).orElse(null);
+            if (reservation != null && reservation.getUserEmail().equals(email)
+                    && stockReservationRepository.changeStatus(reservationId, StockReservation.HELD, StockReservation.CONFIRMED) == 1) {
+                for (StockReservationLine line : reservation.getLines()) {
+                    held.merge(line.getProductId(), line.getReserved(), Integer::sum);
+                }
+            }
+        }
+
+        Map<Long, Integer> missing = new TreeMap<>();
+        Map<Long, Integer> surplus = new TreeMap<>();
+        for (Map.Entry<Long, Integer> line : needed.entrySet()) {
+            int diff = line.getValue() - held.getOrDefault(line.getKey(), 0);
+            if (diff > 0) {
+                missing.put(line.getKey(), diff);
+            }
+        }
+        for (Map.Entry<Long, Integer> line : held.entrySet()) {
+            int diff = line.getValue() - needed.getOrDefault(line.getKey(), 0);
+            if (diff > 0) {
+                surplus.put(line.getKey(), diff);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            take(missing, false);
+        }
+        if (!surplus.isEmpty()) {
+            surplus.forEach(productRepository::returnStock);
+            eventPublisher.publishEvent(new StockChangedEvent(surplus.keySet()));
+        }
+    }
+
+    // Gives a held reservation's stock back. Only the owner may release it; false if it was not held.
+    @Transactional
+    public boolean release(Long reservationId, String email) {
+        return doRelease(reservationId, email);
+    }
+
+    // Payments that were started but never completed leave HELD reservations behind; hand their stock back
+    @Scheduled(fixedDelayString = "${checkout.reservation.sweep-interval:PT1M}")
+    public void releaseExpired() {
+        int released = 0;
+        List<Long> expired;
+        do {
+            expired = stockReservationRepository.findExpiredIds(LocalDateTime.now(), Limit.of(SWEEP_BATCH_SIZE));
+            for (Long id : expired) {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> doRelease(id, null)))) {
+                    released++;
+                }
+            }
+        } while (expired.size() == SWEEP_BATCH_SIZE);
+
+        if (released > 0) {
+            logger.info("Released {} expired stock reservation(s)", released);
+        }
+    }
+
+    private StockReservation hold(String email, Map<Long, Integer> quantities, boolean allowPartial) {
+        // Saved before any stock is taken: line ids come from a pooled generator that may need a
+        // connection of its own, and waiting for one while holding a hot product's row lock can
+        // stall every buyer queued behind that lock
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = StockReservation.builder()
+                .userEmail(email)
+                .status(StockReservation.HELD)
+                .createdAt(now)
+                .expiresAt(now.plusMinutes(ttlMinutes))
+                .build();
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+            reservation.getLines().add(StockReservationLine.builder()
+                    .productId(line.getKey())
+                    .requested(line.getValue())
+                    .reserved(0)
+                    .build());
+        }
+        reservation = stockReservationRepository.save(reservation);
+
+        Map<Long, Integer> reserved = take(quantities, allowPartial);
+        for (StockReservationLine line : reservation.getLines()) {
+            line.setReserved(reserved.get(line.getProductId()));
+        }
+        return reservation;
+    }
+
+    // Every line asks for at least one unit and a hold can't pin more than maxUnits in total, so one
+    // account can't empty the shelves for the length of a reservation
+    private void validate(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to reserve");
+        }
+        long units = 0;
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            if (line.getKey() == null || line.getValue() == null || line.getValue() < 1) {
+                throw new IllegalArgumentException("Quantity must be at least 1 for product " + line.getKey());
+            }
+            units += line.getValue();
+        }
+        if (units > maxUnits) {
+            throw new IllegalArgumentException("A checkout can hold at most " + maxUnits + " units");
+        }
+    }
+
+    private boolean doRelease(Long reservationId, String email) {
+        StockReservation reservation = stockReservationRepository.findById(reservationId).orElse(null);
+        if (reservation == null || (email != null && !reservation.getUserEmail().equals(email))) {
+            return false;
+        }
+        if (stockReservationRepository.changeStatus(reservationId, StockReservation.HELD, StockReservation.RELEASED) != 1) {
+            return false;
+        }
+
+        List<StockReservationLine> lines = new ArrayList<>(reservation.getLines());
+        lines.sort(Comparator.comparing(StockReservationLine::getProductId));
+        TreeSet<Long> changed = new TreeSet<>();
+        for (StockReservationLine line : lines) {
+            if (line.getReserved() > 0) {
+                productRepository.returnStock(line.getProductId(), line.getReserved());
+                changed.add(line.getProductId());
+            }
+        }
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new StockChangedEvent(changed));
+        }
+        return true;
+    }
+
+    // Takes the requested quantities, returning what was actually taken per product. Without
+    // allowPartial any shortfall throws (and the caller's transaction undoes the other lines).
+    private Map<Long, Integer> take(Map<Long, Integer> quantities, boolean allowPartial) {
+        // One query for every line's product instead of a lookup per line
+        Map<Long, Product> products = new HashMap<>();
+        for (Product product : productRepository.findAllById(quantities.keySet())) {
+            products.put(product.getId(), product);
+        }
+
+        Map<Long, Integer> taken = new TreeMap<>();
+        List<Map<String, Object>> shortfalls = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : new TreeMap<>(quantities).entrySet()) {
+            Long productId = line.getKey();
+            int wanted = line.getValue();
+            Product product = products.get(productId);
+
+            int got;
+            if (product == null) {
+                got = 0;
+            } else if (product.getStockQuantity() == null) {
+                got = wanted; // stock not tracked for this product
+            } else if (productRepository.takeStock(productId, wanted) == 1) {
+                got = wanted;
+            } else {
+                got = allowPartial ? takeWhatIsLeft(productId, wanted) : 0;
+            }
+
+            taken.put(productId, got);
+            if (got < wanted) {
+                Map<String, Object> shortfall = new LinkedHashMap<>();
+                shortfall.put("productId", productId);
+                shortfall.put("requested", wanted);
+                shortfall.put("available", product == null ? 0 : got + Math.max(0, currentStock(productId)));
+                shortfalls.add(shortfall);
+            }
+        }
+
+        boolean nothingTaken = taken.values().stream().allMatch(got -> got == 0);
+        if (!shortfalls.isEmpty() && (!allowPartial || nothingTaken)) {
+            throw new OutOfStockException(shortfalls);
+        }
+
+        List<Long> changed = taken.entrySet().stream()
+                .filter(e -> e.getValue() > 0 && products.get(e.getKey()).getStockQuantity() != null)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new StockChangedEvent(changed));
+        }
+        return taken;
+    }
+
+    // Another buyer may grab some of what we just saw, so re-read and retry a few times
+    private int takeWhatIsLeft(Long productId, int wanted) {
+        for (int attempt = 0; attempt < PARTIAL_FILL_ATTEMPTS; attempt++) {
+            int available = Math.min(currentStock(productId), wanted);
+            if (available <= 0) {
+                return 0;
+            }
+            if (productRepository.takeStock(productId, available) == 1) {
+                return available;
+            }
+        }
+        return 0;
+    }
+
+    private int currentStock(Long productId) {
+        Integer stock = productRepository.findStockQuantityById(productId);
+        return stock != null ? stock : 0;
+    }
+
+    public static class OutOfStockException extends RuntimeException {
+        private final List<Map<String, Object>> shortfalls;
+
+        public OutOfStockException(List<Map<String, Object>> shortfalls) {
+            super("Not enough stock for " + shortfalls.size() + " item(s)");
+            this.shortfalls = shortfalls;
+        }
+
+        public List<Map<String, Object>> getShortfalls() {
+            return shortfalls;
+        }
+    }
+}
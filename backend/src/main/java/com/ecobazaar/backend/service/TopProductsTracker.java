@@ -0,0 +1,304 @@
+package com.ecobazaar.backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecobazaar.backend.dto.TopProductDTO;
+import com.ecobazaar.backend.event.OrderCreatedEvent;
+import com.ecobazaar.backend.model.Order;
+import com.ecobazaar.backend.model.OrderItem;
+import com.ecobazaar.backend.repository.OrderItemRepository;
+import com.ecobazaar.backend.repository.OrderRepository;
+
+// Best-selling eco products, kept in memory from OrderCreatedEvents instead of grouping
+// order_items on every request. Each window is a space-saving summary: at most `capacity`
+// counters, and a product only gets an overstated count if it entered by evicting another one.
+@Component
+public class TopProductsTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TopProductsTracker.class);
+
+    public static final List<String> WINDOWS = List.of("all", "30d", "7d");
+    public static final int MAX_K = 100;
+    private static final int DAYS = 30;
+    private static final String UNCATEGORIZED = "Uncategorized";
+
+    @Value("${analytics.top-products.capacity:1000}")
+    private int capacity;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Replaced wholesale by rebuild() once the application is ready
+    private Summaries summaries = new Summaries(1000);
+    private volatile long version = 0;
+
+    // Ranked lists per window, rebuilt on the first read after a sale or a change of day
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    // Orders that land while a rebuild is reading the history; those the read did not see are
+    // applied on top of it. Order ids are not handed out in commit order, so an id watermark can't
+    // tell which ones it saw: the read's own snapshot is asked instead.
+    private List<Order> pendingOrders = null;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            pendingOrders = new ArrayList<>();
+        }
+
+        long start = System.currentTimeMillis();
+        Summaries fresh = new Summaries(capacity);
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        try {
+            snapshot.executeWithoutResult(status -> {
+                for (Object[] row : orderItemRepository.getEcoProductTotals()) {
+                    Long productId = (Long) row[0];
+                    fresh.allTime.add(productId, (String) row[1], ((Number) row[2]).longValue(), ((Number) row[3]).doubleValue());
+                }
+                LocalDateTime since = LocalDate.now().minusDays(DAYS - 1).atStartOfDay();
+                for (Object[] row : orderItemRepository.getEcoProductDailyTotals(since)) {
+                    Long productId = (Long) row[0];
+                    SpaceSaving day = fresh.day((LocalDate) row[2]);
+                    if (day != null) {
+                        day.add(productId, (String) row[1], ((Number) row[3]).longValue(), ((Number) row[4]).doubleValue());
+                    }
+                }
+
+                // Held until the swap, so no order can arrive between the check and the swap
+                synchronized (this) {
+                    Set<Long> seen = new HashSet<>();
+                    if (!pendingOrders.isEmpty()) {
+                        seen.addAll(orderRepository.findExistingIds(pendingOrders.stream().map(Order::getId).toList()));
+                    }
+                    summaries = fresh;
+                    for (Order order : pendingOrders) {
+                        if (!seen.contains(order.getId())) {
+                            apply(order);
+                        }
+                    }
+                    pendingOrders = null;
+                    version++;
+                }
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingOrders = null;
+            }
+            throw e;
+        }
+        logger.info("Top products tracker built: {} products in {} ms",
+                fresh.allTime.counters.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onOrderCreated(OrderCreatedEvent event) {
+        if (pendingOrders != null) {
+            pendingOrders.add(event.getOrder());
+        }
+        apply(event.getOrder());
+        version++;
+    }
+
+    // Top k products of a window, optionally only those in one category
+    public List<TopProductDTO> getTop(String window, int k, String category) {
+        List<TopProductDTO> top = new ArrayList<>();
+        for (TopProductDTO product : ranked(window)) {
+            if (top.size() >= k) {
+                break;
+            }
+            if (category == null || category.equalsIgnoreCase(product.getCategory())) {
+                top.add(product);
+            }
+        }
+        return top;
+    }
+
+    // Top k products of a window within each category
+    public Map<String, List<TopProductDTO>> getTopByCategory(String window, int k) {
+        Map<String, List<TopProductDTO>> byCategory = new LinkedHashMap<>();
+        for (TopProductDTO product : ranked(window)) {
+            List<TopProductDTO> top = byCategory.computeIfAbsent(product.getCategory(), key -> new ArrayList<>());
+            if (top.size() < k) {
+                top.add(product);
+            }
+        }
+        return byCategory;
+    }
+
+    private List<TopProductDTO> ranked(String window) {
+        LocalDate today = LocalDate.now();
+        Snapshot snapshot = snapshots.get(window);
+        if (snapshot != null && snapshot.version == version && snapshot.day.equals(today)) {
+            return snapshot.ranked;
+        }
+        synchronized (this) {
+            Collection<Counter> counters = switch (window) {
+                case "7d" -> summaries.merge(today, 7);
+                case "30d" -> summaries.merge(today, DAYS);
+                default -> summaries.allTime.counters.values();
+            };
+            // Categories are looked up as of now, so a recategorized product moves with its sales
+            List<TopProductDTO> ranked = new ArrayList<>(counters.size());
+            counters.stream()
+                    .sorted(Comparator.comparingLong((Counter c) -> c.units).reversed()
+                            .thenComparingLong(c -> c.productId))
+                    .forEach(c -> {
+                        String category = productFacetIndex.categoryOf(c.productId);
+                        ranked.add(new TopProductDTO(c.productId, c.productName,
+                                category != null ? category : UNCATEGORIZED, c.units, c.co2, c.error));
+                    });
+            snapshots.put(window, new Snapshot(version, today, ranked));
+            return ranked;
+        }
+    }
+
+    private void apply(Order order) {
+        LocalDate day = order.getOrderDate() != null ? order.getOrderDate().toLocalDate() : LocalDate.now();
+        SpaceSaving daySummary = summaries.day(day);
+        for (OrderItem item : order.getItems()) {
+            if (!Boolean.TRUE.equals(item.getIsEcoFriendly()) || item.getProductId() == null) {
+                continue;
+            }
+            double co2 = item.getCo2Emission() != null ? item.getCo2Emission() : 0.0;
+            summaries.allTime.add(item.getProductId(), item.getProductName(), 1, co2);
+            if (daySummary != null) {
+                daySummary.add(item.getProductId(), item.getProductName(), 1, co2);
+            }
+        }
+    }
+
+    private record Snapshot(long version, LocalDate day, List<TopProductDTO> ranked) {
+    }
+
+    // All-time summary plus a ring of one summary per day for the last DAYS days
+    private static class Summaries {
+        private final int capacity;
+        private final SpaceSaving allTime;
+        private final SpaceSaving[] days = new SpaceSaving[DAYS];
+        private final LocalDate[] dayKeys = new LocalDate[DAYS];
+
+        Summaries(int capacity) {
+            this.capacity = capacity;
+            this.allTime = new SpaceSaving(capacity);
+        }
+
+        // The summary for a day, or null if that day has already fallen out of the ring
+        SpaceSaving day(LocalDate day) {
+            if (day.isBefore(LocalDate.now().minusDays(DAYS - 1))) {
+                return null;
+            }
+            int i = (int) Math.floorMod(day.toEpochDay(), (long) DAYS);
+            if (dayKeys[i] == null || dayKeys[i].isBefore(day)) {
+                dayKeys[i] = day;
+                days[i] = new SpaceSaving(capacity);
+            } else if (dayKeys[i].isAfter(day)) {
+                return null;
+            }
+            return days[i];
+        }
+
+        // Sums the day summaries of the last `span` days into one set of counters
+        Collection<Counter> merge(LocalDate today, int span) {
+            LocalDate first = today.minusDays(span - 1);
+            Map<Long, Counter> merged = new HashMap<>();
+            // Oldest day first, so names end up as of the latest sale
+            for (LocalDate day = first; !day.isAfter(today); day = day.plusDays(1)) {
+                int i = (int) Math.floorMod(day.toEpochDay(), (long) DAYS);
+                if (!day.equals(dayKeys[i])) {
+                    continue;
+                }
+                for (Counter counter : days[i].counters.values()) {
+                    Counter total = merged.computeIfAbsent(counter.productId, Counter::new);
+                    total.productName = counter.productName;
+                    total.units += counter.units;
+                    total.co2 += counter.co2;
+                    total.error += counter.error;
+                }
+            }
+            return merged.values();
+        }
+    }
+
+    private static class SpaceSaving {
+        private final int capacity;
+        private final Map<Long, Counter> counters = new HashMap<>();
+        private final TreeSet<Counter> byUnits = new TreeSet<>(
+                Comparator.comparingLong((Counter c) -> c.units).thenComparingLong(c -> c.productId));
+
+        SpaceSaving(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void add(long productId, String productName, long units, double co2) {
+            Counter counter = counters.get(productId);
+            if (counter != null) {
+                byUnits.remove(counter);
+            } else if (counters.size() < capacity) {
+                counter = new Counter(productId);
+                counters.put(productId, counter);
+            } else {
+                // Full: the newcomer takes over the smallest counter, whose totals become its error bound
+                Counter smallest = byUnits.pollFirst();
+                counters.remove(smallest.productId);
+                counter = new Counter(productId);
+                counter.units = smallest.units;
+                counter.co2 = smallest.co2;
+                counter.error = smallest.units;
+                counters.put(productId, counter);
+            }
+            if (productName != null) {
+                counter.productName = productName;
+            }
+            counter.units += units;
+            counter.co2 += co2;
+            byUnits.add(counter);
+        }
+    }
+
+    private static class Counter {
+        private final long productId;
+        private String productName;
+        private long units;
+        private double co2;
+        private long error;
+
+        Counter(long productId) {
+            this.productId = productId;
+        }
+    }
+}
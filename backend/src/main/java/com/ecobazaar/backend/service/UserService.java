@@ -0,0 +1,36 @@
+package com.ecobazaar.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecobazaar.backend.model.User;
+import com.ecobazaar.backend.repository.UserRepository;
+
+@Service
+public class UserService {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformCounterService platformCounterService;
+
+    // New accounts go through here so the platform user count moves in the same transaction
+    @Transactional
+    public User createUser(User user) {
+        User saved = userRepository.save(user);
+        platformCounterService.addUsers(1);
+        return saved;
+    }
+
+    @Transactional
+    public void deleteUser(Long id) {
+        // deleteById ignores unknown ids, so only count rows that were really there
+        if (!userRepository.existsById(id)) {
+            return;
+        }
+        userRepository.deleteById(id);
+        platformCounterService.addUsers(-1);
+    }
+}
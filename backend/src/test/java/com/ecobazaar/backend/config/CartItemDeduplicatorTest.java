@@ -0,0 +1,44 @@
+package com.ecobazaar.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+// Duplicate cart lines from before the (cart_id, product_id) key are folded so the key can be added
+class CartItemDeduplicatorTest {
+
+    @Test
+    void duplicateLinesAreMergedIntoTheOldest() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:dedup;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        CartItemDeduplicator deduplicator = new CartItemDeduplicator();
+        ReflectionTestUtils.setField(deduplicator, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(deduplicator, "dataSource", dataSource);
+
+        // Before Hibernate has created the table
+        deduplicator.merge();
+
+        jdbcTemplate.execute("CREATE TABLE cart_items (id BIGINT AUTO_INCREMENT PRIMARY KEY, cart_id BIGINT, "
+                + "product_id BIGINT, product_name VARCHAR(255), quantity INT)");
+        jdbcTemplate.update("INSERT INTO cart_items (cart_id, product_id, product_name, quantity) VALUES "
+                + "(1, 10, 'Jute Bag', NULL), (1, 10, 'Jute Bag', 2), (1, 11, 'Soap Bar', 1), "
+                + "(2, 10, 'Jute Bag', 1), (1, 10, 'Jute Bag', 3), (2, 12, 'Tote', NULL), (2, 12, 'Tote', NULL)");
+
+        deduplicator.merge();
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT id, cart_id, product_id, quantity FROM cart_items ORDER BY id");
+        assertEquals(List.of(1L, 3L, 4L, 6L), rows.stream().map(row -> ((Number) row.get("ID")).longValue()).toList());
+        assertEquals(List.of(6, 1, 1, 2), rows.stream().map(row -> ((Number) row.get("QUANTITY")).intValue()).toList());
+        jdbcTemplate.execute("ALTER TABLE cart_items ADD CONSTRAINT uk_cart_product UNIQUE (cart_id, product_id)");
+
+        // Nothing left to do on the next start
+        deduplicator.merge();
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cart_items", Integer.class));
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecobazaar.backend.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Read-only transactions run on the streaming pool, everything else on the main pool
+@SpringBootTest
+@ActiveProfiles("test")
+class DataSourceConfigTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HikariDataSource mainDataSource;
+
+    @Autowired
+    private HikariDataSource streamingDataSource;
+
+    @Test
+    void readOnlyTransactionsUseTheStreamingPool() {
+        assertEquals("1/0", borrowed(true));
+        assertEquals("0/1", borrowed(false));
+    }
+
+    // Active connections in each pool ("streaming/main") while a transaction is running a query
+    private String borrowed(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return streamingDataSource.getHikariPoolMXBean().getActiveConnections() + "/"
+                    + mainDataSource.getHikariPoolMXBean().getActiveConnections();
+        });
+    }
+}
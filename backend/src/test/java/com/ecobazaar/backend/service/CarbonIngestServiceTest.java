@@ -0,0 +1,64 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ecobazaar.backend.dto.CarbonIngestErrorDTO;
+import com.ecobazaar.backend.dto.CarbonIngestResultDTO;
+import com.ecobazaar.backend.model.Product;
+import com.ecobazaar.backend.repository.ProductRepository;
+
+// Bulk footprint uploads: sellers are held to their own products, CSV cells may be quoted
+@SpringBootTest
+@ActiveProfiles("test")
+class CarbonIngestServiceTest {
+
+    @Autowired
+    private CarbonIngestService carbonIngestService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void sellersOnlyUploadForTheirOwnProducts() throws Exception {
+        Long own = newProduct("alice@test.com");
+        Long other = newProduct("bob@test.com");
+        String csv = "productId,userId,carbonFootprint,note\n"
+                + own + ",,1.5,\"washed, dried\"\n"
+                + other + ",,2.0,\n"
+                + own + ",7,3.0,\"says \"\"hi\"\"\"\n";
+
+        CarbonIngestResultDTO seller = upload(csv, "alice@test.com");
+        assertEquals(3, seller.getRows());
+        assertEquals(1, seller.getInserted());
+        assertEquals(List.of(3L, 4L), seller.getErrors().stream().map(CarbonIngestErrorDTO::getLine).toList());
+        assertEquals("Product " + other + " is not one of your products", seller.getErrors().get(0).getMessage());
+        assertEquals("userId can only be set by admins", seller.getErrors().get(1).getMessage());
+
+        CarbonIngestResultDTO admin = upload(csv, null);
+        assertEquals(3, admin.getInserted());
+        assertEquals(0, admin.getRejected());
+    }
+
+    private CarbonIngestResultDTO upload(String csv, String sellerEmail) throws Exception {
+        return carbonIngestService.ingest(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                CarbonIngestParser.CSV, sellerEmail);
+    }
+
+    private Long newProduct(String sellerEmail) {
+        return productRepository.save(Product.builder()
+                .name("Cork Coaster")
+                .price(2.0)
+                .co2Emission(0.1)
+                .sellerEmail(sellerEmail)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ecobazaar.backend.dto.MonthlyTrendDTO;
+import com.ecobazaar.backend.model.Order;
+import com.ecobazaar.backend.repository.CarbonLedgerRepository;
+import com.ecobazaar.backend.repository.OrderRepository;
+
+// Orders saved before the ledger existed are folded into it on the first start, and only then
+@SpringBootTest
+@ActiveProfiles("test")
+class CarbonLedgerServiceTest {
+
+    @Autowired
+    private CarbonLedgerService carbonLedgerService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CarbonLedgerRepository carbonLedgerRepository;
+
+    @Test
+    void anEmptyLedgerIsBackfilledFromOrderHistory() {
+        // Saved straight through the repository, as orders from before the ledger were: no events
+        orderRepository.saveAll(List.of(
+                order("old@test.com", 1.5, LocalDateTime.of(2026, 3, 4, 10, 0)),
+                order("old@test.com", 2.0, LocalDateTime.of(2026, 3, 20, 18, 30)),
+                order("old@test.com", 0.5, LocalDateTime.of(2026, 5, 1, 9, 0)),
+                order("other@test.com", 4.0, LocalDateTime.of(2026, 5, 2, 9, 0))));
+
+        // Other tests share the database and may have filled the ledger already
+        carbonLedgerRepository.deleteAllInBatch();
+        carbonLedgerService.backfill();
+        assertEquals(4.0, carbonLedgerService.getLifetimeSavings("old@test.com"), 1e-9);
+        assertEquals(4.0, carbonLedgerService.getLifetimeSavings("other@test.com"), 1e-9);
+        assertEquals(List.of("2026-03", "2026-05"),
+                carbonLedgerService.getMonthlyTrend("old@test.com").stream().map(MonthlyTrendDTO::getPeriod).toList());
+
+        // Already filled: a later start leaves it alone
+        orderRepository.save(order("old@test.com", 10.0, LocalDateTime.of(2026, 6, 1, 9, 0)));
+        carbonLedgerService.backfill();
+        assertEquals(4.0, carbonLedgerService.getLifetimeSavings("old@test.com"), 1e-9);
+    }
+
+    private static Order order(String email, double co2, LocalDateTime date) {
+        return Order.builder().userEmail(email).totalAmount(10.0).totalCo2Saved(co2).orderDate(date).status("PAID").build();
+    }
+}
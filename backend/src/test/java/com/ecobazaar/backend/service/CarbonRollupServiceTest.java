@@ -0,0 +1,98 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.ecobazaar.backend.dto.CarbonSeriesPointDTO;
+import com.ecobazaar.backend.model.CarbonFootprint;
+import com.ecobazaar.backend.repository.CarbonFootprintRepository;
+import com.ecobazaar.backend.repository.CarbonRollupRepository;
+
+// Rollups recorded as footprints arrive, rebuilt from the raw records, and backfilled on first start
+// all land in the same buckets. The zone is far from UTC so a day boundary falls between them.
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "carbon.rollup.zone=Pacific/Kiritimati"
+})
+class CarbonRollupServiceTest {
+
+    @Autowired
+    private CarbonRollupService carbonRollupService;
+
+    @Autowired
+    private CarbonFootprintRepository carbonFootprintRepository;
+
+    @Autowired
+    private CarbonRollupRepository carbonRollupRepository;
+
+    @Autowired
+    private CarbonService carbonService;
+
+    @Test
+    void recordedRebuiltAndBackfilledRollupsAgree() {
+        // 12:00 UTC on 31 March is already 1 April in UTC+14
+        List<CarbonFootprint> footprints = carbonFootprintRepository.saveAll(List.of(
+                footprint(2.0, "2026-03-31T09:00:00Z"),
+                footprint(4.0, "2026-03-31T12:00:00Z"),
+                footprint(1.0, "2026-04-01T08:00:00Z")));
+        carbonRollupService.record(footprints);
+        List<CarbonSeriesPointDTO> days = days();
+        assertEquals(List.of(LocalDate.of(2026, 3, 31), LocalDate.of(2026, 4, 1)),
+                days.stream().map(CarbonSeriesPointDTO::getBucket).toList());
+        assertEquals(List.of(1L, 2L), days.stream().map(CarbonSeriesPointDTO::getCount).toList());
+        List<CarbonSeriesPointDTO> months = months();
+
+        assertEquals(1, carbonRollupService.rebuild(null));
+        assertEquals(days, days());
+        assertEquals(months, months());
+
+        carbonRollupRepository.deleteAllInBatch();
+        carbonRollupService.backfill();
+        assertEquals(days, days());
+        assertEquals(months, months());
+
+        // Already filled: a later start leaves it alone
+        carbonFootprintRepository.save(footprint(9.0, "2026-03-31T10:00:00Z"));
+        carbonRollupService.backfill();
+        assertEquals(days, days());
+    }
+
+    @Test
+    void undatedRecordsAreDatedWhenSavedAndSurviveARebuild() {
+        // Straight to record(), an undated record is left out, as the rebuild leaves it out
+        carbonRollupService.record(List.of(CarbonFootprint.builder().productId(8L).userId(1L).carbonFootprint(5.0).build()));
+        assertEquals(List.of(), carbonRollupService.getSeries(8L, null, null, "day").getPoints());
+
+        // Saved without a date, it is taken as of now; the default range ends today in the rollup zone
+        carbonService.saveCarbonFootprint(CarbonFootprint.builder().productId(8L).userId(1L).carbonFootprint(3.0).build());
+        List<CarbonSeriesPointDTO> recorded = carbonRollupService.getSeries(8L, null, null, "day").getPoints();
+        assertEquals(List.of(LocalDate.now(ZoneId.of("Pacific/Kiritimati"))), recorded.stream().map(CarbonSeriesPointDTO::getBucket).toList());
+
+        carbonRollupService.rebuild(8L);
+        assertEquals(recorded, carbonRollupService.getSeries(8L, null, null, "day").getPoints());
+    }
+
+    private List<CarbonSeriesPointDTO> days() {
+        return carbonRollupService.getSeries(7L, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 30), "day").getPoints();
+    }
+
+    private List<CarbonSeriesPointDTO> months() {
+        return carbonRollupService.getSeries(7L, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 4, 30), "month").getPoints();
+    }
+
+    private static CarbonFootprint footprint(double value, String at) {
+        return CarbonFootprint.builder().productId(7L).userId(1L).carbonFootprint(value).calculationDate(Date.from(Instant.parse(at))).build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.ecobazaar.backend.model.Product;
+import com.ecobazaar.backend.model.User;
+import com.ecobazaar.backend.repository.ProductRepository;
+import com.ecobazaar.backend.repository.UserRepository;
+
+// A checkout's inserts go out as JDBC batches: the number of INSERT statements Hibernate prepares
+// stays the same whatever the cart size (it used to be one per order item and one per footprint)
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ecobazaar.backend.service.CheckoutStatementCountTest$InsertCounter"
+})
+class CheckoutStatementCountTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void insertStatementsDoNotGrowWithTheCart() {
+        userRepository.save(User.builder().email("batch@test.com").password("Secret#123").fullName("Batch").role("ROLE_USER").build());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("batch@test.com", null, List.of()));
+        List<Long> products = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            products.add(productRepository.save(Product.builder()
+                    .name("Beeswax Wrap " + i).price(6.0).co2Emission(0.3).stockQuantity(100).build()).getId());
+        }
+
+        Map<Integer, Integer> inserts = new HashMap<>();
+        for (int cartSize : new int[] { 1, 10, 40 }) {
+            InsertCounter.INSERTS.set(0);
+            orderService.createOrder(order(products.subList(0, cartSize)));
+            inserts.put(cartSize, InsertCounter.INSERTS.get());
+        }
+
+        // One INSERT per table the checkout writes to, whatever the cart holds (83 for 40 items unbatched)
+        assertTrue(inserts.get(1) <= 8, "inserts for one item: " + inserts);
+        assertEquals(inserts.get(1), inserts.get(10), "inserts by cart size: " + inserts);
+        assertEquals(inserts.get(1), inserts.get(40), "inserts by cart size: " + inserts);
+    }
+
+    private static Map<String, Object> order(List<Long> productIds) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Long id : productIds) {
+            items.add(Map.of("id", id, "name", "Beeswax Wrap", "price", 6.0, "co2Emission", 0.3));
+        }
+        Map<String, Object> order = new HashMap<>();
+        order.put("totalAmount", 6.0 * items.size());
+        order.put("totalCo2", 0.3 * items.size());
+        order.put("items", items);
+        return order;
+    }
+
+    // Hibernate passes every SQL string through here once per prepared statement, so a batch counts once
+    public static class InsertCounter implements StatementInspector {
+        static final AtomicInteger INSERTS = new AtomicInteger();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("insert")) {
+                INSERTS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+// RFC 4180 records: quoting, line ends, blank lines and the line each record starts on
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        CsvReader csv = reader("a,\"b, c\",\"say \"\"hi\"\"\"\r\n\"two\nlines\",,\"\"\n");
+        assertArrayEquals(new String[] { "a", "b, c", "say \"hi\"" }, csv.next());
+        assertEquals(1, csv.getRecordLine());
+        assertArrayEquals(new String[] { "two\nlines", "", "" }, csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void lineEndsAndBlankLines() throws IOException {
+        CsvReader csv = reader("x,y\r\n\r\n\nz,\rlast");
+        assertArrayEquals(new String[] { "x", "y" }, csv.next());
+        assertArrayEquals(new String[] { "z", "" }, csv.next());
+        // Blank lines are skipped but still counted
+        assertEquals(4, csv.getRecordLine());
+        assertArrayEquals(new String[] { "last" }, csv.next());
+        assertEquals(5, csv.getRecordLine());
+        assertNull(csv.next());
+        assertNull(reader("").next());
+    }
+
+    @Test
+    void anUnterminatedQuoteIsAnError() throws IOException {
+        CsvReader csv = reader("ok,1\n\"open,2\nmore\n");
+        assertArrayEquals(new String[] { "ok", "1" }, csv.next());
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, csv::next);
+        assertEquals("Unterminated quoted field starting on line 2", e.getMessage());
+    }
+
+    private static CsvReader reader(String text) {
+        return new CsvReader(new StringReader(text));
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+// What CsvWriter writes, and that CsvReader plus unguard() read it back unchanged
+class CsvWriterTest {
+
+    @Test
+    void valuesAreWrittenPlainlyAndQuotedOnlyWhenNeeded() throws IOException {
+        assertEquals("1.0E-5 kg,0.00001,12000000,true,,2026-03-01T09:30:00\r\n",
+                written("1.0E-5 kg", 1.0E-5, 12_000_000L, true, null, LocalDateTime.of(2026, 3, 1, 9, 30)));
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\",\"two\nlines\"\r\n", written("a,b", "say \"hi\"", "two\nlines"));
+        assertEquals("-2.5,'-10% plastic,'=SUM(A1),'@home,'+1,''-x,'90s\r\n",
+                written(-2.5, "-10% plastic", "=SUM(A1)", "@home", "+1", "'-x", "'90s"));
+    }
+
+    @Test
+    void guardedTextRoundTrips() throws IOException {
+        String[] texts = { "-10% plastic", "=1+1", "@home", "+44 20", "'-x", "''", "'90s", "'", "plain", "a,\"b\"\n-c" };
+        CsvReader csv = new CsvReader(new StringReader(written((Object[]) texts)));
+        String[] read = Arrays.stream(csv.next()).map(CsvWriter::unguard).toArray(String[]::new);
+        assertArrayEquals(texts, read);
+    }
+
+    private static String written(Object... values) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CsvWriter csv = new CsvWriter(out);
+        csv.writeRow(values);
+        csv.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ecobazaar.backend.dto.CartAlternativesDTO;
+import com.ecobazaar.backend.dto.CartLineAlternativesDTO;
+import com.ecobazaar.backend.dto.CartLineRequestDTO;
+import com.ecobazaar.backend.dto.SwapRequestDTO;
+import com.ecobazaar.backend.dto.SwapSuggestionDTO;
+import com.ecobazaar.backend.model.CartItem;
+import com.ecobazaar.backend.model.Product;
+import com.ecobazaar.backend.repository.ProductRepository;
+
+// Whole-cart swaps: greener suggestions per line, and several swaps applied together or not at all
+@SpringBootTest
+@ActiveProfiles("test")
+class GreenSwapServiceTest {
+
+    @Autowired
+    private GreenSwapService greenSwapService;
+
+    @Autowired
+    private GreenerAlternativesIndex alternativesIndex;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private static Long plastic;
+    private static Long bamboo;
+    private static Long steel;
+    private static Long unapproved;
+
+    // Saved once; plain repository writes don't reach the index, so it is rebuilt by hand
+    @BeforeEach
+    void setUp() {
+        if (plastic != null) {
+            return;
+        }
+        plastic = product("Plastic Straws", 5.0, "APPROVED");
+        bamboo = product("Bamboo Straws", 2.0, "APPROVED");
+        steel = product("Steel Straws", 1.0, "APPROVED");
+        unapproved = product("Paper Straws", 0.5, "PENDING");
+        alternativesIndex.rebuild();
+    }
+
+    @Test
+    void suggestsTheGreenestApprovedAlternativesFirst() {
+        Map<Long, Integer> quantities = GreenSwapService.quantitiesOf(List.of(
+                new CartLineRequestDTO(plastic, 1), new CartLineRequestDTO(plastic, null), new CartLineRequestDTO(bamboo, 0)));
+        assertEquals(Map.of(plastic, 2), quantities);
+
+        CartAlternativesDTO alternatives = greenSwapService.suggest(quantities, 2);
+        CartLineAlternativesDTO line = alternatives.getLines().get(0);
+        assertEquals(plastic, line.getProductId());
+        assertEquals(List.of(steel, bamboo), line.getSuggestions().stream().map(SwapSuggestionDTO::getProductId).toList());
+        assertEquals(8.0, line.getSuggestions().get(0).getCo2Saved(), 1e-9);
+        assertEquals(8.0, alternatives.getMaxCo2Saved(), 1e-9);
+        assertEquals(1, greenSwapService.suggest(quantities, 1).getLines().get(0).getSuggestions().size());
+    }
+
+    @Test
+    void badSuggestionRequestsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> greenSwapService.suggest(Map.of(plastic, 1), 0));
+        assertThrows(IllegalArgumentException.class, () -> greenSwapService.suggest(Map.of(plastic, 1), 11));
+        assertThrows(IllegalArgumentException.class, () -> GreenSwapService.quantitiesOf(List.of(new CartLineRequestDTO(null, 1))));
+        assertThrows(IllegalArgumentException.class, () -> GreenSwapService.quantitiesOf(List.of(new CartLineRequestDTO(plastic, -1))));
+        assertThrows(IllegalArgumentException.class, () -> GreenSwapService.quantitiesOf(List.of()));
+    }
+
+    @Test
+    void swapsApplyTogetherOrNotAtAll() {
+        String email = "swapper@test.com";
+        cartStore.addItem(email, line(plastic, 3));
+        cartStore.addItem(email, line(bamboo, 1));
+
+        // Chained: plastic -> bamboo and bamboo -> steel, keeping each line's quantity
+        greenSwapService.applySwaps(email, List.of(
+                new SwapRequestDTO(plastic, bamboo, null), new SwapRequestDTO(bamboo, steel, null)));
+        assertEquals(Map.of(bamboo, 3, steel, 1), quantities(email));
+
+        for (List<SwapRequestDTO> bad : List.of(
+                List.of(new SwapRequestDTO(bamboo, steel, 2), new SwapRequestDTO(steel, unapproved, null)),
+                List.of(new SwapRequestDTO(bamboo, steel, null), new SwapRequestDTO(bamboo, plastic, null)),
+                List.of(new SwapRequestDTO(bamboo, steel, 0)),
+                List.of(new SwapRequestDTO(null, steel, null)))) {
+            assertThrows(IllegalArgumentException.class, () -> greenSwapService.applySwaps(email, bad));
+        }
+        assertThrows(IllegalArgumentException.class, () -> greenSwapService.applySwaps(email, List.of()));
+        assertThrows(CartStore.NotInCartException.class, () -> greenSwapService.applySwaps(email, List.of(
+                new SwapRequestDTO(bamboo, steel, null), new SwapRequestDTO(plastic, steel, null))));
+        assertEquals(Map.of(bamboo, 3, steel, 1), quantities(email));
+    }
+
+    private Map<Long, Integer> quantities(String email) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (CartItem item : cartStore.getCart(email).getItems()) {
+            quantities.put(item.getProductId(), item.getQuantity());
+        }
+        return quantities;
+    }
+
+    private Long product(String name, double co2, String status) {
+        return productRepository.save(Product.builder()
+                .name(name)
+                .category("Kitchen")
+                .price(4.0)
+                .co2Emission(co2)
+                .verificationStatus(status)
+                .build()).getId();
+    }
+
+    private static CartItem line(Long productId, int quantity) {
+        return CartItem.builder().productId(productId).productName("Straws").price(4.0).quantity(quantity).build();
+    }
+}
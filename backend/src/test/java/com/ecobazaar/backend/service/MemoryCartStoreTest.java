@@ -0,0 +1,108 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ecobazaar.backend.model.CartItem;
+
+// The in-memory cart store writes behind to carts/cart_items: what it flushes is what a fresh
+// store (as after a restart) loads back, and a cart that can't be written doesn't hold up the rest
+@SpringBootTest
+@ActiveProfiles("test")
+class MemoryCartStoreTest {
+
+    @Autowired
+    private MemoryCartStore store;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Test
+    void flushedCartsReloadAfterARestart() {
+        store.addItem("reload@test.com", line(1L, 2));
+        store.addItem("reload@test.com", line(2L, 1));
+        store.addItem("reload@test.com", line(1L, 1));
+        store.flush();
+        assertEquals(Map.of(1L, 3, 2L, 1), quantities(restarted(), "reload@test.com"));
+
+        store.setQuantity("reload@test.com", 2L, 5);
+        store.removeItem("reload@test.com", 1L);
+        store.addItem("reload@test.com", line(3L, 1));
+        store.flush();
+        assertEquals(Map.of(2L, 5, 3L, 1), quantities(restarted(), "reload@test.com"));
+
+        store.clear("reload@test.com");
+        store.addItem("reload@test.com", line(4L, 1));
+        store.flush();
+        assertEquals(Map.of(4L, 1), quantities(restarted(), "reload@test.com"));
+    }
+
+    @Test
+    void aCartThatCannotBeWrittenDoesNotBlockTheOthers() {
+        // Longer than the carts.user_email column, so this cart's row can never be inserted
+        String unwritable = "x".repeat(300) + "@test.com";
+        // A store of its own, as the unwritable cart stays dirty in it for good
+        MemoryCartStore isolated = restarted();
+        isolated.addItem("first@test.com", line(1L, 1));
+        isolated.addItem(unwritable, line(1L, 1));
+        isolated.addItem("second@test.com", line(2L, 2));
+        isolated.flush();
+
+        MemoryCartStore restarted = restarted();
+        assertEquals(Map.of(1L, 1), quantities(restarted, "first@test.com"));
+        assertEquals(Map.of(2L, 2), quantities(restarted, "second@test.com"));
+        assertEquals(Map.of(), quantities(restarted, unwritable));
+        // Still in memory, and retried on every flush
+        assertEquals(Map.of(1L, 1), quantities(isolated, unwritable));
+    }
+
+    @Test
+    void linesTheTablesCannotHoldAreRejected() {
+        store.addItem("checks@test.com", line(1L, 1));
+        CartItem longName = line(2L, 1);
+        longName.setProductName("n".repeat(256));
+        CartItem negativePrice = line(2L, 1);
+        negativePrice.setPrice(-1.0);
+        CartItem nanCo2 = line(2L, 1);
+        nanCo2.setCo2Emission(Double.NaN);
+        CartItem noProduct = line(null, 1);
+        for (CartItem bad : new CartItem[] { longName, negativePrice, nanCo2, noProduct }) {
+            assertThrows(IllegalArgumentException.class, () -> store.addItem("checks@test.com", bad));
+            assertThrows(IllegalArgumentException.class, () -> store.swapItem("checks@test.com", 1L, bad));
+        }
+        assertEquals(Map.of(1L, 1), quantities(store, "checks@test.com"));
+    }
+
+    // A second store over the same tables, with nothing in memory
+    private MemoryCartStore restarted() {
+        return beanFactory.createBean(MemoryCartStore.class);
+    }
+
+    private static Map<Long, Integer> quantities(MemoryCartStore store, String email) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (CartItem item : store.getCart(email).getItems()) {
+            quantities.put(item.getProductId(), item.getQuantity());
+        }
+        return quantities;
+    }
+
+    private static CartItem line(Long productId, int quantity) {
+        return CartItem.builder()
+                .productId(productId)
+                .productName("Loofah Sponge")
+                .price(4.0)
+                .co2Emission(0.1)
+                .category("Home")
+                .quantity(quantity)
+                .build();
+    }
+}
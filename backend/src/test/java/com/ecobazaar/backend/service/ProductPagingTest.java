@@ -0,0 +1,137 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.ecobazaar.backend.dto.ProductPageDTO;
+import com.ecobazaar.backend.model.Product;
+import com.ecobazaar.backend.repository.ProductRepository;
+
+// Walks the keyset-paginated catalog page by page, and feeds it cursors it never issued.
+// Other tests share the database, so only this test's products are looked at.
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductPagingTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private static final List<Long> ids = new ArrayList<>();
+
+    // Saved once: pages are cached, and plain repository writes don't evict them
+    @BeforeEach
+    void setUp() {
+        if (!ids.isEmpty()) {
+            return;
+        }
+        double[] co2 = { 3.5, 0.2, 7.0, 0.2, 1.25, 9.0, 4.0, 0.2, 12.5, 1.0E-5 };
+        for (int i = 0; i < co2.length; i++) {
+            ids.add(productRepository.save(product(5.0 + i % 3, co2[i])).getId());
+        }
+        ids.add(productRepository.save(Product.builder().name("Bamboo Toothbrush").category("Health").price(3.0).co2Emission(0.5)
+                .isEcoFriendly(true).verificationStatus("APPROVED").build()).getId());
+        ids.add(productRepository.save(Product.builder().name("Steel Bottle").category("Home").price(12.0).co2Emission(2.0)
+                .isEcoFriendly(true).verificationStatus("PENDING").build()).getId());
+        ids.add(productRepository.save(Product.builder().name("100%_Cotton Tote").category("Fashion").price(8.0).co2Emission(1.5)
+                .build()).getId());
+    }
+
+    @Test
+    void pagesCoverEveryProductOnceInOrder() {
+        for (int size : new int[] { 1, 3, 7, 10, 50 }) {
+            for (String order : List.of("asc", "desc")) {
+                List<Product> byCo2 = walk("co2Emission", order, size);
+                assertEquals(new HashSet<>(ids), new HashSet<>(byCo2.stream().map(Product::getId).toList()));
+                assertEquals(ids.size(), byCo2.size());
+                for (int i = 1; i < byCo2.size(); i++) {
+                    int step = Double.compare(byCo2.get(i - 1).getCo2Emission(), byCo2.get(i).getCo2Emission());
+                    assertFalse(order.equals("asc") ? step > 0 : step < 0);
+                }
+                assertEquals(ids.size(), walk("price", order, size).size());
+                assertEquals(ids.size(), walk("id", order, size).size());
+            }
+        }
+    }
+
+    @Test
+    void filtersApplyAcrossEveryPage() {
+        for (int size : new int[] { 1, 4, 50 }) {
+            assertEquals(10, walk("co2Emission", "asc", size, "JUTE", null, true).size());
+            assertEquals(ids.size() - 1, walk("price", "desc", size, null, null, true).size());
+            assertEquals(List.of("Steel Bottle"), names(walk("id", "asc", size, "bottle", null, false)));
+            assertEquals(List.of(), walk("id", "asc", size, "bottle", null, true));
+            assertEquals(List.of("Bamboo Toothbrush"), names(walk("id", "asc", size, " ", "Health", true)));
+            assertEquals(List.of("100%_Cotton Tote"), names(walk("id", "asc", size, "%", null, true)));
+            assertEquals(List.of(), walk("id", "asc", size, "0%c", null, true));
+        }
+    }
+
+    @Test
+    void badCursorsAreRejected() {
+        for (String cursor : List.of("%%%", "not base64!", encode("price:asc"), encode("price:asc:abc:1"),
+                encode("co2Emission:asc:null:3"), encode("name:asc:1:1"), encode("price:asc:1.0:"), encode("id:asc:1:x"))) {
+            assertThrows(IllegalArgumentException.class, () -> productService.getProductPage("id", "asc", cursor, 5));
+        }
+        assertThrows(IllegalArgumentException.class, () -> productService.getProductPage("name", "asc", null, 5));
+    }
+
+    @Test
+    void cachedProductsCannotBeChangedByCallers() {
+        Product first = productService.getProductPage("id", "asc", null, 3, "jute", null, false).getItems().get(0);
+        first.setPrice(999.0);
+        first.getImageUrls().add("tampered.png");
+        Product again = productService.getProductPage("id", "asc", null, 3, "jute", null, false).getItems().get(0);
+        assertEquals(first.getId(), again.getId());
+        assertEquals(5.0, again.getPrice());
+        assertEquals(List.of(), again.getImageUrls());
+
+        productService.getProductById(ids.get(1)).setName("Tampered");
+        assertEquals("Jute Bag", productService.getProductById(ids.get(1)).getName());
+    }
+
+    private List<Product> walk(String sort, String order, int size) {
+        return walk(sort, order, size, null, null, false);
+    }
+
+    private List<Product> walk(String sort, String order, int size, String query, String category, boolean shopOnly) {
+        List<Product> seen = new ArrayList<>();
+        String cursor = null;
+        for (int pages = 0; pages < 20; pages++) {
+            ProductPageDTO page = productService.getProductPage(sort, order, cursor, size, query, category, shopOnly);
+            page.getItems().stream().filter(product -> ids.contains(product.getId())).forEach(seen::add);
+            if (!page.isHasMore()) {
+                return seen;
+            }
+            cursor = page.getNextCursor();
+        }
+        throw new AssertionError("Paging did not end");
+    }
+
+    private static List<String> names(List<Product> products) {
+        return products.stream().map(Product::getName).toList();
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Product product(Double price, Double co2) {
+        return Product.builder().name("Jute Bag").category("Home").price(price).co2Emission(co2).build();
+    }
+}
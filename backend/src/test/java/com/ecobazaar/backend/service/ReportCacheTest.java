@@ -0,0 +1,144 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+// A missed report streams to its client as it renders, is rendered once however many clients ask
+// for it at the same time, and is served from memory or a spill file afterwards
+class ReportCacheTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void aMissStreamsWhileItRenders() throws Exception {
+        ReportCache cache = cache();
+        ByteArrayOutputStream client = new ByteArrayOutputStream();
+        ReportCache.CachedReport report = cache.get("user|a", "v1", out -> {
+            out.write(bytes(100, 1));
+            out.flush();
+            // The first bytes reached the client before the render is done
+            assertEquals(100, client.size());
+            out.write(bytes(100, 2));
+        });
+        assertNull(report.getLength());
+        report.writeTo(client);
+        assertEquals(200, client.size());
+
+        ReportCache.CachedReport cached = cache.get("user|a", "v1", out -> {
+            throw new AssertionError("rendered again");
+        });
+        assertEquals(200L, cached.getLength());
+        assertArrayEquals(client.toByteArray(), written(cached));
+    }
+
+    @Test
+    void concurrentMissesRenderOnce() throws Exception {
+        ReportCache cache = cache();
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch rendering = new CountDownLatch(1);
+        ReportCache.ReportWriter slow = out -> {
+            renders.incrementAndGet();
+            rendering.countDown();
+            out.write(bytes(5000, 7));
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            out.write(bytes(5000, 8));
+        };
+
+        List<ReportCache.CachedReport> reports = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            reports.add(cache.get("platform", "v1", slow));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> bodies = new ArrayList<>();
+            bodies.add(pool.submit(() -> written(reports.get(0))));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            for (ReportCache.CachedReport report : reports.subList(1, reports.size())) {
+                bodies.add(pool.submit(() -> written(report)));
+            }
+            byte[] first = bodies.get(0).get(10, TimeUnit.SECONDS);
+            assertEquals(10_000, first.length);
+            for (Future<byte[]> body : bodies) {
+                assertArrayEquals(first, body.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    void aNewFingerprintRendersAgainAndBigReportsSpill() throws Exception {
+        ReportCache cache = cache();
+        written(cache.get("platform", "v1", out -> out.write(bytes(10, 1))));
+        byte[] big = bytes(50_000, 3);
+        assertArrayEquals(big, written(cache.get("platform", "v2", out -> out.write(big))));
+
+        ReportCache.CachedReport cached = cache.get("platform", "v2", out -> {
+            throw new AssertionError("rendered again");
+        });
+        assertEquals(50_000L, cached.getLength());
+        assertArrayEquals(big, written(cached));
+        assertEquals(1L, ((Number) ((Map<?, ?>) cache.getStats().get("disk")).get("size")).longValue());
+    }
+
+    @Test
+    void aClientThatLeavesStillLeavesTheReportCached() throws Exception {
+        ReportCache cache = cache();
+        OutputStream gone = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        ReportCache.CachedReport report = cache.get("user|b", "v1", out -> out.write(bytes(64, 9)));
+        assertThrows(IOException.class, () -> report.writeTo(gone));
+
+        assertArrayEquals(bytes(64, 9), written(cache.get("user|b", "v1", out -> {
+            throw new AssertionError("rendered again");
+        })));
+    }
+
+    private ReportCache cache() throws IOException {
+        return new ReportCache(DataSize.ofMegabytes(1), DataSize.ofKilobytes(16), DataSize.ofMegabytes(10), directory.toString());
+    }
+
+    private static byte[] written(ReportCache.CachedReport report) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        report.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static byte[] bytes(int length, int value) {
+        byte[] bytes = new byte[length];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+}
@@ -0,0 +1,188 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.ecobazaar.backend.dto.ProductFilterDTO;
+import com.ecobazaar.backend.model.Product;
+import com.ecobazaar.backend.model.StockReservation;
+import com.ecobazaar.backend.repository.ProductRepository;
+
+// Hammers one product from hundreds of buyers at once and checks stock never goes below zero
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.hikari.maximum-pool-size=32"
+})
+class StockReservationConcurrencyTest {
+
+    private static final int BUYERS = 300;
+
+    @Autowired
+    private StockReservationService stockReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductFacetIndex productFacetIndex;
+
+    @Autowired
+    private ProductSearchIndex productSearchIndex;
+
+    @Autowired
+    private GreenerAlternativesIndex greenerAlternativesIndex;
+
+    @Test
+    void concurrentBuyersNeverOversell() throws Exception {
+        Long productId = newProduct(50);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(buyer -> {
+            try {
+                stockReservationService.reserve("buyer" + buyer + "@test.com", Map.of(productId, 1), false);
+                sold.incrementAndGet();
+            } catch (StockReservationService.OutOfStockException e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertEquals(50, sold.get());
+        assertEquals(BUYERS - 50, rejected.get());
+        assertEquals(0, productRepository.findStockQuantityById(productId));
+    }
+
+    @Test
+    void partialFillsNeverExceedStock() throws Exception {
+        Long productId = newProduct(100);
+        AtomicInteger reserved = new AtomicInteger();
+
+        runConcurrently(buyer -> {
+            try {
+                StockReservation reservation = stockReservationService.reserve(
+                        "buyer" + buyer + "@test.com", Map.of(productId, 3), true);
+                int got = reservation.getLines().get(0).getReserved();
+                assertTrue(got >= 1 && got <= 3);
+                reserved.addAndGet(got);
+            } catch (StockReservationService.OutOfStockException e) {
+                // sold out before this buyer got anything
+            }
+        });
+
+        assertEquals(100, reserved.get());
+        assertEquals(0, productRepository.findStockQuantityById(productId));
+    }
+
+    @Test
+    void releasingAHoldReturnsItsStock() {
+        Long productId = newProduct(10);
+        StockReservation reservation = stockReservationService.reserve("buyer@test.com", Map.of(productId, 4), false);
+        assertEquals(6, productRepository.findStockQuantityById(productId));
+
+        assertTrue(!stockReservationService.release(reservation.getId(), "someone-else@test.com"));
+        assertTrue(stockReservationService.release(reservation.getId(), "buyer@test.com"));
+        assertTrue(!stockReservationService.release(reservation.getId(), "buyer@test.com"));
+        assertEquals(10, productRepository.findStockQuantityById(productId));
+    }
+
+    @Test
+    void aNewCheckoutGivesBackTheBuyersPreviousHold() {
+        Long productId = newProduct(10);
+        StockReservation first = stockReservationService.reserve("repeat@test.com", Map.of(productId, 4), false);
+        stockReservationService.reserve("repeat@test.com", Map.of(productId, 3), false);
+
+        assertEquals(7, productRepository.findStockQuantityById(productId));
+        assertTrue(!stockReservationService.release(first.getId(), "repeat@test.com"));
+    }
+
+    @Test
+    void invalidQuantitiesAreRejectedBeforeAnythingIsHeld() {
+        Long productId = newProduct(1000);
+        assertThrows(IllegalArgumentException.class,
+                () -> stockReservationService.reserve("greedy@test.com", Map.of(productId, 0), false));
+        assertThrows(IllegalArgumentException.class,
+                () -> stockReservationService.reserve("greedy@test.com", Map.of(productId, -5), false));
+        assertThrows(IllegalArgumentException.class,
+                () -> stockReservationService.reserve("greedy@test.com", Map.of(productId, 51), true));
+        assertThrows(IllegalArgumentException.class,
+                () -> stockReservationService.reserve("greedy@test.com", Map.of(), false));
+        assertThrows(StockReservationService.OutOfStockException.class,
+                () -> stockReservationService.reserve("greedy@test.com", Map.of(newProduct(2), 3), false));
+        assertEquals(1000, productRepository.findStockQuantityById(productId));
+    }
+
+    @Test
+    void inMemoryCatalogFollowsStock() {
+        Long productId = productService.addProduct(Product.builder()
+                .name("Loofah Sponge")
+                .category("Stockcheck")
+                .price(3.0)
+                .co2Emission(0.1)
+                .stockQuantity(10)
+                .build(), "seller@test.com").getId();
+        assertEquals(10, productService.getProductById(productId).getStockQuantity());
+
+        StockReservation reservation = stockReservationService.reserve("sponge@test.com", Map.of(productId, 4), false);
+        assertCatalogStock(productId, 6);
+        stockReservationService.release(reservation.getId(), "sponge@test.com");
+        assertCatalogStock(productId, 10);
+    }
+
+    private void assertCatalogStock(Long productId, int expected) {
+        ProductFilterDTO filter = new ProductFilterDTO();
+        filter.setCategory(List.of("Stockcheck"));
+        assertEquals(expected, productService.getProductById(productId).getStockQuantity());
+        assertEquals(expected, productFacetIndex.query(filter).getItems().get(0).getStockQuantity());
+        assertEquals(expected, productSearchIndex.search("loofah", 5).getItems().get(0).getStockQuantity());
+        assertEquals(expected, greenerAlternativesIndex.get(productId).getStockQuantity());
+    }
+
+    private Long newProduct(int stock) {
+        return productRepository.save(Product.builder()
+                .name("Bamboo Toothbrush")
+                .price(4.0)
+                .co2Emission(0.2)
+                .stockQuantity(stock)
+                .build()).getId();
+    }
+
+    private void runConcurrently(java.util.function.IntConsumer buyer) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            int id = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                buyer.accept(id);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecobazaar.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.ecobazaar.backend.dto.TopProductDTO;
+import com.ecobazaar.backend.event.OrderCreatedEvent;
+import com.ecobazaar.backend.model.Order;
+import com.ecobazaar.backend.model.OrderItem;
+import com.ecobazaar.backend.repository.OrderItemRepository;
+import com.ecobazaar.backend.repository.OrderRepository;
+
+// Orders that arrive while a rebuild reads the history count once, whether or not the read saw them
+@SpringBootTest
+@ActiveProfiles("test")
+class TopProductsTrackerTest {
+
+    @Autowired
+    private TopProductsTracker tracker;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Test
+    void ordersArrivingDuringARebuildCountOnce() {
+        // Saved before the rebuild, but its event only arrives while the history is being read
+        Order seen = orderRepository.save(order(null, 501L));
+        // Not in the database yet when the history is read; its id sorts below every saved one,
+        // as an order that took its id early and committed late
+        Order unseen = order(0L, 502L);
+
+        OrderItemRepository reading = (OrderItemRepository) Proxy.newProxyInstance(
+                OrderItemRepository.class.getClassLoader(), new Class<?>[] { OrderItemRepository.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("getEcoProductTotals")) {
+                        tracker.onOrderCreated(new OrderCreatedEvent(seen, null));
+                        tracker.onOrderCreated(new OrderCreatedEvent(unseen, null));
+                    }
+                    try {
+                        return method.invoke(orderItemRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        ReflectionTestUtils.setField(tracker, "orderItemRepository", reading);
+        try {
+            tracker.rebuild();
+        } finally {
+            ReflectionTestUtils.setField(tracker, "orderItemRepository", orderItemRepository);
+        }
+
+        assertEquals(Map.of(501L, 1L, 502L, 1L), units("all"));
+        assertEquals(Map.of(501L, 1L, 502L, 1L), units("7d"));
+    }
+
+    private Map<Long, Long> units(String window) {
+        // Other tests share the database, so only this test's products are looked at
+        return tracker.getTop(window, TopProductsTracker.MAX_K, null).stream()
+                .filter(product -> product.getProductId() == 501L || product.getProductId() == 502L)
+                .collect(Collectors.toMap(TopProductDTO::getProductId, TopProductDTO::getUnitsSold));
+    }
+
+    private static Order order(Long id, Long productId) {
+        List<OrderItem> items = new ArrayList<>();
+        items.add(OrderItem.builder().productId(productId).productName("Jute Bag").price(5.0)
+                .co2Emission(1.5).isEcoFriendly(true).build());
+        return Order.builder().id(id).userEmail("buyer@test.com").totalAmount(5.0).totalCo2Saved(1.5)
+                .orderDate(LocalDateTime.now()).status("PAID").items(items).build();
+    }
+}
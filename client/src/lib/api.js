@@ -22,8 +22,22 @@ export const user = {
 }
 
 export const productApi = {
+    // Every product, for the admin console's moderation lists; walks the cursor pages until the
+    // server says there are no more. The storefront pages through getPage instead.
     getAll: async () => {
-        const { data } = await axiosInstance.get('/products');
+        const products = [];
+        let cursor = null;
+        do {
+            const { data } = await axiosInstance.get('/products', { params: { size: 100, cursor } });
+            products.push(...data.items);
+            cursor = data.hasMore ? data.nextCursor : null;
+        } while (cursor);
+        return products;
+    },
+
+    // q, category and shop (only what the storefront may show) are applied by the server on every page
+    getPage: async ({ sort = 'id', order = 'asc', cursor, size, q, category, shop } = {}) => {
+        const { data } = await axiosInstance.get('/products', { params: { sort, order, cursor, size, q, category, shop } });
         return data;
     },
 
@@ -32,6 +46,13 @@ export const productApi = {
         return data;
     },
 
+    // Bulk import from a .csv or .ndjson file; returns { rows, imported, rejected, errors, ... }
+    importFile: async (file) => {
+        const contentType = file.name.toLowerCase().endsWith('.csv') ? 'text/csv' : 'application/x-ndjson';
+        const { data } = await axiosInstance.post('/products/import', file, { headers: { 'Content-Type': contentType } });
+        return data;
+    },
+
     update: async ({ id, product }) => {
         const { data } = await axiosInstance.put(`/products/${id}`, product);
         return data;
@@ -68,8 +89,14 @@ export const analyticsApi = {
 }
 
 export const carbonApi = {
-    getForUser: async (userId) => {
-        const { data } = await axiosInstance.get(`/carbon/user/${userId}`);
+    // One page of history, newest first; params: { from, to, cursor, size }. Returns { items, nextCursor, hasMore }
+    getForUser: async (userId, params = {}) => {
+        const { data } = await axiosInstance.get(`/carbon/user/${userId}`, { params });
+        return data;
+    },
+    // Chart points for a product; params: { from, to, granularity: 'auto' | 'day' | 'month' }
+    getProductSeries: async (productId, params = {}) => {
+        const { data } = await axiosInstance.get(`/carbon/product/${productId}/series`, { params });
         return data;
     },
 }
@@ -79,4 +106,27 @@ export const achievementApi = {
         const { data } = await axiosInstance.get(`/achievements/user/${userId}`);
         return data;
     },
-}
\ No newline at end of file
+}
+export const reportApi = {
+    // Reports render in the background: submit a job, poll until it is READY, then save the PDF
+    download: async (submitPath, fileName) => {
+        let { data: job } = await axiosInstance.post(submitPath);
+        while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+            await new Promise((resolve) => setTimeout(resolve, 1000));
+            ({ data: job } = await axiosInstance.get(`/reports/jobs/${job.id}`));
+        }
+        if (job.status !== 'READY') {
+            throw new Error(job.error || 'Report could not be generated');
+        }
+
+        const res = await axiosInstance.get(`/reports/jobs/${job.id}/download`, { responseType: 'blob' });
+        const url = window.URL.createObjectURL(new Blob([res.data]));
+        const link = document.createElement('a');
+        link.href = url;
+        link.setAttribute('download', fileName);
+        document.body.appendChild(link);
+        link.click();
+        link.parentNode.removeChild(link);
+        window.URL.revokeObjectURL(url);
+    },
+}
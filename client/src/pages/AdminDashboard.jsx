@@ -4,7 +4,7 @@ import { motion, AnimatePresence } from 'framer-motion';
 import { BarChart, Bar, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContainer } from 'recharts';
 import axiosInstance from '../lib/axios';
 import { useMutation, useQuery, useQueryClient } from '@tanstack/react-query';
-import { productApi } from '../lib/api';
+import { productApi, reportApi } from '../lib/api';
 import { useNavigate } from 'react-router-dom';
 
 const AdminDashboard = () => {
@@ -73,14 +73,7 @@ const AdminDashboard = () => {
 
     const handleDownloadPlatformReport = async () => {
         try {
-            const res = await axiosInstance.get('/analytics/admin/report/download', { responseType: 'blob' });
-            const url = window.URL.createObjectURL(new Blob([res.data]));
-            const link = document.createElement('a');
-            link.href = url;
-            link.setAttribute('download', 'EcoBazaar_Platform_Report.pdf');
-            document.body.appendChild(link);
-            link.click();
-            link.parentNode.removeChild(link);
+            await reportApi.download('/analytics/admin/report/jobs', 'EcoBazaar_Platform_Report.pdf');
         } catch (err) {
             alert("Failed to generate report.");
         }
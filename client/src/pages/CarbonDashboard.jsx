@@ -1,5 +1,5 @@
 import React, { useState, useEffect } from 'react';
-import { useQuery } from '@tanstack/react-query';
+import { useInfiniteQuery } from '@tanstack/react-query';
 import { carbonApi, user } from '../lib/api';
 import { Leaf } from 'lucide-react';
 import { useNavigate } from 'react-router-dom';
@@ -17,11 +17,14 @@ const CarbonDashboard = () => {
         }
     }, [navigate]);
 
-    const { data: carbonData = [], isLoading } = useQuery({
+    const { data, isLoading, fetchNextPage, hasNextPage, isFetchingNextPage } = useInfiniteQuery({
         queryKey: ['carbonFootprint', userId],
-        queryFn: () => carbonApi.getForUser(userId),
+        queryFn: ({ pageParam }) => carbonApi.getForUser(userId, { cursor: pageParam, size: 50 }),
+        initialPageParam: null,
+        getNextPageParam: (lastPage) => (lastPage.hasMore ? lastPage.nextCursor : undefined),
         enabled: !!userId, // only run query if userId is available
     });
+    const carbonData = data ? data.pages.flatMap(page => page.items) : [];
 
     return (
         <div className="min-h-screen bg-slate-950 text-slate-200 font-sans pb-12">
@@ -44,6 +47,7 @@ const CarbonDashboard = () => {
                     {isLoading ? (
                         <p>Loading your carbon history...</p>
                     ) : carbonData && carbonData.length > 0 ? (
+                        <>
                         <table className="w-full text-left">
                             <thead>
                                 <tr className="border-b border-slate-800">
@@ -62,6 +66,18 @@ const CarbonDashboard = () => {
                                 ))}
                             </tbody>
                         </table>
+                        {hasNextPage && (
+                            <div className="flex justify-center mt-6">
+                                <button
+                                    onClick={() => fetchNextPage()}
+                                    disabled={isFetchingNextPage}
+                                    className="px-4 py-2 rounded-lg bg-emerald-600 hover:bg-emerald-500 text-white disabled:opacity-50"
+                                >
+                                    {isFetchingNextPage ? 'Loading...' : 'Load more'}
+                                </button>
+                            </div>
+                        )}
+                        </>
                     ) : (
                         <div className="flex items-center justify-center h-full text-slate-500">
                             <p>No carbon history yet. Your carbon footprint from purchases will appear here.</p>
@@ -74,6 +74,7 @@ const Checkout = () => {
     
     const [isConfirmed, setIsConfirmed] = useState(false);
     const [clientSecret, setClientSecret] = useState("");
+    const [reservationId, setReservationId] = useState(null);
     const [isCheckingOut, setIsCheckingOut] = useState(false);
 
     const [shippingAddress, setShippingAddress] = useState("");
@@ -91,13 +92,20 @@ const Checkout = () => {
     const handleInitializePayment = async () => {
         setIsCheckingOut(true);
         try {
+            // Sending the items holds their stock until the order is placed (or the hold times out)
             const res = await axiosInstance.post('/payment/create-payment-intent', {
-                amount: calculateTotalPrice()
+                amount: calculateTotalPrice(),
+                items: cart
             });
+            setReservationId(res.data.reservationId);
             setClientSecret(res.data.clientSecret);
         } catch (error) {
             console.error("Failed to initialize Stripe", error);
-            alert("Payment system is currently unavailable.");
+            if (error.response?.status === 409) {
+                alert("Some items in your cart are out of stock.");
+            } else {
+                alert("Payment system is currently unavailable.");
+            }
             setIsCheckingOut(false);
         }
     };
@@ -108,7 +116,8 @@ const Checkout = () => {
             items: cart,
             totalAmount: calculateTotalPrice(),
             totalCo2: calculateTotalImpact(),
-            shippingAddress: shippingAddress
+            shippingAddress: shippingAddress,
+            reservationId: reservationId
         };
         createOrderMutation.mutate(orderPayload);
     };
@@ -3,6 +3,7 @@ import axios from 'axios';
 import { Plus, Trash, Leaf, Package, Activity, AlertCircle, CheckCircle, Store, LogOut } from 'lucide-react';
 import { motion, AnimatePresence } from 'framer-motion';
 import axiosInstance from '../lib/axios';
+import { productApi } from '../lib/api';
 import { useMutation, useQuery, useQueryClient } from '@tanstack/react-query';
 import { useNavigate } from 'react-router-dom';
 
@@ -43,6 +44,22 @@ const SellerDashboard = () => {
         onSuccess: () => queryClient.invalidateQueries(['sellerProducts'])
     });
 
+    const importMutation = useMutation({
+        mutationFn: productApi.importFile,
+        onSuccess: (report) => {
+            queryClient.invalidateQueries(['sellerProducts']);
+            const problems = report.errors.slice(0, 5).map(e => `Line ${e.line}: ${e.message}`).join('\n');
+            alert(`Imported ${report.imported} of ${report.rows} products.${problems ? '\n\n' + problems : ''}`);
+        },
+        onError: (err) => alert(err.response?.data || 'Import failed.')
+    });
+
+    const handleImportFile = (e) => {
+        const file = e.target.files[0];
+        if (file) importMutation.mutate(file);
+        e.target.value = '';
+    };
+
     const handleChange = (e) => {
         const value = e.target.type === 'checkbox' ? e.target.checked : e.target.value;
         setFormData({ ...formData, [e.target.name]: value });
@@ -156,7 +173,13 @@ const SellerDashboard = () => {
 
                 {/* RIGHT COLUMN: Seller's Inventory Grid */}
                 <div className="lg:col-span-8">
-                    <h2 className="text-2xl font-bold mb-6">My Inventory</h2>
+                    <div className="flex justify-between items-center mb-6">
+                        <h2 className="text-2xl font-bold">My Inventory</h2>
+                        <label className="cursor-pointer bg-slate-800 hover:bg-slate-700 text-slate-200 text-sm font-medium px-4 py-2 rounded-xl transition-all">
+                            {importMutation.isPending ? 'Importing...' : 'Import CSV / NDJSON'}
+                            <input type="file" accept=".csv,.ndjson,.jsonl" onChange={handleImportFile} disabled={importMutation.isPending} className="hidden" />
+                        </label>
+                    </div>
                     {isLoading ? <div className="text-blue-400 animate-pulse">Loading inventory...</div> : myProducts.length === 0 ? (
                         <div className="text-center text-slate-500 py-20 border border-dashed border-slate-800 rounded-2xl">
                             <Package className="w-12 h-12 mx-auto mb-4 opacity-50" />
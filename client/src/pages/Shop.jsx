@@ -2,31 +2,43 @@ import React, { useState, useEffect } from 'react';
 import { ShoppingCart, Leaf, X, Search, Activity, Package, LogOut } from 'lucide-react';
 import { motion } from 'framer-motion';
 import { Link, useNavigate } from 'react-router-dom'
-import { useQuery, useQueryClient } from '@tanstack/react-query';
+import { useInfiniteQuery, keepPreviousData } from '@tanstack/react-query';
 import { productApi } from '../lib/api';
 import { useCart } from '../context/CartContext';
 
 const Shop = () => {
     const [isCartOpen, setIsCartOpen] = useState(false);
     const [searchTerm, setSearchTerm] = useState('');
+    const [debouncedSearch, setDebouncedSearch] = useState('');
     const [selectedCategory, setSelectedCategory] = useState('All');
     const navigate = useNavigate();
     const { cart, addToCart, removeFromCart, calculateTotalImpact } = useCart();
 
     const categories = ["All", "Home & Kitchen", "Fashion", "Health & Beauty", "Tech & Gadgets", "Groceries"];
 
-    const queryClient = useQueryClient();
+    // Wait for a pause in typing before asking the server
+    useEffect(() => {
+        const timer = setTimeout(() => setDebouncedSearch(searchTerm.trim()), 300);
+        return () => clearTimeout(timer);
+    }, [searchTerm]);
 
-    const {data: products = [], isLoading: loading} = useQuery({
-        queryKey: ['products'],
-        queryFn: productApi.getAll,
-        onSuccess: () => {
-            queryClient.invalidateQueries(['products']);
-        },
-        onError: (error) => {
-            console.error('Error fetching products:', error);
-        }
+    // One page of the catalog at a time; "Load more" asks for the next. Search, category and the
+    // approval rule (eco-friendly products only once an admin has APPROVED them) run on the server,
+    // so every page is full and a match on a page not loaded yet is still found.
+    const { data, isLoading: loading, fetchNextPage, hasNextPage, isFetchingNextPage } = useInfiniteQuery({
+        queryKey: ['products', 'shop', debouncedSearch, selectedCategory],
+        queryFn: ({ pageParam }) => productApi.getPage({
+            cursor: pageParam,
+            size: 24,
+            q: debouncedSearch || undefined,
+            category: selectedCategory === 'All' ? undefined : selectedCategory,
+            shop: true,
+        }),
+        initialPageParam: null,
+        getNextPageParam: (lastPage) => (lastPage.hasMore ? lastPage.nextCursor : undefined),
+        placeholderData: keepPreviousData,
     });
+    const products = data ? data.pages.flatMap(page => page.items) : [];
 
     const handleLogout = () => {
         localStorage.removeItem('token');
@@ -34,23 +46,6 @@ const Shop = () => {
         navigate('/login');
     };
 
-    const filteredProducts = products.filter(product => {
-        // If a product claims to be eco-friendly, it MUST be APPROVED by admin to be shown in the shop.
-        // Standard products (isEcoFriendly = false) are shown automatically.
-        const isVerified = !product.isEcoFriendly || product.verificationStatus === 'APPROVED';
-        
-        if (!isVerified) return false; 
-
-        const safeName = product.name || "";
-        const safeCategory = product.category || "";
-        const search = searchTerm.toLowerCase();
-        
-        const matchesSearch = safeName.toLowerCase().includes(search);
-        const matchesCategory = selectedCategory === "All" || safeCategory === selectedCategory;
-
-        return matchesSearch && matchesCategory;
-    });
-
     return (
         <div className="min-h-screen bg-slate-950 text-white font-sans relative overflow-x-hidden">
             {/* Navbar */}
@@ -145,12 +140,12 @@ const Shop = () => {
 
                 {/* Products Grid */}
                 <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 xl:grid-cols-4 gap-8">
-                    {filteredProducts.length === 0 ? (
+                    {products.length === 0 ? (
                         <div className="col-span-full text-center text-slate-500 py-10">
                             No products found matching "{searchTerm}"
                         </div>
                     ) : (
-                        filteredProducts.map((product) => (
+                        products.map((product) => (
                             <motion.div key={product.id} layout className="group relative bg-slate-900 border border-white/5 rounded-2xl overflow-hidden hover:border-green-500/50 transition-all duration-300 hover:shadow-2xl hover:shadow-green-900/20">
                                 <div className="h-48 md:h-64 overflow-hidden relative">
                                     <Link to={`/product/${product.id}`} className="h-48 md:h-64 overflow-hidden relative block">
@@ -187,6 +182,18 @@ const Shop = () => {
                         ))
                     )}
                 </div>
+
+                {hasNextPage && (
+                    <div className="flex justify-center mt-12">
+                        <button
+                            onClick={() => fetchNextPage()}
+                            disabled={isFetchingNextPage}
+                            className="px-6 py-3 rounded-full bg-slate-800 border border-slate-700 hover:border-green-500 text-slate-300 hover:text-white font-medium transition-all disabled:opacity-50"
+                        >
+                            {isFetchingNextPage ? 'Loading...' : 'Load more'}
+                        </button>
+                    </div>
+                )}
             </div>
 
             {/* Simple Cart Drawer */}
@@ -3,6 +3,7 @@ import { AreaChart, Area, XAxis, YAxis, CartesianGrid, Tooltip, ResponsiveContai
 import { useNavigate } from 'react-router-dom'; 
 import { ArrowLeft, Download } from 'lucide-react';
 import axiosInstance from "../lib/axios"
+import { reportApi } from "../lib/api";
 
 const UserDashboard = () => {
     const navigate = useNavigate();
@@ -44,23 +45,8 @@ const UserDashboard = () => {
 
     const handleDownloadReport = async () => {
         try {
-            // We MUST specify responseType 'blob' to handle binary file data securely with Axios
-            const res = await axiosInstance.get('/analytics/user/report/download', {
-                responseType: 'blob' 
-            });
-            
-            // Create a temporary URL to trigger the browser's download behavior
-            const url = window.URL.createObjectURL(new Blob([res.data]));
-            const link = document.createElement('a');
-            link.href = url;
-            link.setAttribute('download', 'My_Eco_Impact_Report.pdf');
-            document.body.appendChild(link);
-            link.click();
-            
-            // Cleanup
-            link.parentNode.removeChild(link);
-            window.URL.revokeObjectURL(url);
-            
+            // Rendered as a background job on the server; this resolves once the file is saved
+            await reportApi.download('/analytics/user/report/jobs', 'My_Eco_Impact_Report.pdf');
         } catch (err) {
             console.error("Failed to download report", err);
             alert("Failed to generate report. Please try again.");